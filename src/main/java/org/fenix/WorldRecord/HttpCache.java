@@ -0,0 +1,380 @@
+package org.fenix.WorldRecord;
+
+import org.fenix.utils.UserSettings;
+
+import java.io.*;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Properties;
+
+/**
+ * Persistent cache of the responses of the speedrun.com api.
+ * Responses younger than their time to live are served from disk without
+ * any request. Older ones are revalidated with their ETag and Last-Modified
+ * headers, so an unchanged response costs a 304 instead of a full download.
+ * If the api cannot be reached, the last known response is served.
+ * @author  4ilo 2018
+ */
+public class HttpCache
+{
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private static final int TIMEOUT = 10000;
+
+    private static final String USER_AGENT = "Llanfair";
+
+    private static volatile File directory = new File(UserSettings.getSettingsPath(), "cache");
+
+    /**
+     * Get the body of the response of the given url
+     * @param url the url to fetch
+     * @param ttl the time in milliseconds during which a cached response is used without revalidation
+     * @return The body of the response
+     * @throws IOException if the url cannot be fetched and no response is cached
+     */
+    public static String get(String url, long ttl) throws IOException
+    {
+        return JSONReader.readAll(open(url, ttl));
+    }
+
+    /**
+     * Open the body of the response of the given url as a stream.
+     * A downloaded body is written to the cache as it is read, and only kept once the stream is closed.
+     * @param url the url to fetch
+     * @param ttl the time in milliseconds during which a cached response is used without revalidation
+     * @return The body of the response, which must be closed
+     * @throws IOException if the url cannot be fetched and no response is cached
+     */
+    public static InputStream open(String url, long ttl) throws IOException
+    {
+        String key = hash(url);
+        File metaFile = new File(directory, key + ".properties");
+        File bodyFile = new File(directory, key + ".json");
+
+        Properties meta = readMeta(metaFile);
+        boolean cached = meta != null && bodyFile.isFile();
+        long now = System.currentTimeMillis();
+
+        if(cached && now - Long.parseLong(meta.getProperty("fetched", "0")) < ttl)
+        {
+            return new FileInputStream(bodyFile);
+        }
+
+        HttpURLConnection connection;
+        int status;
+
+        try
+        {
+            connection = (HttpURLConnection) new URL(url).openConnection();
+            connection.setConnectTimeout(TIMEOUT);
+            connection.setReadTimeout(TIMEOUT);
+            connection.setRequestProperty("User-Agent", USER_AGENT);
+            connection.setRequestProperty("Accept", "application/json");
+
+            if(cached)
+            {
+                String etag = meta.getProperty("etag");
+                String lastModified = meta.getProperty("lastModified");
+
+                if(etag != null)
+                    connection.setRequestProperty("If-None-Match", etag);
+                if(lastModified != null)
+                    connection.setRequestProperty("If-Modified-Since", lastModified);
+            }
+
+            status = connection.getResponseCode();
+        } catch(IOException e)
+        {
+            if(cached)
+                return new FileInputStream(bodyFile);
+            throw e;
+        }
+
+        if(status == HttpURLConnection.HTTP_NOT_MODIFIED && cached)
+        {
+            connection.disconnect();
+            meta.setProperty("fetched", Long.toString(now));
+            writeMeta(metaFile, meta);
+            return new FileInputStream(bodyFile);
+        }
+
+        if(status != HttpURLConnection.HTTP_OK)
+        {
+            connection.disconnect();
+            if(cached)
+                return new FileInputStream(bodyFile);
+            throw new IOException("HTTP " + status + " for " + url);
+        }
+
+        meta = new Properties();
+        meta.setProperty("url", url);
+        meta.setProperty("fetched", Long.toString(now));
+
+        String etag = connection.getHeaderField("ETag");
+        String lastModified = connection.getHeaderField("Last-Modified");
+
+        if(etag != null)
+            meta.setProperty("etag", etag);
+        if(lastModified != null)
+            meta.setProperty("lastModified", lastModified);
+
+        return new CachingStream(connection, bodyFile, metaFile, meta);
+    }
+
+    /**
+     * Set the directory in which the responses are cached, instead of the settings directory
+     * @param cacheDirectory the directory of the cache
+     */
+    static void setDirectory(File cacheDirectory)
+    {
+        directory = cacheDirectory;
+    }
+
+    /**
+     * Remove every cached response
+     */
+    public static synchronized void clear()
+    {
+        File[] files = directory.listFiles();
+
+        if(files == null)
+            return;
+
+        for(File file: files)
+        {
+            file.delete();
+        }
+    }
+
+    private static synchronized Properties readMeta(File file)
+    {
+        if(!file.isFile())
+            return null;
+
+        Properties meta = new Properties();
+
+        try
+        {
+            InputStream stream = new FileInputStream(file);
+
+            try
+            {
+                meta.load(stream);
+            } finally
+            {
+                stream.close();
+            }
+        } catch(IOException e)
+        {
+            return null;
+        }
+
+        return meta;
+    }
+
+    private static synchronized void writeMeta(File file, Properties meta) throws IOException
+    {
+        OutputStream stream = new FileOutputStream(file);
+
+        try
+        {
+            meta.store(stream, null);
+        } finally
+        {
+            stream.close();
+        }
+    }
+
+    /**
+     * Get the name of the cache entry of the given url
+     */
+    private static String hash(String url)
+    {
+        try
+        {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(url.getBytes(UTF8));
+            StringBuilder builder = new StringBuilder();
+
+            for(byte b: digest)
+            {
+                builder.append(String.format("%02x", b & 0xFF));
+            }
+
+            return builder.toString();
+        } catch(NoSuchAlgorithmException e)
+        {
+            return Integer.toHexString(url.hashCode());
+        }
+    }
+
+    /**
+     * Stream over a downloaded body copying what is read into a temporary file,
+     * which replaces the cached body once the whole response has been read.
+     * A body ending before its announced length fails instead of being read as a whole
+     */
+    private static class CachingStream extends FilterInputStream
+    {
+        private final HttpURLConnection connection;
+        private final File bodyFile;
+        private final File metaFile;
+        private final Properties meta;
+        private final long length;
+
+        private long received = 0L;
+        private File temp;
+        private OutputStream copy;
+        private boolean complete = false;
+
+        CachingStream(HttpURLConnection connection, File bodyFile, File metaFile, Properties meta) throws IOException
+        {
+            super(connection.getInputStream());
+            this.connection = connection;
+            this.bodyFile = bodyFile;
+            this.metaFile = metaFile;
+            this.meta = meta;
+            this.length = connection.getContentLengthLong();
+
+            try
+            {
+                if(directory.isDirectory() || directory.mkdirs())
+                {
+                    temp = File.createTempFile("response", ".tmp", directory);
+                    copy = new BufferedOutputStream(new FileOutputStream(temp));
+                }
+            } catch(IOException e)
+            {
+                discard();
+            }
+        }
+
+        public int read() throws IOException
+        {
+            int b = super.read();
+
+            if(b == -1)
+                end();
+            else
+                write(new byte[] { (byte) b }, 0, 1);
+
+            return b;
+        }
+
+        public int read(byte[] bytes, int offset, int length) throws IOException
+        {
+            int count = super.read(bytes, offset, length);
+
+            if(count == -1)
+                end();
+            else
+                write(bytes, offset, count);
+
+            return count;
+        }
+
+        public boolean markSupported()
+        {
+            return false;
+        }
+
+        /**
+         * Read the rest of the response so it can be cached, then keep or discard the copy
+         */
+        public void close() throws IOException
+        {
+            try
+            {
+                if(copy != null && !complete)
+                {
+                    byte[] bytes = new byte[8192];
+                    while(read(bytes, 0, bytes.length) != -1);
+                }
+            } catch(IOException e)
+            {
+                // $FALL-THROUGH$
+            } finally
+            {
+                super.close();
+                connection.disconnect();
+                commit();
+            }
+        }
+
+        /**
+         * Mark the body as complete once its end is reached
+         * @throws IOException if the body is shorter than announced
+         */
+        private void end() throws IOException
+        {
+            if(length >= 0 && received != length)
+                throw new IOException("Premature end of response: " + received + " of " + length + " bytes");
+
+            complete = true;
+        }
+
+        private void write(byte[] bytes, int offset, int length)
+        {
+            received += length;
+
+            if(copy == null)
+                return;
+
+            try
+            {
+                copy.write(bytes, offset, length);
+            } catch(IOException e)
+            {
+                discard();
+            }
+        }
+
+        private void commit()
+        {
+            if(copy == null)
+                return;
+
+            try
+            {
+                copy.close();
+                copy = null;
+
+                if(!complete)
+                {
+                    discard();
+                    return;
+                }
+
+                synchronized(HttpCache.class)
+                {
+                    bodyFile.delete();
+                    if(temp.renameTo(bodyFile))
+                        writeMeta(metaFile, meta);
+                    else
+                        discard();
+                }
+            } catch(IOException e)
+            {
+                discard();
+            }
+        }
+
+        private void discard()
+        {
+            if(copy != null)
+            {
+                try
+                {
+                    copy.close();
+                } catch(IOException e)
+                {
+                    // $FALL-THROUGH$
+                }
+                copy = null;
+            }
+            if(temp != null)
+                temp.delete();
+        }
+    }
+}
@@ -3,8 +3,10 @@ package org.fenix.WorldRecord;
 import org.json.JSONException;
 import org.json.JSONObject;
 
-import java.io.*;
-import java.net.URL;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.nio.charset.Charset;
 
 /**
@@ -14,45 +16,57 @@ import java.nio.charset.Charset;
 public class JSONReader
 {
     /**
-     * Get the content of the given reader as a string
-     * @param reader a reader object
-     * @return String with the data of the reader
+     * Get the content of the given stream as a string and close it
+     * @param stream a stream of UTF-8 text
+     * @return String with the data of the stream
      * @throws IOException
      */
-    private static String readAll(Reader reader) throws IOException
+    static String readAll(InputStream stream) throws IOException
     {
-        StringBuilder builder = new StringBuilder();
-        int cp;
+        try
+        {
+            Reader reader = new InputStreamReader(stream, Charset.forName("UTF-8"));
+            StringBuilder builder = new StringBuilder();
+            char[] buffer = new char[8192];
+            int count;
+
+            while((count = reader.read(buffer)) != -1)
+            {
+                builder.append(buffer, 0, count);
+            }
 
-        while((cp = reader.read()) != -1)
+            return builder.toString();
+        } finally
         {
-            builder.append((char) cp);
+            stream.close();
         }
-
-        return builder.toString();
     }
 
     /**
-     * Read the json from the given json-api url
+     * Read the json from the given json-api url, going through the response cache
      * @param url the api url
+     * @param ttl the time in milliseconds during which a cached response is used as is
      * @return  JSONObject with the data from the url
      * @throws IOException
      * @throws JSONException
      */
-    public static JSONObject readJsonFromUrl(String url) throws IOException, JSONException
+    public static JSONObject readJsonFromUrl(String url, long ttl) throws IOException, JSONException
     {
-        InputStream stream = new URL(url).openStream();
-
-        try
-        {
-            BufferedReader reader = new BufferedReader(new InputStreamReader(stream, Charset.forName("UTF-8")));
-            String jsonText = readAll(reader);
-
-            return new JSONObject(jsonText);
+        return new JSONObject(HttpCache.get(url, ttl));
+    }
 
-        } finally
-        {
-            stream.close();
-        }
+    /**
+     * Open a pull parser over the json of the given json-api url, going through the response cache.
+     * Unlike {@link #readJsonFromUrl(String, long)}, the response is parsed as it is downloaded
+     * and never held in memory as a whole.
+     * @param url the api url
+     * @param ttl the time in milliseconds during which a cached response is used as is
+     * @return  A parser over the data from the url, which must be closed
+     * @throws IOException
+     */
+    public static JsonPullParser openJsonFromUrl(String url, long ttl) throws IOException
+    {
+        InputStream stream = HttpCache.open(url, ttl);
+        return new JsonPullParser(new InputStreamReader(stream, Charset.forName("UTF-8")));
     }
 }
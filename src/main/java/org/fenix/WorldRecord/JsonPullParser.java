@@ -0,0 +1,399 @@
+package org.fenix.WorldRecord;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Pull parser reading JSON straight from a stream, one token at a time.
+ * Unlike org.json, no tree of the document is built: callers pick the
+ * values they need and skip the others, so memory use does not grow with
+ * the size of the response.
+ * @author  4ilo 2018
+ */
+public class JsonPullParser implements Closeable
+{
+    public enum Token
+    {
+        BEGIN_OBJECT, END_OBJECT, BEGIN_ARRAY, END_ARRAY, NAME, STRING, NUMBER, BOOLEAN, NULL, END_DOCUMENT
+    }
+
+    private static final int EMPTY_DOCUMENT = 0;
+    private static final int NONEMPTY_DOCUMENT = 1;
+    private static final int EMPTY_OBJECT = 2;
+    private static final int DANGLING_NAME = 3;
+    private static final int NONEMPTY_OBJECT = 4;
+    private static final int EMPTY_ARRAY = 5;
+    private static final int NONEMPTY_ARRAY = 6;
+
+    private final Reader reader;
+    private final char[] buffer = new char[8192];
+    private int position = 0;
+    private int limit = 0;
+
+    private int[] stack = new int[32];
+    private int depth = 0;
+
+    private Token peeked;
+    private String value;
+
+    private final StringBuilder builder = new StringBuilder();
+
+    public JsonPullParser(Reader reader)
+    {
+        if(reader == null)
+            throw new NullPointerException("Null reader");
+
+        this.reader = reader;
+        stack[depth++] = EMPTY_DOCUMENT;
+    }
+
+    /**
+     * Get the type of the next token without consuming it
+     * @return the next token
+     * @throws IOException if the stream cannot be read or is not valid JSON
+     */
+    public Token peek() throws IOException
+    {
+        if(peeked != null)
+            return peeked;
+
+        int c;
+
+        switch(stack[depth - 1])
+        {
+            case EMPTY_DOCUMENT:
+                stack[depth - 1] = NONEMPTY_DOCUMENT;
+                return peeked = readValue();
+
+            case NONEMPTY_DOCUMENT:
+                if(nextNonWhitespace() != -1)
+                    throw syntaxError("Trailing data");
+                return peeked = Token.END_DOCUMENT;
+
+            case EMPTY_ARRAY:
+                stack[depth - 1] = NONEMPTY_ARRAY;
+                c = nextNonWhitespace();
+                if(c == ']')
+                {
+                    depth--;
+                    return peeked = Token.END_ARRAY;
+                }
+                if(c != -1)
+                    position--;
+                return peeked = readValue();
+
+            case NONEMPTY_ARRAY:
+                c = nextNonWhitespace();
+                if(c == ']')
+                {
+                    depth--;
+                    return peeked = Token.END_ARRAY;
+                }
+                if(c != ',')
+                    throw syntaxError("Expected ',' or ']'");
+                return peeked = readValue();
+
+            case EMPTY_OBJECT:
+            case NONEMPTY_OBJECT:
+                c = nextNonWhitespace();
+                if(c == '}')
+                {
+                    depth--;
+                    return peeked = Token.END_OBJECT;
+                }
+                if(stack[depth - 1] == NONEMPTY_OBJECT)
+                {
+                    if(c != ',')
+                        throw syntaxError("Expected ',' or '}'");
+                    c = nextNonWhitespace();
+                }
+                if(c != '"')
+                    throw syntaxError("Expected a name");
+                value = readString();
+                stack[depth - 1] = DANGLING_NAME;
+                return peeked = Token.NAME;
+
+            default:
+                if(nextNonWhitespace() != ':')
+                    throw syntaxError("Expected ':'");
+                stack[depth - 1] = NONEMPTY_OBJECT;
+                return peeked = readValue();
+        }
+    }
+
+    /**
+     * Whether the current object or array has more elements
+     */
+    public boolean hasNext() throws IOException
+    {
+        Token token = peek();
+        return token != Token.END_OBJECT && token != Token.END_ARRAY && token != Token.END_DOCUMENT;
+    }
+
+    public void beginObject() throws IOException
+    {
+        consume(Token.BEGIN_OBJECT);
+    }
+
+    public void endObject() throws IOException
+    {
+        consume(Token.END_OBJECT);
+    }
+
+    public void beginArray() throws IOException
+    {
+        consume(Token.BEGIN_ARRAY);
+    }
+
+    public void endArray() throws IOException
+    {
+        consume(Token.END_ARRAY);
+    }
+
+    public String nextName() throws IOException
+    {
+        consume(Token.NAME);
+        return value;
+    }
+
+    /**
+     * Consume the next string, number or boolean and return its text
+     */
+    public String nextString() throws IOException
+    {
+        Token token = peek();
+
+        if(token != Token.STRING && token != Token.NUMBER && token != Token.BOOLEAN)
+            throw syntaxError("Expected a string but was " + token);
+
+        peeked = null;
+        return value;
+    }
+
+    public double nextDouble() throws IOException
+    {
+        try
+        {
+            return Double.parseDouble(nextString());
+        } catch(NumberFormatException e)
+        {
+            throw syntaxError("Expected a number");
+        }
+    }
+
+    public void nextNull() throws IOException
+    {
+        consume(Token.NULL);
+    }
+
+    /**
+     * Skip the next value, including every value it contains if it is an object or an array
+     */
+    public void skipValue() throws IOException
+    {
+        int count = 0;
+
+        do
+        {
+            Token token = peek();
+            peeked = null;
+
+            if(token == Token.BEGIN_OBJECT || token == Token.BEGIN_ARRAY)
+                count++;
+            else if(token == Token.END_OBJECT || token == Token.END_ARRAY)
+                count--;
+            else if(token == Token.NAME)
+                continue;
+            else if(token == Token.END_DOCUMENT)
+                throw syntaxError("Unexpected end of document");
+        } while(count > 0);
+    }
+
+    public void close() throws IOException
+    {
+        reader.close();
+    }
+
+    private void consume(Token expected) throws IOException
+    {
+        Token token = peek();
+
+        if(token != expected)
+            throw syntaxError("Expected " + expected + " but was " + token);
+
+        peeked = null;
+    }
+
+    private Token readValue() throws IOException
+    {
+        int c = nextNonWhitespace();
+
+        switch(c)
+        {
+            case '{':
+                push(EMPTY_OBJECT);
+                return Token.BEGIN_OBJECT;
+
+            case '[':
+                push(EMPTY_ARRAY);
+                return Token.BEGIN_ARRAY;
+
+            case '"':
+                value = readString();
+                return Token.STRING;
+
+            case -1:
+                throw syntaxError("Unexpected end of document");
+
+            default:
+                position--;
+                value = readLiteral();
+
+                if(value.equals("null"))
+                    return Token.NULL;
+                if(value.equals("true") || value.equals("false"))
+                    return Token.BOOLEAN;
+                if(value.isEmpty() || (c != '-' && (c < '0' || c > '9')))
+                    throw syntaxError("Unexpected character '" + (char) c + "'");
+                return Token.NUMBER;
+        }
+    }
+
+    private void push(int scope)
+    {
+        if(depth == stack.length)
+        {
+            int[] grown = new int[depth * 2];
+            System.arraycopy(stack, 0, grown, 0, depth);
+            stack = grown;
+        }
+        stack[depth++] = scope;
+    }
+
+    /**
+     * Read a string whose opening quote has been consumed
+     */
+    private String readString() throws IOException
+    {
+        builder.setLength(0);
+
+        while(true)
+        {
+            int start = position;
+
+            while(position < limit)
+            {
+                char c = buffer[position++];
+
+                if(c == '"')
+                {
+                    builder.append(buffer, start, position - start - 1);
+                    return builder.toString();
+                }
+                if(c == '\\')
+                {
+                    builder.append(buffer, start, position - start - 1);
+                    builder.append(readEscape());
+                    start = position;
+                }
+            }
+
+            builder.append(buffer, start, position - start);
+
+            if(!fill())
+                throw syntaxError("Unterminated string");
+        }
+    }
+
+    private char readEscape() throws IOException
+    {
+        int c = read();
+
+        switch(c)
+        {
+            case 'b': return '\b';
+            case 'f': return '\f';
+            case 'n': return '\n';
+            case 'r': return '\r';
+            case 't': return '\t';
+            case '"':
+            case '\\':
+            case '/':
+                return (char) c;
+            case 'u':
+                int code = 0;
+                for(int i = 0; i < 4; i++)
+                {
+                    int digit = Character.digit(read(), 16);
+                    if(digit < 0)
+                        throw syntaxError("Invalid escape sequence");
+                    code = (code << 4) | digit;
+                }
+                return (char) code;
+            default:
+                throw syntaxError("Invalid escape sequence");
+        }
+    }
+
+    /**
+     * Read an unquoted literal: a number, a boolean or null
+     */
+    private String readLiteral() throws IOException
+    {
+        builder.setLength(0);
+
+        while(position < limit || fill())
+        {
+            char c = buffer[position];
+
+            if((c >= '0' && c <= '9') || (c >= 'a' && c <= 'z') || c == '-' || c == '+' || c == '.' || c == 'E')
+            {
+                builder.append(c);
+                position++;
+            } else
+            {
+                break;
+            }
+        }
+
+        return builder.toString();
+    }
+
+    private int read() throws IOException
+    {
+        if(position == limit && !fill())
+            return -1;
+
+        return buffer[position++];
+    }
+
+    private int nextNonWhitespace() throws IOException
+    {
+        int c;
+
+        do
+        {
+            c = read();
+        } while(c == ' ' || c == '\n' || c == '\r' || c == '\t');
+
+        return c;
+    }
+
+    private boolean fill() throws IOException
+    {
+        int count = reader.read(buffer, 0, buffer.length);
+
+        if(count <= 0)
+            return false;
+
+        position = 0;
+        limit = count;
+        return true;
+    }
+
+    private IOException syntaxError(String message)
+    {
+        return new IOException("Malformed JSON: " + message);
+    }
+}
@@ -5,11 +5,14 @@ import org.fenix.llanfair.dialog.EditRun;
 import org.fenix.llanfair.dialog.LlanfairDialog;
 
 import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
 
 /**
  * Dialog window to select a world record on speedrun.com
@@ -41,6 +44,20 @@ public class RecordDialog extends LlanfairDialog
     private Category category;
     private EditRun editRun;
 
+    private Request<?> request;
+
+    /**
+     * Delay after the last keystroke before a type-ahead search is made
+     */
+    private static final int SEARCH_DELAY = 300;
+
+    /**
+     * Minimum length of a query to trigger a type-ahead search
+     */
+    private static final int MIN_QUERY_LENGTH = 2;
+
+    private Timer searchTimer;
+
 
     public RecordDialog(EditRun editRun, Llanfair master)
     {
@@ -62,6 +79,32 @@ public class RecordDialog extends LlanfairDialog
                     searchGame(searchField.getText());
                 }
             });
+
+            searchTimer = new Timer(SEARCH_DELAY, new ActionListener() {
+                public void actionPerformed(ActionEvent e)
+                {
+                    if(SearchCache.normalize(searchField.getText()).length() >= MIN_QUERY_LENGTH)
+                        searchGame(searchField.getText());
+                }
+            });
+            searchTimer.setRepeats(false);
+
+            // The results of a running search no longer match the text once it changes
+            searchField.getDocument().addDocumentListener(new DocumentListener() {
+                public void insertUpdate(DocumentEvent e)
+                {
+                    cancelRequest();
+                    searchTimer.restart();
+                }
+
+                public void removeUpdate(DocumentEvent e)
+                {
+                    cancelRequest();
+                    searchTimer.restart();
+                }
+
+                public void changedUpdate(DocumentEvent e) {}
+            });
         }
         JPanel gamesPanel = new JPanel(new GridLayout(1,2));
         {
@@ -117,57 +160,111 @@ public class RecordDialog extends LlanfairDialog
      */
     private void searchGame(String name)
     {
+        searchTimer.stop();
         this.resetFields();
 
-        ArrayList<Game> games = new ArrayList<>();
+        final String query = SearchCache.normalize(name);
+        ArrayList<Game> cached = SearchCache.getGames(query);
 
-        try {
-            games = WorldRecordParser.searchGames(name);
-        } catch (IOException e)
+        if(cached != null)
         {
-            master.showError("Error searching for matching games from speedrun.com.", e);
+            cancelRequest();
+            this.setGames(cached);
+            this.addGameListener();
+            return;
         }
 
-        this.setGames(games);
-        this.addGameListener();
+        execute(new Request<ArrayList<Game>>("Error searching for matching games from speedrun.com.") {
+            protected ArrayList<Game> doInBackground() throws IOException
+            {
+                ArrayList<Game> games = WorldRecordParser.searchGames(query);
+                SearchCache.putGames(query, games);
+                return games;
+            }
+
+            void succeeded(ArrayList<Game> games)
+            {
+                setGames(games);
+                addGameListener();
+            }
+        });
     }
 
     /**
      * Get the categories for a game on speedrun.com
      * @param game A game object received from the game search
      */
-    private void getCategories(Game game)
+    private void getCategories(final Game game)
     {
-        ArrayList<Category> categories = new ArrayList<>();
+        ArrayList<Category> cached = SearchCache.getCategories(game);
 
-        try {
-            categories = WorldRecordParser.getCategories(game);
-        } catch (IOException e)
+        if(cached != null)
         {
-            master.showError("Error fetching game categories from speedrun.com.", e);
+            cancelRequest();
+            this.setCategories(cached);
+            this.addCategoryListener();
+            return;
         }
 
-        this.setCategories(categories);
-        this.addCategoryListener();
+        execute(new Request<ArrayList<Category>>("Error fetching game categories from speedrun.com.") {
+            protected ArrayList<Category> doInBackground() throws IOException
+            {
+                ArrayList<Category> categories = WorldRecordParser.getCategories(game);
+                SearchCache.putCategories(game, categories);
+                return categories;
+            }
+
+            void succeeded(ArrayList<Category> categories)
+            {
+                setCategories(categories);
+                addCategoryListener();
+            }
+        });
     }
 
     /**
      * Get the world record time and owner from speedrun.com
      * @param category A category object received from the category search
      */
-    private void getWorldRecord(Category category)
+    private void getWorldRecord(final Category category)
     {
-        String worldRecord = "";
+        this.category = category;
 
-        try {
-            worldRecord = WorldRecordParser.getRecord(category);
-        } catch (IOException e)
+        execute(new Request<String>("Error fetching game category world record time/owner from speedrun.com.") {
+            protected String doInBackground() throws IOException
+            {
+                return WorldRecordParser.getRecord(category);
+            }
+
+            void succeeded(String record)
+            {
+                worldRecord.setText(record);
+            }
+        });
+    }
+
+    /**
+     * Run the given request in background, cancelling the one still running if any
+     * @param request the request to run
+     */
+    private void execute(Request<?> request)
+    {
+        cancelRequest();
+
+        this.request = request;
+        request.execute();
+    }
+
+    /**
+     * Cancel the request still running if any, interrupting its download
+     */
+    private void cancelRequest()
+    {
+        if(this.request != null)
         {
-            master.showError("Error fetching game category world record time/owner from speedrun.com.", e);
+            this.request.cancel(true);
+            this.request = null;
         }
-
-        this.worldRecord.setText(worldRecord);
-        this.category = category;
     }
 
     /**
@@ -207,6 +304,8 @@ public class RecordDialog extends LlanfairDialog
      */
     private void close()
     {
+        searchTimer.stop();
+        cancelRequest();
         this.setVisible(false);
     }
 
@@ -286,4 +385,43 @@ public class RecordDialog extends LlanfairDialog
     {
         return worldRecord.getText();
     }
+
+    /**
+     * A request to speedrun.com made in background, whose result is handled on the event dispatch thread
+     * @param <T> the type of the result
+     */
+    private abstract class Request<T> extends SwingWorker<T, Void>
+    {
+        private final String error;
+
+        Request(String error)
+        {
+            this.error = error;
+        }
+
+        /**
+         * Handle the result of the request
+         * @param result the result of the request
+         */
+        abstract void succeeded(T result);
+
+        protected void done()
+        {
+            if(isCancelled() || request != this)
+                return;
+
+            request = null;
+
+            try
+            {
+                succeeded(get());
+            } catch(InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            } catch(ExecutionException e)
+            {
+                master.showError(error, e.getCause());
+            }
+        }
+    }
 }
@@ -0,0 +1,151 @@
+package org.fenix.WorldRecord;
+
+import javax.swing.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the world record of a category up to date in the background.
+ * Records are fetched on a single low priority thread shared by every updater,
+ * then refreshed every hour. Failed fetches are retried after a delay doubling
+ * from one minute up to the refresh interval, so an offline timer does not keep
+ * hammering the network.
+ * @author  4ilo 2018
+ */
+public class RecordUpdater
+{
+    /**
+     * Receives the records fetched by an updater, on the event dispatch thread
+     */
+    public interface Listener
+    {
+        void recordUpdated(WorldRecord record);
+    }
+
+    private static final long REFRESH_INTERVAL = WorldRecordParser.RECORD_TTL;
+
+    private static final long MIN_BACKOFF = 60L * 1000L;
+
+    private static final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory()
+    {
+        public Thread newThread(Runnable runnable)
+        {
+            Thread thread = new Thread(runnable, "RecordUpdater");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        }
+    });
+
+    private final Listener listener;
+
+    private Category category;
+    private ScheduledFuture<?> task;
+    private long backoff = 0;
+
+    public RecordUpdater(Listener listener)
+    {
+        if(listener == null)
+            throw new NullPointerException("Null listener");
+
+        this.listener = listener;
+    }
+
+    /**
+     * Start keeping the record of the given category up to date, replacing the previous category.
+     * The first fetch only happens once the known record is due for a refresh.
+     * @param category the category whose record is wanted
+     * @param known the record already known for this category, or null
+     */
+    public synchronized void start(Category category, WorldRecord known)
+    {
+        stop();
+
+        if(category == null || category.getId().isEmpty())
+            return;
+
+        this.category = category;
+        long delay = 0;
+
+        if(known != null && known.getCategoryId().equals(category.getId()))
+            delay = Math.max(0, known.getFetched() + REFRESH_INTERVAL - System.currentTimeMillis());
+
+        schedule(delay);
+    }
+
+    /**
+     * Stop updating the record, dropping any fetch that is still pending
+     */
+    public synchronized void stop()
+    {
+        if(task != null)
+            task.cancel(false);
+
+        task = null;
+        category = null;
+        backoff = 0;
+    }
+
+    private void schedule(long delay)
+    {
+        final Category category = this.category;
+
+        task = scheduler.schedule(new Runnable()
+        {
+            public void run()
+            {
+                fetch(category);
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Fetch the record of the given category and plan the next fetch.
+     * Runs on the scheduler thread.
+     */
+    private void fetch(final Category category)
+    {
+        final WorldRecord record;
+
+        try
+        {
+            record = WorldRecordParser.fetchRecord(category);
+        } catch(Exception e)
+        {
+            synchronized(this)
+            {
+                if(category == this.category)
+                {
+                    backoff = (backoff == 0) ? MIN_BACKOFF : Math.min(backoff * 2, REFRESH_INTERVAL);
+                    schedule(backoff);
+                }
+            }
+            return;
+        }
+
+        synchronized(this)
+        {
+            if(category != this.category)
+                return;
+
+            backoff = 0;
+            schedule(REFRESH_INTERVAL);
+        }
+
+        SwingUtilities.invokeLater(new Runnable()
+        {
+            public void run()
+            {
+                synchronized(RecordUpdater.this)
+                {
+                    if(category != RecordUpdater.this.category)
+                        return;
+                }
+                listener.recordUpdated(record);
+            }
+        });
+    }
+}
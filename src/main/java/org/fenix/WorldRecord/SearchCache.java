@@ -0,0 +1,72 @@
+package org.fenix.WorldRecord;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * In-memory cache of the game searches and category lists fetched from speedrun.com.
+ * Only a search for the same normalized query is answered from memory: the name search
+ * of the api is fuzzy and matches abbreviations, so it cannot be narrowed locally.
+ * @author  4ilo 2018
+ */
+class SearchCache
+{
+    private static final int CAPACITY = 64;
+
+    private static final Map<String, ArrayList<Game>> games = new LinkedHashMap<String, ArrayList<Game>>(16, 0.75f, true)
+    {
+        protected boolean removeEldestEntry(Map.Entry<String, ArrayList<Game>> eldest)
+        {
+            return size() > CAPACITY;
+        }
+    };
+
+    private static final Map<String, ArrayList<Category>> categories = new LinkedHashMap<String, ArrayList<Category>>(16, 0.75f, true)
+    {
+        protected boolean removeEldestEntry(Map.Entry<String, ArrayList<Category>> eldest)
+        {
+            return size() > CAPACITY;
+        }
+    };
+
+    /**
+     * Normalize a query so that equivalent searches share their entry
+     */
+    static String normalize(String query)
+    {
+        return query.trim().toLowerCase(Locale.ENGLISH);
+    }
+
+    /**
+     * Get the games found by a previous search of the given query
+     * @param query the normalized query
+     * @return The games, or null if the query was not searched yet
+     */
+    static synchronized ArrayList<Game> getGames(String query)
+    {
+        ArrayList<Game> cached = games.get(query);
+        return (cached == null) ? null : new ArrayList<>(cached);
+    }
+
+    static synchronized void putGames(String query, ArrayList<Game> result)
+    {
+        games.put(query, new ArrayList<>(result));
+    }
+
+    /**
+     * Get the categories of the given game from the cache
+     * @return The categories, or null if they are not cached
+     */
+    static synchronized ArrayList<Category> getCategories(Game game)
+    {
+        ArrayList<Category> cached = categories.get(game.getId());
+        return (cached == null) ? null : new ArrayList<>(cached);
+    }
+
+    static synchronized void putCategories(Game game, ArrayList<Category> result)
+    {
+        categories.put(game.getId(), new ArrayList<>(result));
+    }
+}
@@ -0,0 +1,57 @@
+package org.fenix.WorldRecord;
+
+import java.io.Serializable;
+
+/**
+ * World record of a speedrun.com category, as known when it was last fetched.
+ * Kept with the run so it can be shown without waiting on the network.
+ * @author  4ilo 2018
+ */
+public class WorldRecord implements Serializable
+{
+    private static final long serialVersionUID = 1L;
+
+    private String categoryId = "";
+    private float time;
+    private String runner = "";
+    private long fetched;
+
+    public WorldRecord(String categoryId, float time, String runner, long fetched)
+    {
+        this.categoryId = categoryId;
+        this.time = time;
+        this.runner = runner;
+        this.fetched = fetched;
+    }
+
+    public String getCategoryId()
+    {
+        return categoryId;
+    }
+
+    /**
+     * @return The time of the record in seconds
+     */
+    public float getTime()
+    {
+        return time;
+    }
+
+    public String getRunner()
+    {
+        return runner;
+    }
+
+    /**
+     * @return The moment the record was fetched, in milliseconds since the epoch
+     */
+    public long getFetched()
+    {
+        return fetched;
+    }
+
+    public String toString()
+    {
+        return "World record: " + WorldRecordParser.parseTime(time) + " by " + runner;
+    }
+}
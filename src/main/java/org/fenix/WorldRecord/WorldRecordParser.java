@@ -1,16 +1,35 @@
 package org.fenix.WorldRecord;
 
-import org.json.JSONArray;
 import org.json.JSONObject;
 
 import java.io.IOException;
+import java.net.URLEncoder;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * @author  4ilo 2018
  */
 public class WorldRecordParser
 {
+    private static final String API = "https://www.speedrun.com/api/v1/";
+
+    /**
+     * Maximum number of games returned by a search
+     */
+    public static final int SEARCH_PAGE_SIZE = 20;
+
+    /**
+     * Time during which cached game searches and categories are used without revalidation
+     */
+    private static final long GAMES_TTL = 24L * 60L * 60L * 1000L;
+
+    /**
+     * Time during which cached records are used without revalidation
+     */
+    static final long RECORD_TTL = 60L * 60L * 1000L;
+
     /**
      * Search the speedrun.com database for the game with the given name
      * @param name The name of the game you want to search
@@ -19,23 +38,62 @@ public class WorldRecordParser
      */
     public static ArrayList<Game> searchGames(String name) throws IOException
     {
-        String url = "https://www.speedrun.com/api/v1/games?name=" + name;
-        JSONArray json_games;
+        String url = API + "games?name=" + URLEncoder.encode(name, "UTF-8") + "&max=" + SEARCH_PAGE_SIZE;
+        JsonPullParser parser = JSONReader.openJsonFromUrl(url, GAMES_TTL);
+
+        try
+        {
+            return readGames(parser);
+        } finally
+        {
+            parser.close();
+        }
+    }
+
+    /**
+     * Read the games of a game search response
+     * @param parser The parser positioned at the start of the response
+     * @return List of games
+     * @throws IOException
+     */
+    static ArrayList<Game> readGames(JsonPullParser parser) throws IOException
+    {
         ArrayList<Game> games = new ArrayList<>();
 
+        parser.beginObject();
+        while(parser.hasNext())
+        {
+            if(!parser.nextName().equals("data"))
+            {
+                parser.skipValue();
+                continue;
+            }
 
-        JSONObject json = JSONReader.readJsonFromUrl(url);
-        json_games = json.getJSONArray("data");
+            parser.beginArray();
+            while(parser.hasNext())
+            {
+                String id = "";
+                String gameName = "";
 
+                parser.beginObject();
+                while(parser.hasNext())
+                {
+                    String field = parser.nextName();
 
-        for(Object game: json_games)
-        {
-            JSONObject obj = (JSONObject) game;
-            games.add(new Game(
-                    obj.getJSONObject("names").get("international").toString(),
-                    obj.get("id").toString()
-            ));
+                    if(field.equals("id"))
+                        id = parser.nextString();
+                    else if(field.equals("names"))
+                        gameName = readInternationalName(parser);
+                    else
+                        parser.skipValue();
+                }
+                parser.endObject();
+
+                games.add(new Game(gameName, id));
+            }
+            parser.endArray();
         }
+        parser.endObject();
 
         return games;
     }
@@ -48,21 +106,51 @@ public class WorldRecordParser
      */
     public static ArrayList<Category> getCategories(Game game) throws IOException
     {
-        String url = "https://www.speedrun.com/api/v1/games/" + game.getId() + "/categories";
+        String url = API + "games/" + game.getId() + "/categories";
 
         ArrayList<Category> categories = new ArrayList<>();
 
+        JsonPullParser parser = JSONReader.openJsonFromUrl(url, GAMES_TTL);
+
+        try
+        {
+            parser.beginObject();
+            while(parser.hasNext())
+            {
+                if(!parser.nextName().equals("data"))
+                {
+                    parser.skipValue();
+                    continue;
+                }
+
+                parser.beginArray();
+                while(parser.hasNext())
+                {
+                    String id = "";
+                    String name = "";
+
+                    parser.beginObject();
+                    while(parser.hasNext())
+                    {
+                        String field = parser.nextName();
 
-        JSONObject json = JSONReader.readJsonFromUrl(url);
-        JSONArray json_categories = json.getJSONArray("data");
+                        if(field.equals("id"))
+                            id = parser.nextString();
+                        else if(field.equals("name"))
+                            name = parser.nextString();
+                        else
+                            parser.skipValue();
+                    }
+                    parser.endObject();
 
-        for(Object category: json_categories)
+                    categories.add(new Category(name, id));
+                }
+                parser.endArray();
+            }
+            parser.endObject();
+        } finally
         {
-            JSONObject obj = (JSONObject) category;
-            categories.add(new Category(
-                    obj.get("name").toString(),
-                    obj.get("id").toString()
-            ));
+            parser.close();
         }
 
         return categories;
@@ -76,28 +164,222 @@ public class WorldRecordParser
      */
     public static String getRecord(Category category) throws IOException
     {
-        String url = "https://www.speedrun.com/api/v1/categories/" + category.getId() + "/records";
+        return fetchRecord(category).toString();
+    }
+
+    /**
+     * Get the world record of the given speedrun.com category
+     * @param category WorldRecord.Category object received from a category search
+     * @return The world record, stamped with the current time
+     * @throws IOException
+     */
+    public static WorldRecord fetchRecord(Category category) throws IOException
+    {
+        String url = API + "categories/" + category.getId() + "/records?top=1&embed=players";
+
+        Record record = new Record();
+        JsonPullParser parser = JSONReader.openJsonFromUrl(url, RECORD_TTL);
+
+        try
+        {
+            parser.beginObject();
+            while(parser.hasNext())
+            {
+                if(!parser.nextName().equals("data"))
+                {
+                    parser.skipValue();
+                    continue;
+                }
+
+                parser.beginArray();
+                if(parser.hasNext())
+                    readLeaderboard(parser, record);
+                while(parser.hasNext())
+                    parser.skipValue();
+                parser.endArray();
+            }
+            parser.endObject();
+        } finally
+        {
+            parser.close();
+        }
+
+        if(record.time < 0)
+            throw new IOException("No record for category " + category.getId());
+
+        return new WorldRecord(category.getId(), record.time, getPlayerName(record), System.currentTimeMillis());
+    }
+
+    /**
+     * Read the first run of a leaderboard and the players embedded in it
+     */
+    private static void readLeaderboard(JsonPullParser parser, Record record) throws IOException
+    {
+        parser.beginObject();
+        while(parser.hasNext())
+        {
+            String field = parser.nextName();
 
-        JSONObject json = JSONReader.readJsonFromUrl(url);
-        JSONArray json_runs = json.getJSONArray("data").getJSONObject(0).getJSONArray("runs");
+            if(field.equals("runs"))
+            {
+                parser.beginArray();
+                if(parser.hasNext())
+                {
+                    parser.beginObject();
+                    while(parser.hasNext())
+                    {
+                        if(parser.nextName().equals("run"))
+                            readRun(parser, record);
+                        else
+                            parser.skipValue();
+                    }
+                    parser.endObject();
+                }
+                while(parser.hasNext())
+                    parser.skipValue();
+                parser.endArray();
+            } else if(field.equals("players") && parser.peek() == JsonPullParser.Token.BEGIN_OBJECT)
+            {
+                parser.beginObject();
+                while(parser.hasNext())
+                {
+                    if(!parser.nextName().equals("data"))
+                    {
+                        parser.skipValue();
+                        continue;
+                    }
 
-        JSONObject wr_run = json_runs.getJSONObject(0).getJSONObject("run");
+                    parser.beginArray();
+                    while(parser.hasNext())
+                    {
+                        String id = null;
+                        String name = null;
 
-        String player_name = getPlayerName(wr_run.getJSONArray("players").getJSONObject(0));
+                        parser.beginObject();
+                        while(parser.hasNext())
+                        {
+                            String playerField = parser.nextName();
 
-        return "World record: " + parseTime(wr_run.getJSONObject("times").getFloat("primary_t")) + " by " + player_name;
+                            if(playerField.equals("id"))
+                                id = parser.nextString();
+                            else if(playerField.equals("names"))
+                                name = readInternationalName(parser);
+                            else
+                                parser.skipValue();
+                        }
+                        parser.endObject();
+
+                        if(id != null && name != null)
+                            record.names.put(id, name);
+                    }
+                    parser.endArray();
+                }
+                parser.endObject();
+            } else
+            {
+                parser.skipValue();
+            }
+        }
+        parser.endObject();
     }
 
     /**
-     * Get the speedrun.com player name for the given player JSONObject
-     * @param player    The player JSONObject extracted from a run object
+     * Read the primary time and first player of a run
+     */
+    private static void readRun(JsonPullParser parser, Record record) throws IOException
+    {
+        parser.beginObject();
+        while(parser.hasNext())
+        {
+            String field = parser.nextName();
+
+            if(field.equals("players"))
+            {
+                parser.beginArray();
+                if(parser.hasNext())
+                {
+                    parser.beginObject();
+                    while(parser.hasNext())
+                    {
+                        String playerField = parser.nextName();
+
+                        if(playerField.equals("rel"))
+                            record.playerRel = parser.nextString();
+                        else if(playerField.equals("id"))
+                            record.playerId = parser.nextString();
+                        else if(playerField.equals("name"))
+                            record.playerName = parser.nextString();
+                        else if(playerField.equals("uri"))
+                            record.playerUri = parser.nextString();
+                        else
+                            parser.skipValue();
+                    }
+                    parser.endObject();
+                }
+                while(parser.hasNext())
+                    parser.skipValue();
+                parser.endArray();
+            } else if(field.equals("times"))
+            {
+                parser.beginObject();
+                while(parser.hasNext())
+                {
+                    if(parser.nextName().equals("primary_t"))
+                        record.time = (float) parser.nextDouble();
+                    else
+                        parser.skipValue();
+                }
+                parser.endObject();
+            } else
+            {
+                parser.skipValue();
+            }
+        }
+        parser.endObject();
+    }
+
+    /**
+     * Read the international name of a names object
+     */
+    private static String readInternationalName(JsonPullParser parser) throws IOException
+    {
+        String name = "";
+
+        parser.beginObject();
+        while(parser.hasNext())
+        {
+            if(parser.nextName().equals("international"))
+                name = parser.nextString();
+            else
+                parser.skipValue();
+        }
+        parser.endObject();
+
+        return name;
+    }
+
+    /**
+     * Get the speedrun.com player name of the record holder.
+     * The name is taken from the players embedded in the leaderboard if present,
+     * the player is only fetched on its own otherwise.
+     * @param record The record read from the leaderboard
      * @return The players name
      * @throws IOException
      */
-    private static String getPlayerName(JSONObject player) throws IOException
+    private static String getPlayerName(Record record) throws IOException
     {
-        String uri = player.get("uri").toString();
-        JSONObject json = JSONReader.readJsonFromUrl(uri);
+        if("guest".equals(record.playerRel) && record.playerName != null)
+            return record.playerName;
+
+        String embedded = record.names.get(record.playerId);
+
+        if(embedded != null)
+            return embedded;
+
+        if(record.playerUri == null)
+            throw new IOException("Unknown record holder");
+
+        JSONObject json = JSONReader.readJsonFromUrl(record.playerUri, GAMES_TTL);
         return json.getJSONObject("data").getJSONObject("names").get("international").toString();
     }
 
@@ -106,7 +388,7 @@ public class WorldRecordParser
      * @param time_seconds the time in seconds
      * @return Time in HH:MM:SS.sss format
      */
-    private static String parseTime(float time_seconds)
+    static String parseTime(float time_seconds)
     {
         int hours = (int) time_seconds / 3600;
         int secLeft = (int) time_seconds - hours*3600;
@@ -129,4 +411,17 @@ public class WorldRecordParser
 
         return time;
     }
+
+    /**
+     * The fields of a world record read from a leaderboard
+     */
+    private static class Record
+    {
+        float time = -1;
+        String playerRel;
+        String playerId;
+        String playerName;
+        String playerUri;
+        Map<String, String> names = new HashMap<>();
+    }
 }
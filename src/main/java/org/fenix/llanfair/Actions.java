@@ -72,37 +72,94 @@ final class Actions {
 	 * a thread to prevent possible deadlock.
 	 *
 	 * @param event the native key event to process
+	 * @param time the clock time, in milliseconds, at which the key was pressed
 	 */
-	void process( NativeKeyEvent event ) {
+	void process( NativeKeyEvent event, long time ) {
 		assert ( event != null );
 
 		int keyCode = event.getKeyCode();
-		Run run = master.getRun();
-		Run.State state = run.getState();
 
 		if ( keyCode == Settings.hotkeySplit.get() ) {
-			split();
+			process( Command.SPLIT, time );
 		} else if ( keyCode == Settings.hotkeyReset.get() ) {
-			reset();
+			process( Command.RESET, time );
 		} else if ( keyCode == Settings.hotkeyUnsplit.get() ) {
-			unsplit();
+			process( Command.UNSPLIT, time );
 		} else if ( keyCode == Settings.hotkeySkip.get() ) {
-			skip();
+			process( Command.SKIP, time );
 		} else if ( keyCode == Settings.hotkeyStop.get() ) {
-			if ( state == Run.State.ONGOING ) {
-				run.stop();
-			}
+			process( Command.STOP, time );
 		} else if ( keyCode == Settings.hotkeyPause.get() ) {
-			if ( state == Run.State.ONGOING ) {
-				run.pause();
-			} else if ( state == Run.State.PAUSED ) {
-				run.resume();
-			}
+			process( Command.PAUSE, time );
+		} else if ( keyCode == Settings.hotkeyGamePause.get() ) {
+			Run run = master.getRun();
+			process( run.isGameTimePaused() ? Command.GAME_RESUME
+					: Command.GAME_PAUSE, time );
 		} else if ( keyCode == Settings.hotkeyLock.get() ) {
 			master.setIgnoreNativeInputs( !master.ignoresNativeInputs() );
 		}
 	}
 
+	/**
+	 * Processes the given command as if it was received at the given clock
+	 * time. Commands that do not apply to the current state of the run are
+	 * ignored. This method must be called from the event dispatch thread.
+	 *
+	 * @param command the command to process
+	 * @param time the clock time, in milliseconds, at which it was received
+	 */
+	void process( Command command, long time ) {
+		assert ( command != null );
+
+		Run run = master.getRun();
+		Run.State state = run.getState();
+
+		switch ( command ) {
+			case START:
+				if ( state == Run.State.READY ) {
+					run.start( time );
+				}
+				break;
+			case SPLIT:
+				split( time );
+				break;
+			case UNSPLIT:
+				unsplit( time );
+				break;
+			case SKIP:
+				skip( time );
+				break;
+			case PAUSE:
+				if ( state == Run.State.ONGOING ) {
+					run.pause( time );
+				} else if ( state == Run.State.PAUSED ) {
+					run.resume( time );
+				}
+				break;
+			case RESUME:
+				if ( state == Run.State.PAUSED ) {
+					run.resume( time );
+				}
+				break;
+			case RESET:
+				reset();
+				break;
+			case STOP:
+				if ( state == Run.State.ONGOING ) {
+					run.stop();
+				}
+				break;
+			case GAME_PAUSE:
+				if ( state == Run.State.ONGOING || state == Run.State.PAUSED ) {
+					run.pauseGameTime( time );
+				}
+				break;
+			case GAME_RESUME:
+				run.resumeGameTime( time );
+				break;
+		}
+	}
+
 	/**
 	 * Processes the given action event. It is assumed here that the action
 	 * event is one triggered by a menu item. This method must be called from
@@ -165,19 +222,18 @@ final class Actions {
 	 * Performs a split or starts the run if it is ready. Can also resume a
 	 * paused run in case the run is segmented.
 	 */
-	private void split() {
+	private void split( long time ) {
 		Run run = master.getRun();
 		Run.State state = run.getState();
 		if ( state == Run.State.ONGOING ) {
-			long milli = System.nanoTime() / 1000000L;
 			long start = run.getSegment( run.getCurrent() ).getStartTime();
-			if ( milli - start > GHOST_DELAY ) {
-				run.split();
+			if ( time - start > GHOST_DELAY ) {
+				run.split( time );
 			}
 		} else if ( state == Run.State.READY ) {
-			run.start();
+			run.start( time );
 		} else if ( state == Run.State.PAUSED && run.isSegmented() ) {
-			run.resume();
+			run.resume( time );
 		}
 	}
 
@@ -199,13 +255,12 @@ final class Actions {
 	 * is canceled and the time that passed after said split is added back to
 	 * the timer, as if the split had not taken place.
 	 */
-	private void unsplit() {
+	private void unsplit( long time ) {
 		Run run = master.getRun();
 		Run.State state = run.getState();
 		if ( state == Run.State.ONGOING || state == Run.State.STOPPED ) {
-			long milli = System.nanoTime() / 1000000L;
-			if ( milli - lastUnsplit > GHOST_DELAY ) {
-				lastUnsplit = milli;
+			if ( time - lastUnsplit > GHOST_DELAY ) {
+				lastUnsplit = time;
 				run.unsplit();
 			}
 		}
@@ -216,12 +271,11 @@ final class Actions {
 	 * time for the current segment and merges the live time of the current
 	 * segment with the following one.
 	 */
-	private void skip() {
+	private void skip( long time ) {
 		Run run = master.getRun();
 		if ( run.getState() == Run.State.ONGOING ) {
-			long milli = System.nanoTime() / 1000000L;
-			if ( milli - lastSkip > GHOST_DELAY ) {
-				lastSkip = milli;
+			if ( time - lastSkip > GHOST_DELAY ) {
+				lastSkip = time;
 				run.skip();
 			}
 		}
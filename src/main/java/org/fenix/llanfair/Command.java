@@ -0,0 +1,79 @@
+package org.fenix.llanfair;
+
+/**
+ * Enumerates the commands that can be given to the timer, whatever their
+ * source: hotkeys or external controllers. Commands are executed by
+ * {@link Llanfair#execute(Command, long)} along with the clock time at which
+ * they were received.
+ *
+ * @author  Xavier "Xunkar" Sencert
+ */
+public enum Command {
+
+	/**
+	 * Starts the run if it is ready.
+	 */
+	START,
+
+	/**
+	 * Splits, starts the run if it is ready or resumes a segmented run.
+	 */
+	SPLIT,
+
+	/**
+	 * Cancels the last split.
+	 */
+	UNSPLIT,
+
+	/**
+	 * Skips the current segment.
+	 */
+	SKIP,
+
+	/**
+	 * Pauses the run if it is on-going or resumes it if it is paused.
+	 */
+	PAUSE,
+
+	/**
+	 * Resumes the run if it is paused.
+	 */
+	RESUME,
+
+	/**
+	 * Resets the run.
+	 */
+	RESET,
+
+	/**
+	 * Stops the run if it is on-going.
+	 */
+	STOP,
+
+	/**
+	 * Pauses the game time if the run is on-going, for instance during a
+	 * loading.
+	 */
+	GAME_PAUSE,
+
+	/**
+	 * Resumes the game time if it is paused.
+	 */
+	GAME_RESUME;
+
+	/**
+	 * Returns the command of given name, ignoring case, or {@code null} if
+	 * there is no such command.
+	 *
+	 * @param   name    - the name of the command.
+	 * @return  the command of given name or {@code null}.
+	 */
+	public static Command forName(String name) {
+		for (Command command : values()) {
+			if (command.name().equalsIgnoreCase(name)) {
+				return command;
+			}
+		}
+		return null;
+	}
+}
@@ -1,7 +1,9 @@
 package org.fenix.llanfair;
 
 import org.fenix.utils.Resources;
+import org.fenix.utils.locale.LocaleEvent;
 
+import java.text.MessageFormat;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
@@ -11,6 +13,11 @@ import java.util.Map;
  * possible to ask directly the {@link Resources} singleton that this class uses
  * we prefer declaring explicitely every token here to make sure we never call
  * a non-existent reference.
+ * <p>
+ * The strings are resolved once for the current locale and kept in a table,
+ * along with the compiled formats of the parameterized ones, so that updating
+ * the interface does not go through the resource bundle. The table is rebuilt
+ * when the locale changes.
  *
  * @author  Xavier "Xunkar" Sencert
  * @see     Resources
@@ -27,6 +34,7 @@ public enum Language {
 	setting_coordinates,
 	setting_dimension,
 	setting_compareMethod,
+	setting_timingMethod,
 	setting_accuracy,
 	setting_locked,
 	setting_warnOnReset,
@@ -58,6 +66,7 @@ public enum Language {
 	setting_hotkey_reset,
 	setting_hotkey_stop,
 	setting_hotkey_pause,
+	setting_hotkey_gamePause,
 	setting_hotkey_lock,
 	GLOBAL_HOTKEYS_STARTUP_ERROR,
 
@@ -111,6 +120,26 @@ public enum Language {
 	setting_footer_sumOfBest,
 	setting_footer_worldRecord,
 
+	// Settings > Overlay
+	setting_overlay_enabled,
+	setting_overlay_frameRate,
+	setting_overlay_file,
+	setting_overlay_pngSequence,
+
+	// Settings > Remote
+	setting_remote_enabled,
+	setting_remote_address,
+	setting_remote_port,
+
+	// Settings > Stream
+	setting_stream_enabled,
+	setting_stream_address,
+	setting_stream_port,
+
+	// Settings > Input
+	setting_input_enabled,
+	setting_input_source,
+
 	// Accuracy
 	accuracy_seconds,
 	accuracy_tenth,
@@ -120,6 +149,10 @@ public enum Language {
 	compare_best_overall_run,
 	compare_sum_of_best_segments,
 
+	// Timing
+	timing_real_time,
+	timing_game_time,
+
 	// Merge
 	merge_none,
 	merge_live,
@@ -149,6 +182,12 @@ public enum Language {
 	error_window_width,
 	error_max_recent_files,
 	error_splits_path,
+	error_overlay,
+	error_remote,
+	error_stream,
+	error_input,
+	error_port,
+	error_read_icon,
 
 	// Actions
 	action_accept,
@@ -244,7 +283,9 @@ public enum Language {
 	BOLD,
 	CANCEL,
 	COMPARE_METHOD,
+	TIMING_METHOD,
 	COMPONENTS,
+	CONNECTIONS,
 	DISABLED,
 	EDITING,
 	ERROR,
@@ -287,6 +328,12 @@ public enum Language {
 		LOCALE_NAMES.put("sv", "Svenska");
 	}
 
+	/**
+	 * Strings of every element resolved for the current locale, or
+	 * {@code null} until they are first needed.
+	 */
+	private static volatile Table table = null;
+
 	// -------------------------------------------------------------- INTERFACE
 
 	/**
@@ -295,7 +342,7 @@ public enum Language {
 	 * @return  the localized string for this element.
 	 */
 	public String get() {
-	  return Llanfair.getResources().getString(name());
+	  return getTable().strings[ordinal()];
 	}
 
 	/**
@@ -306,7 +353,7 @@ public enum Language {
 	 * @return  the localized string filled with the given parameters.
 	 */
 	public String get(Object... parameters) {
-	  return Llanfair.getResources().getString(name(), parameters);
+	  return getTable().format(ordinal(), parameters);
 	}
 
 	/**
@@ -316,4 +363,88 @@ public enum Language {
 	@Override public String toString() {
 	  return get();
 	}
+
+	/**
+	 * Resolves the strings again for the new locale. Must be called once the
+	 * resources themselves have been updated.
+	 *
+	 * @param   event   - the event describing the locale change.
+	 */
+	public static void localeChanged(LocaleEvent event) {
+		Resources resources = Llanfair.getResources();
+		table = (resources == null) ? null : new Table(resources);
+	}
+
+	// -------------------------------------------------------------- UTILITIES
+
+	/**
+	 * Returns the table of the strings resolved from the current resources,
+	 * building it if necessary.
+	 */
+	private static Table getTable() {
+		Resources resources = Llanfair.getResources();
+		Table     current   = table;
+		if (current == null || current.resources != resources) {
+			current = new Table(resources);
+			table   = current;
+		}
+		return current;
+	}
+
+	// ---------------------------------------------------------- INTERNAL TYPE
+
+	/**
+	 * Strings of every element resolved from some resources for the locale in
+	 * use when the table was built, indexed by ordinal.
+	 */
+	private static class Table {
+
+		/**
+		 * Resources from which the strings were resolved.
+		 */
+		final Resources resources;
+
+		/**
+		 * Resolved string of each element, {@code null} if missing.
+		 */
+		final String[] strings;
+
+		/**
+		 * Compiled format of each string, {@code null} until first needed.
+		 * The strings holding parameters are compiled with the table.
+		 */
+		private final MessageFormat[] formats;
+
+		private final Locale locale;
+
+		Table(Resources resources) {
+			Language[] values = values();
+			this.resources = resources;
+			strings        = new String[values.length];
+			formats        = new MessageFormat[values.length];
+			locale         = Locale.getDefault();
+			for (int i = 0; i < values.length; i++) {
+				strings[i] = resources.getString(values[i].name());
+				if (strings[i] != null && strings[i].indexOf('{') >= 0) {
+					formats[i] = new MessageFormat(strings[i], locale);
+				}
+			}
+		}
+
+		/**
+		 * Returns the string of given index filled with the given parameters.
+		 * A missing string is replaced by the name of its element. Synchronized
+		 * as formats cannot be used by concurrent threads.
+		 */
+		synchronized String format(int index, Object[] parameters) {
+			if (formats[index] == null) {
+				String pattern = strings[index];
+				if (pattern == null) {
+					pattern = values()[index].name();
+				}
+				formats[index] = new MessageFormat(pattern, locale);
+			}
+			return formats[index].format(parameters);
+		}
+	}
 }
@@ -1,10 +1,17 @@
 package org.fenix.llanfair;
 
+import org.fenix.llanfair.config.PropertyDispatcher;
 import org.fenix.llanfair.config.Settings;
+import org.fenix.llanfair.extern.CommandReader;
+import org.fenix.llanfair.extern.EventStream;
+import org.fenix.llanfair.extern.RemoteServer;
+import org.fenix.llanfair.gui.OverlayExporter;
 import org.fenix.llanfair.gui.RunPane;
+import org.fenix.utils.IconCache;
 import org.fenix.utils.Resources;
 import org.fenix.utils.UserSettings;
 import org.fenix.utils.gui.BorderlessFrame;
+import org.fenix.utils.gui.LayoutScheduler;
 import org.fenix.utils.locale.LocaleDelegate;
 import org.fenix.utils.locale.LocaleEvent;
 import org.fenix.utils.locale.LocaleListener;
@@ -23,6 +30,9 @@ import java.beans.PropertyChangeListener;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Locale;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -39,6 +49,28 @@ public class Llanfair extends BorderlessFrame implements TableModelListener,
 
 	private static Resources RESOURCES = null;
 
+	/**
+	 * Layout flag requesting the frame to be packed.
+	 */
+	private static final int LAYOUT_PACK = 0x01;
+
+	/**
+	 * Layout flag requesting the frame to be resized to its configured width
+	 * before being packed.
+	 */
+	private static final int LAYOUT_RESIZE = 0x02;
+
+	/**
+	 * Reactions of the frame to property updates, see {@link #react(int)}.
+	 */
+	private static final int REACT_MENU = 0x01;
+	private static final int REACT_PACK = 0x02;
+	private static final int REACT_ALWAYS_ON_TOP = 0x04;
+	private static final int REACT_OVERLAY = 0x08;
+	private static final int REACT_REMOTE = 0x10;
+	private static final int REACT_STREAM = 0x20;
+	private static final int REACT_INPUT = 0x40;
+	private static final int REACT_RESIZE = 0x80;
 
 	static {
 		ToolTipManager.sharedInstance().setInitialDelay( 1000 );
@@ -57,6 +89,18 @@ public class Llanfair extends BorderlessFrame implements TableModelListener,
 				return;
 
 			Settings.save();
+			if (overlay != null) {
+				overlay.stop();
+			}
+			if (remote != null) {
+				remote.stop();
+			}
+			if (stream != null) {
+				stream.stop();
+			}
+			if (input != null) {
+				input.stop();
+			}
 			try {
 				GlobalScreen.unregisterNativeHook();
 			} catch (NativeHookException e) {
@@ -71,6 +115,10 @@ public class Llanfair extends BorderlessFrame implements TableModelListener,
 
 	private Run run;
 	private RunPane runPane;
+	private OverlayExporter overlay;
+	private RemoteServer remote;
+	private EventStream stream;
+	private CommandReader input;
 
 	private Actions actions;
 
@@ -81,6 +129,15 @@ public class Llanfair extends BorderlessFrame implements TableModelListener,
 
 	private Dimension preferredSize;
 
+	private LayoutScheduler layoutScheduler;
+
+	private PropertyDispatcher dispatcher;
+
+	/**
+	 * Reactions collected while dispatching a property change event.
+	 */
+	private int reactions;
+
 	/**
 	 * Creates and initializes the application. As with any Swing application
 	 * this constructor should be called from within a thread to avoid
@@ -116,6 +173,20 @@ public class Llanfair extends BorderlessFrame implements TableModelListener,
 		ignoreNativeInputs = false;
 		preferredSize = null;
 		actions = new Actions( this );
+		dispatcher = new PropertyDispatcher();
+		setReactions();
+		remote = new RemoteServer( this );
+		input = new CommandReader( this );
+		layoutScheduler = new LayoutScheduler( new LayoutScheduler.Task() {
+			@Override public void layout( int flags ) {
+				if ( ( flags & LAYOUT_RESIZE ) == LAYOUT_RESIZE ) {
+					resizeFrame();
+				} else {
+					setPreferredSize( preferredSize );
+					pack();
+				}
+			}
+		} );
 
 		setMenu();
 
@@ -124,6 +195,9 @@ public class Llanfair extends BorderlessFrame implements TableModelListener,
 			return;
 
 		setRun( run );
+		updateRemote();
+		updateStream();
+		updateInput();
 
 		setVisible( true );
 	}
@@ -176,10 +250,25 @@ public class Llanfair extends BorderlessFrame implements TableModelListener,
 	 *
 	 * @return the current run
 	 */
-	Run getRun() {
+	public Run getRun() {
 		return run;
 	}
 
+	/**
+	 * Executes the given command on the current run as if it was received at
+	 * the given clock time, obtained from {@code System.nanoTime()} in
+	 * milliseconds. Must be called from the event dispatch thread.
+	 *
+	 * @param command the command to execute
+	 * @param time the clock time at which the command was received
+	 */
+	public void execute( Command command, long time ) {
+		if ( command == null ) {
+			throw new NullPointerException( "Null command" );
+		}
+		actions.process( command, time );
+	}
+
 	/**
 	 * Sets the run to represent in this application to the given run. If the
 	 * GUI does not exist (in other words, we are registering the first run) it
@@ -191,17 +280,27 @@ public class Llanfair extends BorderlessFrame implements TableModelListener,
 		if ( run == null ) {
 			throw new NullPointerException( "Null run" );
 		}
+		if ( this.run != null && this.run != run ) {
+			this.run.stopRecordUpdates();
+		}
 		this.run = run;
 		// If we have a GUI, set the new model; else, create the GUI
 		if ( runPane != null ) {
 			runPane.setRun( run );
+			overlay.setRun( run );
+			stream.setRun( run );
 		} else {
 			runPane = new RunPane( run );
+			overlay = new OverlayExporter( runPane, run );
+			stream = new EventStream( run );
 			add( runPane );
 		}
 		Settings.setRun( run );
+		updateOverlay();
+		prefetchIcons( run );
 		run.addTableModelListener( this );
 		run.addPropertyChangeListener( this );
+		run.startRecordUpdates();
 		MenuItem.setActiveState( run.getState() );
 
 		setPreferredSize( preferredSize );
@@ -304,6 +403,94 @@ public class Llanfair extends BorderlessFrame implements TableModelListener,
 		}
 	}
 
+	/**
+	 * Schedules the rescaling of the icons of the given run in background for
+	 * every legit icon size, starting with the sizes currently in use, so
+	 * that displaying them or changing the icon size setting is instant.
+	 *
+	 * @param   run - the run whose icons should be rescaled.
+	 */
+	private void prefetchIcons( Run run ) {
+		List<ImageIcon> icons = new ArrayList<ImageIcon>();
+		for ( int i = 0; i < run.getRowCount(); i++ ) {
+			icons.add( run.getSegment( i ).getIcon() );
+		}
+		int history = Settings.historyIconSize.get();
+		int core    = Settings.coreIconSize.get();
+		IconCache.prefetch( icons, history, core );
+		for ( int size : Segment.ICON_SIZES ) {
+			if ( size != history && size != core ) {
+				IconCache.prefetch( icons, size );
+			}
+		}
+	}
+
+	/**
+	 * Restarts or stops the export of overlay frames according to the
+	 * current settings. Reports an error if the frame file cannot be opened.
+	 */
+	private void updateOverlay() {
+		overlay.stop();
+		if ( Settings.overlayEnabled.get() ) {
+			try {
+				overlay.start();
+			} catch ( IOException ex ) {
+				showError( Language.error_overlay.get(
+						overlay.getFile().getPath() ), ex );
+			}
+		}
+	}
+
+	/**
+	 * Restarts or stops the remote control server according to the current
+	 * settings. Reports an error if the server cannot be bound.
+	 */
+	private void updateRemote() {
+		remote.stop();
+		if ( Settings.remoteEnabled.get() ) {
+			String address = Settings.remoteAddress.get();
+			int port = Settings.remotePort.get();
+			try {
+				remote.start( InetAddress.getByName( address ), port );
+			} catch ( IOException ex ) {
+				showError( Language.error_remote.get( address, port ), ex );
+			}
+		}
+	}
+
+	/**
+	 * Restarts or stops the stream of run events according to the current
+	 * settings. Reports an error if the stream cannot be bound.
+	 */
+	private void updateStream() {
+		stream.stop();
+		if ( Settings.streamEnabled.get() ) {
+			String address = Settings.streamAddress.get();
+			int port = Settings.streamPort.get();
+			try {
+				stream.start( InetAddress.getByName( address ), port );
+			} catch ( IOException ex ) {
+				showError( Language.error_stream.get( address, port ), ex );
+			}
+		}
+	}
+
+	/**
+	 * Restarts or stops the reading of commands from another program according
+	 * to the current settings. Reports an error if the source does not exist.
+	 */
+	private void updateInput() {
+		input.stop();
+		if ( Settings.inputEnabled.get() ) {
+			String source = Settings.inputSource.get();
+			try {
+				input.start( source );
+			} catch ( IOException ex ) {
+				showError( Language.error_input.get( source ), ex );
+			}
+		}
+	}
+
 	/**
 	 * Writes all values from the {@code Language} enum in a property file.
 	 * This method will append all the newly defined entries to the list of
@@ -329,10 +516,12 @@ public class Llanfair extends BorderlessFrame implements TableModelListener,
 
 	/**
 	 * When the locale changes, we first ask the resources to reload the locale
-	 * dependent resources and pass the event to the GUI.
+	 * dependent resources, resolve the strings again and pass the event to
+	 * the GUI.
 	 */
 	@Override public void localeChanged( LocaleEvent event ) {
 		RESOURCES.defaultLocaleChanged();
+		Language.localeChanged( event );
 		if ( runPane != null ) {
 			runPane.processLocaleEvent( event );
 		}
@@ -350,9 +539,11 @@ public class Llanfair extends BorderlessFrame implements TableModelListener,
 			boolean hotkeysEnabler = ( keyCode == Settings.hotkeyLock.get() );
 
 			if ( (!areHotkeysLocked() && !ignoresNativeInputs()) || hotkeysEnabler ) {
+				// Timestamp the key press now rather than once on the EDT
+				final long time = System.nanoTime() / 1000000L;
 				SwingUtilities.invokeLater( new Runnable() {
 					@Override public void run() {
-						actions.process( event );
+						actions.process( event, time );
 					}
 				} );
 			}
@@ -367,68 +558,101 @@ public class Llanfair extends BorderlessFrame implements TableModelListener,
 	 * A property change event might be fired from either the settings
 	 * singleton or the run itself. In either case, we propagate the event to
 	 * our children and update ourself with the new value of the given property.
+	 * The updates of a settings transaction are received in a single composite
+	 * event, in which case each of our reactions is only carried out once.
 	 */
 	@Override public void propertyChange( PropertyChangeEvent event ) {
 		runPane.processPropertyChangeEvent( event );
-		String property = event.getPropertyName();
+		reactions = 0;
+		dispatcher.dispatch( event );
+		overlay.markDirty();
+		react( reactions );
+	}
 
-		if ( Run.STATE_PROPERTY.equals( property ) ) {
-			MenuItem.setActiveState(run.getState());
-			//forceInternalComponentsResize();
-		} else if (Run.NAME_PROPERTY.equals(property)) {
-			forceInternalComponentsResize();
-		} else if (Run.SUBTITLE_PROPERTY.equals(property)) {
-			forceInternalComponentsResize();
-		} else if (Settings.headerShowAttempts.equals(property)) {
+	/**
+	 * Registers the reactions of the frame to the update of the properties,
+	 * as {@code REACT_} flags collected by {@link #propertyChange}.
+	 */
+	private void setReactions() {
+		dispatcher.on( new Reaction( REACT_MENU ), Run.STATE_PROPERTY );
+		dispatcher.on( new Reaction( REACT_PACK ),
+				Run.NAME_PROPERTY, Run.SUBTITLE_PROPERTY );
+		dispatcher.on( new Reaction( REACT_PACK ), Settings.headerShowAttempts );
+		dispatcher.on(
+				new Reaction( REACT_ALWAYS_ON_TOP ), Settings.alwaysOnTop
+		);
+		dispatcher.on( new Reaction( REACT_OVERLAY ),
+				Settings.overlayEnabled, Settings.overlayFrameRate,
+				Settings.overlayFile, Settings.overlayPngSequence );
+		dispatcher.on( new Reaction( REACT_REMOTE ),
+				Settings.remoteEnabled, Settings.remoteAddress,
+				Settings.remotePort );
+		dispatcher.on( new Reaction( REACT_STREAM ),
+				Settings.streamEnabled, Settings.streamAddress,
+				Settings.streamPort );
+		dispatcher.on( new Reaction( REACT_INPUT ),
+				Settings.inputEnabled, Settings.inputSource );
+		dispatcher.on( new Reaction( REACT_RESIZE ),
+				Settings.historyRowCount, Settings.graphDisplay,
+				Settings.footerDisplay, Settings.footerUseSplitData,
+				Settings.coreIconSize, Settings.accuracy,
+				Settings.headerShowSubtitle, Settings.headerShowTitle,
+				Settings.historyDeltas, Settings.historySegmentFont,
+				Settings.historyTimeFont, Settings.historyLiveTimes,
+				Settings.historyMerge, Settings.historyBlankRows,
+				Settings.historyIcons, Settings.historyIconSize,
+				Settings.historyMultiline, Settings.coreShowSegmentName,
+				Settings.coreShowSplitTime, Settings.coreShowSegmentTime,
+				Settings.coreShowBestTime, Settings.coreShowIcons,
+				Settings.coreTimerFont, Settings.coreSegmentTimerFont,
+				Settings.coreShowSegmentTimer, Settings.footerShowBestTime,
+				Settings.footerShowDeltaLabels, Settings.footerVerbose,
+				Settings.footerMultiline, Settings.footerShowSumOfBest,
+				Settings.windowUserResizable, Settings.windowWidth );
+	}
+
+	/**
+	 * Carries out the given reactions to property updates, each at most once.
+	 *
+	 * @param reactions a combination of the {@code REACT_} flags
+	 */
+	private void react( int reactions ) {
+		if ( ( reactions & REACT_MENU ) != 0 ) {
+			MenuItem.setActiveState( run.getState() );
+		}
+		if ( ( reactions & REACT_PACK ) != 0 ) {
 			forceInternalComponentsResize();
-		} else if ( Settings.alwaysOnTop.equals( property ) ) {
+		}
+		if ( ( reactions & REACT_ALWAYS_ON_TOP ) != 0 ) {
 			setAlwaysOnTop( Settings.alwaysOnTop.get() );
-		} else if (Settings.historyRowCount.equals(property)
-				|| Settings.graphDisplay.equals(property)
-				|| Settings.footerDisplay.equals(property)
-				|| Settings.footerUseSplitData.equals(property)
-				|| Settings.coreIconSize.equals(property)
-				|| Settings.accuracy.equals(property)
-				|| Settings.headerShowSubtitle.equals(property)
-				|| Settings.headerShowTitle.equals(property)
-				|| Settings.historyDeltas.equals(property)
-				|| Settings.historySegmentFont.equals(property)
-				|| Settings.historyTimeFont.equals(property)
-				|| Settings.historyLiveTimes.equals(property)
-				|| Settings.historyMerge.equals(property)
-				|| Settings.historyBlankRows.equals(property)
-				|| Settings.historyIcons.equals(property)
-				|| Settings.historyIconSize.equals(property)
-				|| Settings.historyMultiline.equals(property)
-				|| Settings.coreShowSegmentName.equals(property)
-				|| Settings.coreShowSplitTime.equals(property)
-				|| Settings.coreShowSegmentTime.equals(property)
-				|| Settings.coreShowBestTime.equals(property)
-				|| Settings.coreShowIcons.equals(property)
-				|| Settings.coreTimerFont.equals(property)
-				|| Settings.coreSegmentTimerFont.equals(property)
-				|| Settings.coreShowSegmentTimer.equals(property)
-				|| Settings.footerShowBestTime.equals(property)
-				|| Settings.footerShowDeltaLabels.equals(property)
-				|| Settings.footerVerbose.equals(property)
-				|| Settings.footerMultiline.equals(property)
-		        || Settings.footerShowSumOfBest.equals(property)
-				|| Settings.windowUserResizable.equals(property)
-				|| Settings.windowWidth.equals(property)
-				|| Run.NAME_PROPERTY.equals(property)) {
-			setResizable(Settings.windowUserResizable.get());
-			MenuItem.enableResizeOptions(Settings.windowUserResizable.get());
+		}
+		if ( ( reactions & REACT_OVERLAY ) != 0 ) {
+			updateOverlay();
+		}
+		if ( ( reactions & REACT_REMOTE ) != 0 ) {
+			updateRemote();
+		}
+		if ( ( reactions & REACT_STREAM ) != 0 ) {
+			updateStream();
+		}
+		if ( ( reactions & REACT_INPUT ) != 0 ) {
+			updateInput();
+		}
+		if ( ( reactions & REACT_RESIZE ) != 0 ) {
+			setResizable( Settings.windowUserResizable.get() );
+			MenuItem.enableResizeOptions( Settings.windowUserResizable.get() );
 			forceResize();
 		}
 	}
 
 	/**
 	 * When the run's table of segments is updated, we ask the main panel to
-	 * update itself accordingly and repack the frame as its dimensions may
-	 * have changed.
+	 * update itself accordingly and schedule a repack of the frame as its
+	 * dimensions may have changed.
 	 */
 	@Override public void tableChanged( TableModelEvent event ) {
 		runPane.processTableModelEvent( event );
+		overlay.markDirty();
 		// No need to recompute the size if we receive a HEADER_ROW UPDATE
 		// as we only use them when a segment is moved up or down and when
 		// the user cancel any changes made to his run.
@@ -438,7 +662,7 @@ public class Llanfair extends BorderlessFrame implements TableModelListener,
 		} else {
 			setPreferredSize( null );
 		}
-		pack();
+		layoutScheduler.schedule( LAYOUT_PACK );
 	}
 
 	/**
@@ -576,7 +800,24 @@ public class Llanfair extends BorderlessFrame implements TableModelListener,
 		}
 	}
 
+	/**
+	 * Schedules the frame to be resized to its configured width and packed.
+	 * Requests made while handling the same batch of events are coalesced
+	 * into a single layout pass.
+	 */
 	private void forceResize() {
+		layoutScheduler.schedule( LAYOUT_RESIZE );
+	}
+
+	/**
+	 * Schedules the frame to be packed. Requests made while handling the same
+	 * batch of events are coalesced into a single layout pass.
+	 */
+	private void forceInternalComponentsResize() {
+		layoutScheduler.schedule( LAYOUT_PACK );
+	}
+
+	private void resizeFrame() {
 		Dimension newSize = new Dimension();
 		newSize.height = getHeight();
 		if (Settings.windowUserResizable.get())
@@ -584,12 +825,23 @@ public class Llanfair extends BorderlessFrame implements TableModelListener,
 		else
 			newSize.width = Settings.windowWidth.get();
 		setSize(newSize);
+		setPreferredSize( preferredSize );
 		pack();
 	}
 
-	private void forceInternalComponentsResize()
-	{
-		setPreferredSize( preferredSize );
-		pack();
+	/**
+	 * Handler adding its reactions to those collected for the property change
+	 * event being dispatched.
+	 */
+	private class Reaction implements PropertyDispatcher.Handler {
+		private final int flags;
+
+		Reaction( int flags ) {
+			this.flags = flags;
+		}
+
+		@Override public void propertyChanged( PropertyChangeEvent event ) {
+			reactions |= flags;
+		}
 	}
 }
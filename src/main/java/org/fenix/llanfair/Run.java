@@ -2,8 +2,11 @@ package org.fenix.llanfair;
 
 import com.thoughtworks.xstream.annotations.XStreamOmitField;
 import org.fenix.WorldRecord.Category;
-import org.fenix.WorldRecord.WorldRecordParser;
+import org.fenix.WorldRecord.RecordUpdater;
+import org.fenix.WorldRecord.WorldRecord;
+import org.fenix.llanfair.config.Compare;
 import org.fenix.llanfair.config.Settings;
+import org.fenix.llanfair.config.TimingMethod;
 import org.fenix.utils.TableModelSupport;
 import org.fenix.utils.config.Configuration;
 
@@ -17,6 +20,10 @@ import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.security.InvalidParameterException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedList;
 import java.util.List;
 
 
@@ -47,6 +54,11 @@ public class Run implements TableModel, Serializable {
 
 	public static final int MAX_COUNTERS = 4;
 
+	/**
+	 * Maximum number of edits of the segments which can be undone.
+	 */
+	public static final int MAX_UNDO = 100;
+
 	/**
 	 * Identifier for the column containing the segment’s icon.
 	 */
@@ -108,8 +120,12 @@ public class Run implements TableModel, Serializable {
 
 	public static final String RECORD_CATEGORY_PROPERTY = "run.record.category";
 
+	public static final String RECORD_PROPERTY = "run.record";
+
 	public static final String DELAYED_START_PROPERTY = "run.delayedStart";
 
+	public static final String GAME_TIME_PAUSED_PROPERTY = "run.gameTimePaused";
+
 	// ------------------------------------------------------------- ATTRIBUTES
 
 	/**
@@ -129,22 +145,43 @@ public class Run implements TableModel, Serializable {
 	private transient State state;
 
 	/**
-	 * Backup copy of the run’s state. Transient as it is only used during
-	 * editing of the run.
+	 * List of all the segments contained within this run. Once captured by a
+	 * snapshot, neither the list nor its segments are modified anymore: they
+	 * are copied on the first write instead, see {@link #takeSnapshot()}.
 	 */
-	private transient State stateBackup;
+	private List<Segment> segments;
 
 	/**
-	 * List of all the segments contained within this run.
+	 * Snapshot of the segments taken when the edition of the run began.
+	 * Necessary to buffer edits from {@code JTable}s and revert to the
+	 * original state in case the user cancels. Transient as it is only used
+	 * during editing of the run.
 	 */
-	private List<Segment> segments;
+	private transient Snapshot backup;
 
 	/**
-	 * Backup copy of the segments’ list. Necessary to buffer edits from
-	 * {@code JTable}s and revert to the original state in case the user
-	 * cancels.
+	 * Snapshots of the segments before each edit made since the backup, the
+	 * most recent first.
 	 */
-	private transient List<Segment> segmentsBackup;
+	private transient Deque<Snapshot> undoHistory;
+
+	/**
+	 * Snapshots of the segments before each undone edit, the most recently
+	 * undone first.
+	 */
+	private transient Deque<Snapshot> redoHistory;
+
+	/**
+	 * Wether the list of segments is shared with a snapshot, in which case it
+	 * must be copied before being modified.
+	 */
+	private transient boolean segmentsShared;
+
+	/**
+	 * Number of snapshots taken or restored. A segment whose epoch differs
+	 * may be shared with a snapshot and must be copied before being modified.
+	 */
+	private transient int snapshotEpoch;
 
 	/**
 	 * Index of the segment being currently run. Only represents a segment when
@@ -157,6 +194,30 @@ public class Run implements TableModel, Serializable {
 	 */
 	private transient long startTime;
 
+	/**
+	 * Number of milliseconds on the clock when the run was last paused.
+	 */
+	private transient long pauseStart;
+
+	/**
+	 * Wether the game time is currently paused, such as during a loading.
+	 */
+	private transient boolean gameTimePaused;
+
+	/**
+	 * Number of milliseconds on the clock when the game time was last paused.
+	 */
+	private transient long gamePauseStart;
+
+	/**
+	 * Number of milliseconds during which the game time has been paused since
+	 * the start of the run, not counting the current pause if any. The game
+	 * time of a segment is its real time minus the growth of this value over
+	 * the segment, so pausing and resuming the game time never touches the
+	 * segments.
+	 */
+	private transient long gamePausedTime;
+
 	/**
 	 * Delegate handling {@code PropertyChangeEvent}s.
 	 */
@@ -167,6 +228,34 @@ public class Run implements TableModel, Serializable {
 	 */
 	private transient TableModelSupport tmSupport;
 
+	/**
+	 * Number of nested bulk updates in progress, see {@link #beginUpdate()}.
+	 */
+	private transient int updateDepth;
+
+	/**
+	 * Wether the table of segments changed during the current bulk update,
+	 * in which case ending it records the update as one undoable edit.
+	 */
+	private transient boolean updateChanged;
+
+	/**
+	 * State of the run when the current bulk update began.
+	 */
+	private transient State updateState;
+
+	/**
+	 * Segments of the run when the current bulk update began, see
+	 * {@link #revertUpdate()}.
+	 */
+	private transient Snapshot updateSnapshot;
+
+	/**
+	 * Indexes of the cumulative segment times, built on demand for each type
+	 * of time and timeline, see {@link #getTimeIndex(int, TimingMethod)}.
+	 */
+	private transient SegmentTimeIndex[] timeIndexes;
+
 	/**
 	 * Number of milliseconds to delay the clock for when the run is started. A
 	 * non-zero value here means the clock starts at a negative time and counts
@@ -189,6 +278,18 @@ public class Run implements TableModel, Serializable {
 
 	private Category recordCategory;
 
+	/**
+	 * Last known world record of the record category. Saved with the run so
+	 * it can be displayed as soon as the run is opened.
+	 */
+	private WorldRecord worldRecord;
+
+	/**
+	 * Delegate refreshing the world record in the background, only created
+	 * once updates are started.
+	 */
+	private transient RecordUpdater recordUpdater;
+
 	// ----------------------------------------------------------- CONSTRUCTORS
 
 	/**
@@ -258,6 +359,70 @@ public class Run implements TableModel, Serializable {
 		return startTime;
 	}
 
+	/**
+	 * Returns the run time elapsed at the given clock time. While the run is
+	 * paused or stopped, this is the time at which it was paused or stopped.
+	 *
+	 * @param   now - the current clock time, in milliseconds.
+	 * @return  the elapsed run time in milliseconds, zero if the run has not
+	 *          started.
+	 */
+	public long getElapsedTime(long now) {
+		return getElapsedTime(now, TimingMethod.REAL_TIME);
+	}
+
+	/**
+	 * Returns the run time elapsed at the given clock time on the given
+	 * timeline. While the run is paused or stopped, this is the time at which
+	 * it was paused or stopped.
+	 *
+	 * @param   now     - the current clock time, in milliseconds.
+	 * @param   method  - the timeline of the time.
+	 * @return  the elapsed run time in milliseconds, zero if the run has not
+	 *          started.
+	 */
+	public long getElapsedTime(long now, TimingMethod method) {
+		if (state == State.ONGOING) {
+			if (method == TimingMethod.GAME_TIME) {
+				return now - startTime - getGamePausedTime(now);
+			}
+			return now - startTime;
+		}
+		Time time = null;
+		if (state == State.PAUSED) {
+			time = getTime(current, Segment.LIVE, false, method);
+		} else if (state == State.STOPPED) {
+			time = getTime(current - 1, Segment.LIVE, false, method);
+		}
+		return (time == null ? 0L : time.getMilliseconds());
+	}
+
+	/**
+	 * Returns the time elapsed on the current segment at the given clock time
+	 * on the given timeline. Only meaningful while the run is on-going.
+	 *
+	 * @param   now     - the current clock time, in milliseconds.
+	 * @param   method  - the timeline of the time.
+	 * @return  the elapsed segment time in milliseconds.
+	 */
+	public long getSegmentElapsedTime(long now, TimingMethod method) {
+		Segment segment = getSegment(current);
+		long    elapsed = now - segment.getStartTime();
+		if (method == TimingMethod.GAME_TIME) {
+			elapsed -= getGamePausedTime(now) - segment.getStartPausedTime();
+		}
+		return elapsed;
+	}
+
+	/**
+	 * Returns wether the game time is currently paused.
+	 *
+	 * @return  {@code true} if the game time is paused.
+	 */
+	public boolean isGameTimePaused() {
+		return gameTimePaused;
+	}
+
 	public Counters getCounter(int index) {
 		if (index < 0 || index >= MAX_COUNTERS) {
 			throw new IllegalArgumentException("illegal counter id " + index);
@@ -298,7 +463,8 @@ public class Run implements TableModel, Serializable {
 
 	/**
 	 * Returns the segment of given index. The index must be within the range
-	 * {@code [0..getSegmentCount()[}.
+	 * {@code [0..getSegmentCount()[}. While a backup exists, the segment may
+	 * be shared with it and must not be modified directly.
 	 *
 	 * @param   segmentIndex    - the index of the segment to return.
 	 * @return  the segment of given index.
@@ -307,6 +473,25 @@ public class Run implements TableModel, Serializable {
 		return segments.get(segmentIndex);
 	}
 
+	/**
+	 * Returns the index of the given segment in this run, comparing the
+	 * segments by identity. While a backup exists, editing a segment through
+	 * this run may replace it by a copy, the original segment then no longer
+	 * being found.
+	 *
+	 * @param   segment - the segment to look for.
+	 * @return  the index of the segment, or {@code -1} if it is not part of
+	 *          this run.
+	 */
+	public int indexOf(Segment segment) {
+		for (int i = 0; i < segments.size(); i++) {
+			if (segments.get(i) == segment) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
 	/**
 	 * Returns the run time of given type up to the given segment. Such a time
 	 * can be {@code null} if the last segment has an undefined time.
@@ -333,20 +518,106 @@ public class Run implements TableModel, Serializable {
 	}
 
 	public Time getTime(int segmentIndex, int type, boolean allowNull) {
+		return getTime(
+				segmentIndex, type, allowNull, Settings.timingMethod.get());
+	}
+
+	/**
+	 * Returns the run time of given type up to the given segment, on the
+	 * given timeline.
+	 *
+	 * @param   segmentIndex    - index of the segment up to which get the time.
+	 * @param   type            - one of the identifier.
+	 * @param   allowNull       - wether to return {@code null} if the last
+	 *                            segment has an undefined time.
+	 * @param   method          - the timeline of the time.
+	 * @return  the run time up to the given segment
+	 * @see     Segment#getTime(int, TimingMethod)
+	 */
+	public Time getTime(int segmentIndex, int type, boolean allowNull,
+			TimingMethod method) {
+		long time = getTimeMillis(segmentIndex, type, allowNull, method);
+		return (time == Time.UNDEFINED ? null : Time.sum(time));
+	}
+
+	/**
+	 * Returns the run time of given type up to the given segment in
+	 * milliseconds. Unlike {@link #getTime(int, int)}, no time is allocated.
+	 *
+	 * @param   segmentIndex    - index of the segment up to which get the time.
+	 * @param   type            - one of the identifier.
+	 * @return  the run time up to the given segment, or {@link Time#UNDEFINED}
+	 *          if the last segment has an undefined time.
+	 * @see     Segment#getTimeMillis(int)
+	 */
+	public long getTimeMillis(int segmentIndex, int type) {
+		return getTimeMillis(segmentIndex, type, true);
+	}
+
+	/**
+	 * Returns the run time of given type in milliseconds. Unlike
+	 * {@link #getTime(int)}, no time is allocated.
+	 *
+	 * @param   type    - one of the identifier.
+	 * @return  the run time of given type, or {@link Time#UNDEFINED} if the
+	 *          last segment has an undefined time.
+	 * @see     Segment#getTimeMillis(int)
+	 */
+	public long getTimeMillis(int type) {
+		return getTimeMillis(getRowCount() - 1, type);
+	}
+
+	public long getTimeMillis(int segmentIndex, int type,
+			boolean allowUndefined) {
+		return getTimeMillis(segmentIndex, type, allowUndefined,
+				Settings.timingMethod.get());
+	}
+
+	/**
+	 * Returns the run time of given type up to the given segment in
+	 * milliseconds, on the given timeline. Unlike
+	 * {@link #getTime(int, int, boolean, TimingMethod)}, no time is allocated.
+	 *
+	 * @param   segmentIndex    - index of the segment up to which get the time.
+	 * @param   type            - one of the identifier.
+	 * @param   allowUndefined  - wether to return {@link Time#UNDEFINED} if
+	 *                            the last segment has an undefined time.
+	 * @param   method          - the timeline of the time.
+	 * @return  the run time up to the given segment, or {@link Time#UNDEFINED}
+	 *          if the index is out of range.
+	 * @see     Segment#getTimeMillis(int, TimingMethod)
+	 */
+	public long getTimeMillis(int segmentIndex, int type,
+			boolean allowUndefined, TimingMethod method) {
 		if (segmentIndex < 0 || segmentIndex >= getRowCount()) {
-			return null;
+			return Time.UNDEFINED;
 		}
 		if (type == Segment.DELTA) {
-			Time set  = getTime(segmentIndex, Segment.SET);
-			Time live = getTime(segmentIndex, Segment.LIVE);
-			return (set == null ? null : Time.getDelta(live, set));
+			long set  = getTimeMillis(segmentIndex, Segment.SET, true, method);
+			long live = getTimeMillis(segmentIndex, Segment.LIVE, true, method);
+			return (set == Time.UNDEFINED ? set : Time.getDelta(live, set));
+		}
+		if (type == Segment.SET) {
+			type = (Settings.compareMethod.get() == Compare.BEST_OVERALL_RUN)
+					? Segment.RUN : Segment.BEST;
+		}
+		if (type == Segment.RUN || type == Segment.BEST
+				|| type == Segment.LIVE) {
+			SegmentTimeIndex index = getTimeIndex(type, method);
+			if (allowUndefined && !index.isDefined(segmentIndex)) {
+				return Time.UNDEFINED;
+			}
+			return index.getSum(segmentIndex);
 		}
-		Time runTime = new Time();
+		long runTime = 0L;
+		long time    = Time.UNDEFINED;
 		for (int i = 0; i <= segmentIndex; i++) {
-			runTime.add(segments.get(i).getTime(type));
+			time = segments.get(i).getTimeMillis(type, method);
+			if (time != Time.UNDEFINED) {
+				runTime += time;
+			}
 		}
-		Time lastSegmentTime = segments.get(segmentIndex).getTime(type);
-		return allowNull ? (lastSegmentTime == null ? null : runTime) : runTime;
+		return (allowUndefined && time == Time.UNDEFINED) ? time : runTime;
 	}
 
 	/**
@@ -358,19 +629,29 @@ public class Run implements TableModel, Serializable {
 	 *          the configured compare percent.
 	 */
 	public Time getCompareTime() {
+		return new Time(getCompareTimeMillis());
+	}
+
+	/**
+	 * Returns the compare time in milliseconds. Unlike
+	 * {@link #getCompareTime()}, no time is allocated.
+	 *
+	 * @return  {@code P%} of {@code getTimeMillis(Segment.SET)} where
+	 *          {@code P} is the configured compare percent.
+	 */
+	public long getCompareTimeMillis() {
 		int  i    = 2;
-		Time time = getTime(Segment.SET);
-		while (time == null) {
+		long time = getTimeMillis(Segment.SET);
+		while (time == Time.UNDEFINED) {
 			if (getRowCount() - i < 0) {
-				return Time.ZERO;
+				return 0L;
 			}
-			time = getTime(getRowCount() - i, Segment.SET);
+			time = getTimeMillis(getRowCount() - i, Segment.SET);
 			i++;
 		}
-		long ms = time.getMilliseconds();
 		float pc = Settings.graphScale.get();
 
-		return new Time((long) (ms * pc) / 100L);
+		return Time.truncate((long) (time * pc) / 100L);
 	}
 
 	/**
@@ -436,92 +717,48 @@ public class Run implements TableModel, Serializable {
 	 * @return  wether or not this segment live time is better.
 	 */
 	public boolean isBetterSegment(int index) {
-		Segment segment = getSegment(index);
-		Time    set     = segment.getTime(Segment.SET);
-		Time    live    = segment.getTime(Segment.LIVE);
-
-		if (live == null) {
-			return false;
-		}
-		live = live.clone();
-
-		if (set != null) {
-			set = set.clone();
-		}
-
-		if (index > 0) {
-			for (int i = index - 1; i >= 0; i--) {
-				Segment prev = getSegment(i);
-				if (prev.getTime(Segment.SET) == null) {
-					live.add(prev.getTime(Segment.LIVE));
-				} else {
-					break;
-				}
-			}
-			for (int i = index - 1; i >= 0; i--) {
-				Segment prev = getSegment(i);
-				if (prev.getTime(Segment.LIVE) == null) {
-					set.add(prev.getTime(Segment.SET));
-				} else {
-					break;
-				}
-			}
-		}
-		return live.compareTo(set) < 0;
+		return isBetterSegment(index, Segment.SET);
 	}
 
+	/**
+	 * Returns wether of not the given segment live time is better than its
+	 * best time. If that time is undefined, we check using the sum of the
+	 * live time from the previous non-null segment.
+	 *
+	 * @param   index   - the index of the segment.
+	 * @return  wether or not this segment live time is a new best.
+	 */
 	public boolean isBestSegment(int index) {
-		Segment segment = getSegment(index);
-		Time    set     = segment.getTime(Segment.BEST);
-		Time    live    = segment.getTime(Segment.LIVE);
-
-		if (live == null) {
-			return false;
-		}
-		live = live.clone();
-
-		if (set != null) {
-			set = set.clone();
-		}
-
-		if (index > 0) {
-			for (int i = index - 1; i >= 0; i--) {
-				Segment prev = getSegment(i);
-				if (prev.getTime(Segment.BEST) == null) {
-					live.add(prev.getTime(Segment.LIVE));
-				} else {
-					break;
-				}
-			}
-			for (int i = index - 1; i >= 0; i--) {
-				Segment prev = getSegment(i);
-				if (prev.getTime(Segment.LIVE) == null) {
-					set.add(prev.getTime(Segment.BEST));
-				} else {
-					break;
-				}
-			}
-		}
-		return live.compareTo(set) < 0;
+		return isBetterSegment(index, Segment.BEST);
 	}
 
-	// ------------------------------------------------------ INHERITED GETTERS
-
-	public Time getSumOfBest() {
+	/**
+	 * Returns the sum of best segments in milliseconds. Unlike
+	 * {@link #getSumOfBest()}, no time is allocated.
+	 *
+	 * @return  the sum of the best or live time of each segment.
+	 */
+	public long getSumOfBestMillis() {
 		long sum = 0;
 		for (int i = 0; i < segments.size(); ++i) {
 			Segment segment = segments.get(i);
-			Time best = segment.getTime(Segment.BEST);
-			Time live = segment.getTime(Segment.LIVE);
+			long best = segment.getTimeMillis(Segment.BEST);
+			long live = segment.getTimeMillis(Segment.LIVE);
 
-			if (best != null || live != null) {
-				long bestMs = (best == null ? Long.MAX_VALUE : best.getMilliseconds());
-				long liveMs = (live == null ? Long.MAX_VALUE : live.getMilliseconds());
+			if (best != Time.UNDEFINED || live != Time.UNDEFINED) {
+				long bestMs = (best == Time.UNDEFINED ? Long.MAX_VALUE : best);
+				long liveMs = (live == Time.UNDEFINED ? Long.MAX_VALUE : live);
 
 				sum += Math.min(bestMs, liveMs);
 			}
 		}
-		return new Time(sum);
+		return sum;
+	}
+
+	// ------------------------------------------------------ INHERITED GETTERS
+
+	public Time getSumOfBest() {
+		return new Time(getSumOfBestMillis());
 	}
 
 	/**
@@ -602,16 +839,26 @@ public class Run implements TableModel, Serializable {
 
 	public int getSessionAttempts() { return sessionAttempts; }
 
+	/**
+	 * Returns the last known world record of the record category. Never
+	 * waits on the network, the record being refreshed in the background
+	 * once {@link #startRecordUpdates()} has been called.
+	 *
+	 * @return  the world record string.
+	 */
 	public String getRecordString() {
-		String recordString;
-
-		try {
-			recordString = WorldRecordParser.getRecord(this.recordCategory);
-		} catch (Exception e) {
-			recordString = "Unknown World Record";
+		if (worldRecord == null) {
+			return "Unknown World Record";
 		}
+		return worldRecord.toString();
+	}
 
-		return recordString;
+	/**
+	 * Returns the last known world record of the record category, or
+	 * {@code null} if it has never been fetched.
+	 */
+	public WorldRecord getWorldRecord() {
+		return worldRecord;
 	}
 
 	public Category getRecordCategory()
@@ -637,6 +884,14 @@ public class Run implements TableModel, Serializable {
 		return configuration.contains( key );
 	}
 
+	public void beginSettingTransaction() {
+		configuration.beginTransaction();
+	}
+
+	public void commitSettingTransaction() {
+		configuration.commitTransaction();
+	}
+
 	/**
 	 * Sets the name of this run to the given string.
 	 *
@@ -675,7 +930,39 @@ public class Run implements TableModel, Serializable {
 
 		this.recordCategory = category;
 
-		pcSupport.firePropertyChange(RECORD_CATEGORY_PROPERTY, old, name);
+		pcSupport.firePropertyChange(RECORD_CATEGORY_PROPERTY, old, category);
+
+		if (worldRecord != null && (category == null
+				|| !worldRecord.getCategoryId().equals(category.getId()))) {
+			setWorldRecord(null);
+		}
+		if (recordUpdater != null) {
+			recordUpdater.start(category, worldRecord);
+		}
+	}
+
+	/**
+	 * Starts refreshing the world record of the record category in the
+	 * background. A record fetched less than an hour ago is kept as is.
+	 */
+	public void startRecordUpdates() {
+		if (recordUpdater == null) {
+			recordUpdater = new RecordUpdater(new RecordUpdater.Listener() {
+				@Override public void recordUpdated(WorldRecord record) {
+					setWorldRecord(record);
+				}
+			});
+		}
+		recordUpdater.start(recordCategory, worldRecord);
+	}
+
+	/**
+	 * Stops refreshing the world record, typically when the run is closed.
+	 */
+	public void stopRecordUpdates() {
+		if (recordUpdater != null) {
+			recordUpdater.stop();
+		}
 	}
 
 	/**
@@ -688,16 +975,167 @@ public class Run implements TableModel, Serializable {
 		if (segment == null) {
 			throw new NullPointerException("null segment");
 		}
+		recordEdit();
 		int oldCount = getRowCount();
-		segments.add(segment);
-		tmSupport.fireTableRowsInserted(oldCount, oldCount);
+		getWritableSegments().add(segment);
+		segment.setSnapshotEpoch(snapshotEpoch);
+		invalidateTimeIndexes();
+		if (!deferTableEvent()) {
+			tmSupport.fireTableRowsInserted(oldCount, oldCount);
+		}
 
 		if (oldCount == 0) {
 			state = State.READY;
-			pcSupport.firePropertyChange(STATE_PROPERTY, State.NULL, state);
+			if (updateDepth == 0) {
+				pcSupport.firePropertyChange(STATE_PROPERTY, State.NULL, state);
+			}
+		}
+	}
+
+	/**
+	 * Inserts the given segments at the end, firing a single table model
+	 * event once they are all added.
+	 *
+	 * @param   added   - the segments to add to this run.
+	 * @see     #addSegment(Segment)
+	 */
+	public void addSegments(Collection<Segment> added) {
+		beginUpdate();
+		try {
+			for (Segment segment : added) {
+				addSegment(segment);
+			}
+		} finally {
+			endUpdate();
+		}
+	}
+
+	/**
+	 * Replaces every segment of this run by the given segments, firing a
+	 * single table model event once done. The run becomes
+	 * {@link State#NULL} if there are none.
+	 *
+	 * @param   replacement - the new segments of this run.
+	 */
+	public void setSegments(Collection<Segment> replacement) {
+		beginUpdate();
+		try {
+			if (!segments.isEmpty()) {
+				getWritableSegments().clear();
+				invalidateTimeIndexes();
+				state = State.NULL;
+				deferTableEvent();
+			}
+			for (Segment segment : replacement) {
+				addSegment(segment);
+			}
+		} finally {
+			endUpdate();
+		}
+	}
+
+	/**
+	 * Sets the times of consecutive segments in the given column, as if by
+	 * calling {@link #setValueAt} for each of them, but firing a single table
+	 * model event once done. {@code null} elements leave the time of their
+	 * segment unchanged.
+	 *
+	 * @param   column  - one of {@link #COLUMN_TIME}, {@link #COLUMN_SEGMENT}
+	 *                    or {@link #COLUMN_BEST}.
+	 * @param   from    - the index of the first segment to set a time to.
+	 * @param   times   - the new times of the segments.
+	 * @throws  IllegalArgumentException if a time is invalid, in which case
+	 *          the times before it are still set.
+	 */
+	public void setTimes(int column, int from, List<Time> times) {
+		if (column != COLUMN_TIME && column != COLUMN_SEGMENT
+				&& column != COLUMN_BEST) {
+			throw new IllegalArgumentException("Not a time column: " + column);
+		}
+		beginUpdate();
+		try {
+			for (int i = 0; i < times.size(); i++) {
+				if (times.get(i) != null) {
+					setValueAt(times.get(i), from + i, column);
+				}
+			}
+		} finally {
+			endUpdate();
+		}
+	}
+
+	/**
+	 * Starts a bulk update of the table of segments. Until the matching call
+	 * to {@link #endUpdate()}, changes to the segments do not fire any table
+	 * model event, nor state change for the run becoming empty or filled.
+	 * Bulk updates can be nested, only the outermost one firing events. The
+	 * whole update is undone at once, or reverted with {@link #revertUpdate()}.
+	 * An update that changes nothing leaves the undo history untouched.
+	 */
+	public void beginUpdate() {
+		if (updateDepth == 0) {
+			updateChanged  = false;
+			updateState    = state;
+			updateSnapshot = takeSnapshot();
+		}
+		updateDepth++;
+	}
+
+	/**
+	 * Reverts every change made to the segments since the outermost bulk
+	 * update began, in constant time. As the update withheld their events,
+	 * none is fired. The update must still be ended with {@link #endUpdate()}.
+	 *
+	 * @throws  IllegalStateException   if no bulk update is in progress.
+	 */
+	public void revertUpdate() {
+		if (updateDepth == 0) {
+			throw new IllegalStateException("No update in progress");
+		}
+		applySnapshot(updateSnapshot);
+		updateChanged = false;
+	}
+
+	/**
+	 * Ends a bulk update started by {@link #beginUpdate()}. Ending the
+	 * outermost update fires a single {@code fireTableDataChanged} if the
+	 * segments changed, then a state change if the run became empty or
+	 * filled.
+	 *
+	 * @throws  IllegalStateException   if no bulk update is in progress.
+	 */
+	public void endUpdate() {
+		if (updateDepth == 0) {
+			throw new IllegalStateException("No update in progress");
+		}
+		if (--updateDepth == 0) {
+			State    old      = updateState;
+			Snapshot snapshot = updateSnapshot;
+			updateState    = null;
+			updateSnapshot = null;
+			if (updateChanged) {
+				updateChanged = false;
+				if (backup != null) {
+					pushUndo(snapshot);
+				}
+				tmSupport.fireTableDataChanged();
+			}
+			if (old != state) {
+				pcSupport.firePropertyChange(STATE_PROPERTY, old, state);
+			}
 		}
 	}
 
+	/**
+	 * Returns wether a bulk update of the segments is in progress.
+	 *
+	 * @return  {@code true} between calls to {@link #beginUpdate()} and
+	 *          {@link #endUpdate()}.
+	 */
+	public boolean isUpdating() {
+		return updateDepth > 0;
+	}
+
 	/**
 	 * Removes the segment of given index from the this run table of segments.
 	 * If we remove the last segment, the run becomes {@link State#NULL}.
@@ -705,14 +1143,20 @@ public class Run implements TableModel, Serializable {
 	 * @param   segmentIndex    - the index of the segment to remove.
 	 */
 	public void removeSegment(int segmentIndex) {
-		setValueAt(null, segmentIndex, 2);
-		segments.remove(segmentIndex);
-		tmSupport.fireTableRowsDeleted(segmentIndex, segmentIndex);
+		recordEdit();
+		setSplitTime(segmentIndex, null);
+		getWritableSegments().remove(segmentIndex);
+		invalidateTimeIndexes();
+		if (!deferTableEvent()) {
+			tmSupport.fireTableRowsDeleted(segmentIndex, segmentIndex);
+		}
 
 		if (getRowCount() == 0) {
 			State old = state;
 			state     = State.NULL;
-			pcSupport.firePropertyChange(STATE_PROPERTY, old, state);
+			if (updateDepth == 0) {
+				pcSupport.firePropertyChange(STATE_PROPERTY, old, state);
+			}
 		}
 	}
 
@@ -724,10 +1168,14 @@ public class Run implements TableModel, Serializable {
 	 */
 	public void moveSegmentUp(int segmentIndex) {
 		if (segmentIndex > 0) {
-			Segment segment = segments.get(segmentIndex);
-			segments.remove(segmentIndex);
-			segments.add(segmentIndex - 1, segment);
-			tmSupport.fireTableStructureChanged();
+			recordEdit();
+			List<Segment> list = getWritableSegments();
+			Segment segment = list.remove(segmentIndex);
+			list.add(segmentIndex - 1, segment);
+			invalidateTimeIndexes();
+			if (!deferTableEvent()) {
+				tmSupport.fireTableStructureChanged();
+			}
 		}
 	}
 
@@ -739,10 +1187,14 @@ public class Run implements TableModel, Serializable {
 	 */
 	public void moveSegmentDown(int segmentIndex) {
 		if (segmentIndex < getRowCount() - 1) {
-			Segment segment = segments.get(segmentIndex);
-			segments.remove(segmentIndex);
-			segments.add(segmentIndex + 1, segment);
-			tmSupport.fireTableStructureChanged();
+			recordEdit();
+			List<Segment> list = getWritableSegments();
+			Segment segment = list.remove(segmentIndex);
+			list.add(segmentIndex + 1, segment);
+			invalidateTimeIndexes();
+			if (!deferTableEvent()) {
+				tmSupport.fireTableStructureChanged();
+			}
 		}
 	}
 
@@ -753,13 +1205,27 @@ public class Run implements TableModel, Serializable {
 	 * @throws  IllegalStateException   if the run is on-going or null.
 	 */
 	public void start() {
+		start(System.nanoTime() / 1000000L);
+	}
+
+	/**
+	 * Starts the race as if it happened at the given clock time.
+	 *
+	 * @param   time    - the clock time, in milliseconds, of the start.
+	 * @throws  IllegalStateException   if the run is on-going or null.
+	 * @see     #start()
+	 */
+	public void start(long time) {
 		if (state == null || state == State.ONGOING) {
 			throw new IllegalStateException("illegal state to start");
 		}
-		startTime = (System.nanoTime() / 1000000L) + delayedStart;
-		current   = 0;
-		state     = State.ONGOING;
+		startTime      = time + delayedStart;
+		current        = 0;
+		state          = State.ONGOING;
+		gamePausedTime = 0L;
 		segments.get(current).setStartTime(startTime);
+		segments.get(current).setStartPausedTime(0L);
+		setGameTimePaused(false);
 
 		numberOfAttempts += 1;
 		sessionAttempts += 1;
@@ -777,15 +1243,31 @@ public class Run implements TableModel, Serializable {
 	 * @throws  IllegalStateException   if the run is not on-going.
 	 */
 	public void split() {
+		split(System.nanoTime() / 1000000L);
+	}
+
+	/**
+	 * Makes a split as if it happened at the given clock time.
+	 *
+	 * @param   stopTime    - the clock time, in milliseconds, of the split.
+	 * @throws  IllegalStateException   if the run is not on-going.
+	 * @see     #split()
+	 */
+	public void split(long stopTime) {
 		if (state != State.ONGOING) {
 			throw new IllegalStateException("run is not on-going");
 		}
-		long stopTime    = System.nanoTime() / 1000000L;
-		long segmentTime = stopTime - getSegment(current).getStartTime();
+		Segment segment  = getSegment(current);
+		long segmentTime = stopTime - segment.getStartTime();
+		long pausedTime  = getGamePausedTime(stopTime);
 		current          = current + 1;
 
 		Time time        = new Time(segmentTime);
-		segments.get(current - 1).setTime(time, Segment.LIVE);
+		segment.setTime(time, Segment.LIVE, false, TimingMethod.REAL_TIME);
+		segment.setTime(
+				new Time(segmentTime - pausedTime + segment.getStartPausedTime()),
+				Segment.LIVE, true, TimingMethod.GAME_TIME);
+		updateTimeIndexes(current - 1, Segment.LIVE);
 
 		if (current == getRowCount()) {
 			// run is finished
@@ -794,11 +1276,12 @@ public class Run implements TableModel, Serializable {
 			stop();
 		} else {
 			segments.get(current).setStartTime(stopTime);
+			segments.get(current).setStartPausedTime(pausedTime);
 		}
 		pcSupport.firePropertyChange(
 				CURRENT_SEGMENT_PROPERTY, current - 1, current);
 		if (segmented && state == State.ONGOING && current > -1) {
-			pause();
+			pause(stopTime);
 		}
 	}
 
@@ -815,7 +1298,7 @@ public class Run implements TableModel, Serializable {
 		}
 		if (current > 0) {
 			current = current - 1;
-			getSegment(current).setTime(null, Segment.LIVE);
+			setLiveTime(current, null, null);
 
 			pcSupport.firePropertyChange(
 					CURRENT_SEGMENT_PROPERTY, current + 1, current);
@@ -829,33 +1312,62 @@ public class Run implements TableModel, Serializable {
 	}
 
 	public void pause() {
+		pause(System.nanoTime() / 1000000L);
+	}
+
+	/**
+	 * Pauses the run as if it happened at the given clock time.
+	 *
+	 * @param   stopTime    - the clock time, in milliseconds, of the pause.
+	 * @throws  IllegalStateException   if the run is not on-going.
+	 */
+	public void pause(long stopTime) {
 		if (state != State.ONGOING) {
 			throw new IllegalStateException("run is not on-going");
 		}
-		state = State.PAUSED;
-		long stopTime    = System.nanoTime() / 1000000L;
-		long segmentTime = stopTime - getSegment(current).getStartTime();
-		Time time        = new Time(segmentTime);
-		segments.get(current).setTime(time, Segment.LIVE, true);
+		state      = State.PAUSED;
+		pauseStart = stopTime;
+
+		Segment segment  = getSegment(current);
+		long segmentTime = stopTime - segment.getStartTime();
+		long gameTime    = segmentTime - getGamePausedTime(stopTime)
+				+ segment.getStartPausedTime();
+		setLiveTime(current, new Time(segmentTime), new Time(gameTime));
 		pcSupport.firePropertyChange(STATE_PROPERTY, State.ONGOING, state);
 	}
 
 	public void resume() {
+		resume(System.nanoTime() / 1000000L);
+	}
+
+	/**
+	 * Resumes the run as if it happened at the given clock time.
+	 *
+	 * @param   stop    - the clock time, in milliseconds, of the resume.
+	 * @throws  IllegalStateException   if the run is not paused.
+	 */
+	public void resume(long stop) {
 		if (state != State.PAUSED) {
 			throw new IllegalStateException("run is not paused");
 		}
 		state     = State.ONGOING;
-		long stop = System.nanoTime() / 1000000L;
-		startTime = stop - getTime(current, Segment.LIVE, false).getMilliseconds();
+		startTime = stop - getTime(current, Segment.LIVE, false,
+				TimingMethod.REAL_TIME).getMilliseconds();
 
 		Segment crt = getSegment(current);
-		crt.setStartTime(stop - crt.getTime(Segment.LIVE).getMilliseconds());
+		crt.setStartTime(stop - crt.getTime(Segment.LIVE,
+				TimingMethod.REAL_TIME).getMilliseconds());
 
 		long cumulative = 0L;
 		for (int i = 0; i < current; i++) {
 			Segment iSeg = getSegment(i);
 			iSeg.setStartTime(startTime + cumulative);
-			cumulative += iSeg.getTime(Segment.LIVE).getMilliseconds();
+			cumulative += iSeg.getTime(Segment.LIVE,
+					TimingMethod.REAL_TIME).getMilliseconds();
+		}
+		// The game time does not run while the run is paused either
+		if (gameTimePaused) {
+			gamePauseStart += stop - pauseStart;
 		}
 		pcSupport.firePropertyChange(STATE_PROPERTY, State.PAUSED, state);
 	}
@@ -873,16 +1385,57 @@ public class Run implements TableModel, Serializable {
 		pcSupport.firePropertyChange(STATE_PROPERTY, State.ONGOING, state);
 	}
 
+	public void pauseGameTime() {
+		pauseGameTime(System.nanoTime() / 1000000L);
+	}
+
+	/**
+	 * Pauses the game time as if it happened at the given clock time, for
+	 * instance during a loading. The real time keeps running. Does nothing if
+	 * the game time is already paused.
+	 *
+	 * @param   time    - the clock time, in milliseconds, of the pause.
+	 * @throws  IllegalStateException   if the run is not on-going or paused.
+	 */
+	public void pauseGameTime(long time) {
+		if (state != State.ONGOING && state != State.PAUSED) {
+			throw new IllegalStateException("run is not on-going");
+		}
+		if (!gameTimePaused) {
+			gamePauseStart = (state == State.PAUSED) ? pauseStart : time;
+			setGameTimePaused(true);
+		}
+	}
+
+	public void resumeGameTime() {
+		resumeGameTime(System.nanoTime() / 1000000L);
+	}
+
+	/**
+	 * Resumes the game time as if it happened at the given clock time. Does
+	 * nothing if the game time is not paused.
+	 *
+	 * @param   time    - the clock time, in milliseconds, of the resume.
+	 */
+	public void resumeGameTime(long time) {
+		if (gameTimePaused) {
+			gamePausedTime = getGamePausedTime(time);
+			setGameTimePaused(false);
+		}
+	}
+
 	/**
 	 * Resets the current run, discarding any live times and becoming once
 	 * again {@link State#READY}.
 	 */
 	public void reset() {
-		for (Segment segment : segments) {
-			segment.setTime(null, Segment.LIVE);
+		for (int i = 0; i < segments.size(); i++) {
+			setLiveTime(i, null, null);
 		}
-		current   = -1;
-		startTime = 0L;
+		current        = -1;
+		startTime      = 0L;
+		gamePausedTime = 0L;
+		setGameTimePaused(false);
 
 		State old = state;
 		state     = State.READY;
@@ -900,10 +1453,12 @@ public class Run implements TableModel, Serializable {
 		if (current > - 1 && current < getRowCount() - 1) {
 			Segment crtSegment = getSegment(current);
 			long  segmentStart = crtSegment.getStartTime();
-			crtSegment.setTime(null, Segment.LIVE);
+			setLiveTime(current, null, null);
 
 			current = current + 1;
 			getSegment(current).setStartTime(segmentStart);
+			getSegment(current).setStartPausedTime(
+					crtSegment.getStartPausedTime());
 
 			pcSupport.firePropertyChange(
 					CURRENT_SEGMENT_PROPERTY, current - 1, current);
@@ -921,33 +1476,41 @@ public class Run implements TableModel, Serializable {
 	 */
 	public void saveLiveTimes(boolean partial) {
 		boolean over = (current == getRowCount());
-		for (Segment segment : segments) {
-			Time live = segment.getTime(Segment.LIVE);
-			if (live == null) {
-				if (!partial && over) {
-					segment.setTime(null, Segment.RUN);
-				}
-			} else {
-				if (live.compareTo(segment.getTime(Segment.BEST)) < 0) {
-					segment.setTime(live, Segment.BEST);
-				}
-				if (!partial && over) {
-					segment.setTime(live, Segment.RUN);
+		for (TimingMethod method : TimingMethod.values()) {
+			// A whole segment can be spent with the game time paused
+			boolean bypass = (method == TimingMethod.GAME_TIME);
+			for (Segment segment : segments) {
+				Time live = segment.getTime(Segment.LIVE, method);
+				if (live == null) {
+					if (!partial && over) {
+						segment.setTime(null, Segment.RUN, false, method);
+					}
+				} else {
+					Time best = segment.getTime(Segment.BEST, method);
+					if (live.compareTo(best) < 0) {
+						segment.setTime(live, Segment.BEST, bypass, method);
+					}
+					if (!partial && over) {
+						segment.setTime(live, Segment.RUN, bypass, method);
+					}
 				}
 			}
 		}
+		invalidateTimeIndexes();
 	}
 
 	/**
-	 * Creates a backup copy of this run table of segments in order to be able
-	 * to revert any changes made by the user using direct-editing components.
+	 * Saves the current state of this run table of segments in order to be
+	 * able to revert any changes made by the user using direct-editing
+	 * components, and starts recording the edits so they can be undone. The
+	 * segments are not copied, so the backup is taken in constant time.
+	 * Segments must then only be modified through this run, such as with
+	 * {@link #setValueAt}, until the backup is loaded or discarded.
 	 */
 	public void saveBackup() {
-		stateBackup    = state;
-		segmentsBackup = new ArrayList<Segment>();
-		for (Segment segment : segments) {
-			segmentsBackup.add(segment.clone());
-		}
+		backup = takeSnapshot();
+		undoHistory.clear();
+		redoHistory.clear();
 	}
 
 	/**
@@ -956,19 +1519,75 @@ public class Run implements TableModel, Serializable {
 	 * created. After this call, the existing backup will be discarded.
 	 */
 	public void loadBackup() {
-		if (segmentsBackup != null) {
-			State old = state;
-			state     = stateBackup;
-			segments  = new ArrayList<Segment>();
-			for (Segment segment : segmentsBackup) {
-				segments.add(segment);
-			}
-			segmentsBackup = null;
+		if (backup != null) {
+			restoreSnapshot(backup);
+			discardBackup();
 			tmSupport.fireTableStructureChanged();
-			pcSupport.firePropertyChange(STATE_PROPERTY, old, state);
 		}
 	}
 
+	/**
+	 * Discards the backup and the history of edits, keeping the changes made
+	 * since {@link #saveBackup()}.
+	 */
+	public void discardBackup() {
+		backup = null;
+		undoHistory.clear();
+		redoHistory.clear();
+	}
+
+	/**
+	 * Returns wether an edit of the segments made since the backup can be
+	 * undone.
+	 *
+	 * @return  {@code true} if {@link #undo()} would revert an edit.
+	 */
+	public boolean canUndo() {
+		return !undoHistory.isEmpty();
+	}
+
+	/**
+	 * Returns wether an undone edit of the segments can be made again.
+	 *
+	 * @return  {@code true} if {@link #redo()} would make an edit again.
+	 */
+	public boolean canRedo() {
+		return !redoHistory.isEmpty();
+	}
+
+	/**
+	 * Reverts the last edit of the segments made since the backup, in
+	 * constant time. Each call to {@link #setValueAt}, each segment added,
+	 * removed or moved, and each bulk update counts as one edit.
+	 *
+	 * @return  {@code true} if an edit was undone.
+	 */
+	public boolean undo() {
+		if (undoHistory.isEmpty()) {
+			return false;
+		}
+		redoHistory.push(takeSnapshot());
+		restoreSnapshot(undoHistory.pop());
+		tmSupport.fireTableDataChanged();
+		return true;
+	}
+
+	/**
+	 * Makes again the last edit reverted by {@link #undo()}. Any new edit
+	 * clears the edits which can be made again.
+	 *
+	 * @return  {@code true} if an edit was made again.
+	 */
+	public boolean redo() {
+		if (redoHistory.isEmpty()) {
+			return false;
+		}
+		undoHistory.push(takeSnapshot());
+		restoreSnapshot(redoHistory.pop());
+		tmSupport.fireTableDataChanged();
+		return true;
+	}
+
 	/**
 	 * Sets the split time of the given segment. If the new value is
 	 * {@code null} (meaning the time is undefined,) the segment time and best
@@ -986,6 +1605,9 @@ public class Run implements TableModel, Serializable {
 		if (time == null) {
 			setSegmentTime(index, null);
 		} else {
+			TimingMethod     method   = Settings.timingMethod.get();
+			SegmentTimeIndex runTimes = getTimeIndex(Segment.RUN, method);
+
 			// Compute the time added to/removed from the segment.
 			if (oldTime == null) {
 				if (index > 0) {
@@ -996,32 +1618,28 @@ public class Run implements TableModel, Serializable {
 			Time pTime = new Time();
 
 			// Find the first previous non-null segment.
-			for (int i = index - 1; i >= 0; i--) {
-				if (getSegment(i).getTime(Segment.RUN) != null) {
-					pTime = getTime(i, Segment.RUN);
-					break;
-				}
+			int previous = runTimes.getPrevious(index);
+			if (previous >= 0) {
+				pTime = Time.sum(runTimes.getSum(previous));
 			}
 			// If a next non-null segment exist possess a split time
 			// inferior to the split time we are defining, we add
 			// the delta to preserve consistency.
-			for (int i = index + 1; i < getRowCount(); i++) {
-				Segment nSegment = getSegment(i);
-				if (nSegment.getTime(Segment.RUN) != null) {
-					Time nTime = getTime(i, Segment.RUN);
-					if (time.compareTo(nTime) < 0
-							&& time.compareTo(pTime) > 0) {
-						nSegment.getTime(Segment.RUN).add(delta);
-					}
-					break;
+			int next = runTimes.getNext(index);
+			if (next >= 0) {
+				Time nTime = Time.sum(runTimes.getSum(next));
+				if (time.compareTo(nTime) < 0 && time.compareTo(pTime) > 0) {
+					Time nSegmentTime = getSegment(next).getTime(Segment.RUN, method).clone();
+					nSegmentTime.add(delta);
+					setIndexedTime(next, nSegmentTime, Segment.RUN, method);
 				}
 			}
 			time            = Time.getDelta(time, pTime);
 			Segment segment = getSegment(index);
-			segment.setTime(time, Segment.RUN);
+			setIndexedTime(index, time, Segment.RUN, method);
 
-			if (time.compareTo(segment.getTime(Segment.BEST)) < 0) {
-				segment.setTime(time, Segment.BEST);
+			if (time.compareTo(segment.getTime(Segment.BEST, method)) < 0) {
+				setIndexedTime(index, time, Segment.BEST, method);
 			}
 		}
 	}
@@ -1070,47 +1688,217 @@ public class Run implements TableModel, Serializable {
 
 	/**
 	 * As specified by {@code TableModel}. Sets the value of given column for
-	 * the segment of given row index.
+	 * the segment of given row index. Does nothing if the value is unchanged.
 	 */
 	public void setValueAt(Object value, int row, int column) {
-		Segment segment = getSegment(row);
+		Object old = getValueAt(row, column);
+		if (value == null ? old == null : value.equals(old)) {
+			return;
+		}
+		recordEdit();
+		Segment segment = getWritableSegment(row);
 		switch (column) {
 			case COLUMN_ICON:
 				segment.setIcon((ImageIcon) value);
-				tmSupport.fireTableCellUpdated(row, column);
+				if (!deferTableEvent()) {
+					tmSupport.fireTableCellUpdated(row, column);
+				}
 				break;
 
 			case COLUMN_NAME:
 				segment.setName((String) value);
-				tmSupport.fireTableCellUpdated(row, column);
+				if (!deferTableEvent()) {
+					tmSupport.fireTableCellUpdated(row, column);
+				}
 				break;
 
 			case COLUMN_TIME:
 				Time newTime = (Time) value;
 				setSplitTime(row, newTime);
-				tmSupport.fireTableDataChanged();
+				if (!deferTableEvent()) {
+					tmSupport.fireTableDataChanged();
+				}
 				break;
 
 			case COLUMN_SEGMENT:
 				setSegmentTime(row, (Time) value);
-				tmSupport.fireTableDataChanged();
+				if (!deferTableEvent()) {
+					tmSupport.fireTableDataChanged();
+				}
 				break;
 
 			case COLUMN_BEST:
 				newTime      = (Time) value;
 				Time runTime = segment.getTime(Segment.RUN);
 				if (newTime == null || newTime.compareTo(runTime) > 0) {
-					segment.setTime(runTime, Segment.BEST);
-				} else {
-					segment.setTime(newTime, Segment.BEST);
+					newTime = runTime;
+				}
+				setIndexedTime(row, newTime, Segment.BEST,
+						Settings.timingMethod.get());
+				if (!deferTableEvent()) {
+					tmSupport.fireTableDataChanged();
 				}
-				tmSupport.fireTableDataChanged();
 				break;
 		}
 	}
 
 	// -------------------------------------------------------------- UTILITIES
 
+	/**
+	 * Returns wether of not the given segment live time is better than its
+	 * time of given type. If that time is undefined, we check using the sum
+	 * of the live time from the previous non-null segment.
+	 *
+	 * @param   index   - the index of the segment.
+	 * @param   type    - the type of time to compare with.
+	 * @return  wether or not this segment live time is better.
+	 */
+	private boolean isBetterSegment(int index, int type) {
+		Segment segment = getSegment(index);
+		long    set     = segment.getTimeMillis(type);
+		long    live    = segment.getTimeMillis(Segment.LIVE);
+
+		if (live == Time.UNDEFINED) {
+			return false;
+		}
+		if (set == Time.UNDEFINED) {
+			return true;
+		}
+		for (int i = index - 1; i >= 0; i--) {
+			Segment prev = getSegment(i);
+			if (prev.getTimeMillis(type) != Time.UNDEFINED) {
+				break;
+			}
+			long time = prev.getTimeMillis(Segment.LIVE);
+			live += (time == Time.UNDEFINED ? 0L : time);
+		}
+		for (int i = index - 1; i >= 0; i--) {
+			Segment prev = getSegment(i);
+			if (prev.getTimeMillis(Segment.LIVE) != Time.UNDEFINED) {
+				break;
+			}
+			long time = prev.getTimeMillis(type);
+			set += (time == Time.UNDEFINED ? 0L : time);
+		}
+		return live < set;
+	}
+
+	/**
+	 * Returns a snapshot of the table of segments, in constant time. The list
+	 * and the segments it holds become shared with the snapshot, so they are
+	 * copied before their next modification.
+	 *
+	 * @return  the snapshot of the current segments.
+	 */
+	private Snapshot takeSnapshot() {
+		segmentsShared = true;
+		snapshotEpoch++;
+		return new Snapshot(segments, state);
+	}
+
+	/**
+	 * Makes the segments of the given snapshot the segments of this run,
+	 * without firing any table model event. As other snapshots may share
+	 * them, they are still copied before being modified.
+	 *
+	 * @param   snapshot    - the snapshot to restore.
+	 */
+	private void restoreSnapshot(Snapshot snapshot) {
+		State old = state;
+		applySnapshot(snapshot);
+		if (old != state) {
+			pcSupport.firePropertyChange(STATE_PROPERTY, old, state);
+		}
+	}
+
+	/**
+	 * Makes the segments and state of the given snapshot those of this run,
+	 * without firing any event.
+	 *
+	 * @param   snapshot    - the snapshot to apply.
+	 */
+	private void applySnapshot(Snapshot snapshot) {
+		segments       = snapshot.segments;
+		state          = snapshot.state;
+		segmentsShared = true;
+		snapshotEpoch++;
+		invalidateTimeIndexes();
+	}
+
+	/**
+	 * Records the current segments so the edit about to be made can be
+	 * undone. Only edits made while a backup exists are recorded. During a
+	 * bulk update, the edit only marks the update as changed, the segments
+	 * it began with being recorded when it ends.
+	 */
+	private void recordEdit() {
+		if (updateDepth > 0) {
+			updateChanged = true;
+		} else if (backup != null) {
+			pushUndo(takeSnapshot());
+		}
+	}
+
+	/**
+	 * Pushes the given snapshot on the undo history, dropping the oldest one
+	 * past {@link #MAX_UNDO}, and clears the redo history.
+	 *
+	 * @param   snapshot    - the segments before the edit.
+	 */
+	private void pushUndo(Snapshot snapshot) {
+		undoHistory.push(snapshot);
+		if (undoHistory.size() > MAX_UNDO) {
+			undoHistory.removeLast();
+		}
+		redoHistory.clear();
+	}
+
+	/**
+	 * Returns the list of segments, ready to be modified. The list is copied
+	 * first if it is shared with a snapshot. Only the references to the
+	 * segments are copied.
+	 *
+	 * @return  the list of segments owned by this run.
+	 */
+	private List<Segment> getWritableSegments() {
+		if (segmentsShared) {
+			segments       = new ArrayList<Segment>(segments);
+			segmentsShared = false;
+		}
+		return segments;
+	}
+
+	/**
+	 * Returns the segment of given index, ready to be modified. The segment is
+	 * replaced by a copy first if it may be shared with a snapshot.
+	 *
+	 * @param   index   - the index of the segment.
+	 * @return  the segment of given index owned by this run.
+	 */
+	private Segment getWritableSegment(int index) {
+		Segment segment = segments.get(index);
+		if (segment.getSnapshotEpoch() != snapshotEpoch) {
+			segment = segment.clone();
+			segment.setSnapshotEpoch(snapshotEpoch);
+			getWritableSegments().set(index, segment);
+		}
+		return segment;
+	}
+
+	/**
+	 * Returns wether table model events are withheld by a bulk update, in
+	 * which case the update is marked as having changed the segments.
+	 *
+	 * @return  {@code true} if the caller must not fire its event.
+	 */
+	private boolean deferTableEvent() {
+		if (updateDepth > 0) {
+			updateChanged = true;
+			return true;
+		}
+		return false;
+	}
+
 	/**
 	 * Sets the segment time of the given segment. If the segment time is
 	 * better than the best time, the best time is updated accordingly.
@@ -1122,59 +1910,171 @@ public class Run implements TableModel, Serializable {
 		if (time != null && time.compareTo(Time.ZERO) <= 0) {
 			throw new IllegalArgumentException("" + Language.ILLEGAL_TIME);
 		}
-		Segment segment  = segments.get(index);
-		Time    best     = segment.getTime(Segment.BEST);
-		Time    old      = segment.getTime(Segment.RUN);
-		int     rowCount = getRowCount();
+		TimingMethod     method   = Settings.timingMethod.get();
+		SegmentTimeIndex runTimes = getTimeIndex(Segment.RUN, method);
+		Segment          segment  = segments.get(index);
+		Time             best     = segment.getTime(Segment.BEST, method);
+		Time             old      = segment.getTime(Segment.RUN, method);
+		int              next     = runTimes.getNext(index);
 
 		if (time == null) {
 			// The old segment time of the newly undefined segment goes
 			// to the next non-null segment to preserve split times
 			// consistency.
-			for (int i = index + 1; i < rowCount; i++) {
-				Time nTime = getSegment(i).getTime(Segment.RUN);
-				if (nTime != null) {
-					nTime.add(old);
-					break;
-				}
+			if (next >= 0) {
+				Time nTime = getSegment(next).getTime(Segment.RUN, method).clone();
+				nTime.add(old);
+				setIndexedTime(next, nTime, Segment.RUN, method);
 			}
 
 		} else if (old == null) {
-			for (int i = index + 1; i < rowCount; i++) {
-				Segment nSeg  = getSegment(i);
-				Time    nTime = nSeg.getTime(Segment.RUN);
-				if (nTime != null) {
-					if (nTime.compareTo(time) <= 0) {
-						throw new IllegalArgumentException(
-								"" + Language.ILLEGAL_SEGMENT_TIME);
-					}
-					nSeg.setTime(Time.getDelta(nTime, time), Segment.RUN);
-					break;
+			if (next >= 0) {
+				Time nTime = getSegment(next).getTime(Segment.RUN, method);
+				if (nTime.compareTo(time) <= 0) {
+					throw new IllegalArgumentException(
+							"" + Language.ILLEGAL_SEGMENT_TIME);
 				}
+				setIndexedTime(
+						next, Time.getDelta(nTime, time), Segment.RUN, method);
 			}
 
 		}
-		segment.setTime(time, Segment.RUN);
+		setIndexedTime(index, time, Segment.RUN, method);
 
 		if (time != null) {
 			if (time.compareTo(best) < 0) {
-				segment.setTime(time, Segment.BEST);
+				setIndexedTime(index, time, Segment.BEST, method);
 			}
 		}
 	}
 
+	/**
+	 * Returns the index of the cumulative times of given type on the given
+	 * timeline, building it if the segments changed since it was built.
+	 *
+	 * @param   type    - one of {@code RUN}, {@code BEST} or {@code LIVE}.
+	 * @param   method  - the timeline of the times.
+	 * @return  the up to date index of the times.
+	 */
+	private SegmentTimeIndex getTimeIndex(int type, TimingMethod method) {
+		int slot = getTimeIndexSlot(type, method);
+		if (timeIndexes[slot] == null) {
+			timeIndexes[slot] = new SegmentTimeIndex(segments, type, method);
+		}
+		return timeIndexes[slot];
+	}
+
+	/**
+	 * Sets the given time of a segment, updating the index of these times
+	 * instead of discarding it. Segment times edited by the run go through
+	 * here, or are followed by {@link #updateTimeIndexes(int, int)}, so that
+	 * successive edits each cost O(log n).
+	 *
+	 * @param   index   - the index of the segment.
+	 * @param   time    - the new time of the segment.
+	 * @param   type    - one of {@code RUN}, {@code BEST} or {@code LIVE}.
+	 * @param   method  - the timeline of the time.
+	 */
+	private void setIndexedTime(int index, Time time, int type,
+			TimingMethod method) {
+		getWritableSegment(index).setTime(time, type, false, method);
+		SegmentTimeIndex timeIndex = timeIndexes[getTimeIndexSlot(type, method)];
+		if (timeIndex != null) {
+			timeIndex.set(index, time);
+		}
+	}
+
+	/**
+	 * Reports to the indexes the given type of time of a segment, on both
+	 * timelines, once set directly on the segment.
+	 *
+	 * @param   index   - the index of the segment.
+	 * @param   type    - one of {@code RUN}, {@code BEST} or {@code LIVE}.
+	 */
+	private void updateTimeIndexes(int index, int type) {
+		for (TimingMethod method : TimingMethod.values()) {
+			SegmentTimeIndex timeIndex =
+					timeIndexes[getTimeIndexSlot(type, method)];
+			if (timeIndex != null) {
+				timeIndex.set(index, segments.get(index).getTime(type, method));
+			}
+		}
+	}
+
+	/**
+	 * Discards the indexes of segment times, to be rebuilt on demand. Must be
+	 * called whenever segments are added, removed or moved, or their times
+	 * set without reporting them to the indexes.
+	 */
+	private void invalidateTimeIndexes() {
+		Arrays.fill(timeIndexes, null);
+	}
+
+	private static int getTimeIndexSlot(int type, TimingMethod method) {
+		return method.ordinal() * 3 + (type - Segment.RUN);
+	}
+
+	/**
+	 * Returns the number of milliseconds during which the game time has been
+	 * paused since the start of the run, at the given clock time. The clock
+	 * is considered stopped while the run is paused.
+	 */
+	private long getGamePausedTime(long now) {
+		if (!gameTimePaused) {
+			return gamePausedTime;
+		}
+		if (state == State.PAUSED) {
+			now = pauseStart;
+		}
+		return gamePausedTime + Math.max(0L, now - gamePauseStart);
+	}
+
+	private void setGameTimePaused(boolean paused) {
+		boolean old    = gameTimePaused;
+		gameTimePaused = paused;
+		pcSupport.firePropertyChange(GAME_TIME_PAUSED_PROPERTY, old, paused);
+	}
+
+	/**
+	 * Sets the live time of the given segment on both timelines.
+	 */
+	private void setLiveTime(int index, Time real, Time game) {
+		Segment segment = segments.get(index);
+		segment.setTime(real, Segment.LIVE, true, TimingMethod.REAL_TIME);
+		segment.setTime(game, Segment.LIVE, true, TimingMethod.GAME_TIME);
+		updateTimeIndexes(index, Segment.LIVE);
+	}
+
+	private void setWorldRecord(WorldRecord record) {
+		WorldRecord old = worldRecord;
+		worldRecord     = record;
+		pcSupport.firePropertyChange(RECORD_PROPERTY, old, record);
+	}
+
 	/**
 	 * Initialize all transient fields.
 	 */
 	private void initializeTransients() {
 		pcSupport       = new PropertyChangeSupport(this);
 		tmSupport       = new TableModelSupport(this);
-		segmentsBackup  = null;
-		stateBackup     = null;
+		backup          = null;
+		undoHistory     = new LinkedList<Snapshot>();
+		redoHistory     = new LinkedList<Snapshot>();
+		segmentsShared  = false;
+		snapshotEpoch   = 0;
 		state           = getRowCount() > 0 ? State.READY : State.NULL;
 		current         = -1;
 		startTime       = 0L;
 		sessionAttempts = 0;
+		pauseStart      = 0L;
+		gameTimePaused  = false;
+		gamePauseStart  = 0L;
+		gamePausedTime  = 0L;
+		updateDepth     = 0;
+		updateChanged   = false;
+		updateState     = null;
+		updateSnapshot  = null;
+		timeIndexes     = new SegmentTimeIndex[6];
 
 		if (subTitle == null) {
 			subTitle = "";
@@ -1200,7 +2100,22 @@ public class Run implements TableModel, Serializable {
 		initializeTransients();
 	}
 
-	// ---------------------------------------------------------- INTERNAL TYPE
+	// --------------------------------------------------------- INTERNAL TYPES
+
+	/**
+	 * State of the table of segments at some point of its edition. Taking a
+	 * snapshot does not copy anything: the run copies its list of segments,
+	 * and each segment, before their first modification following it.
+	 */
+	private static class Snapshot {
+		private final List<Segment> segments;
+		private final State state;
+
+		Snapshot(List<Segment> segments, State state) {
+			this.segments = segments;
+			this.state    = state;
+		}
+	}
 
 	/**
 	 * Enumeration of a run possible state.
@@ -1,6 +1,7 @@
 package org.fenix.llanfair;
 
 import org.fenix.llanfair.config.Settings;
+import org.fenix.llanfair.config.TimingMethod;
 import org.fenix.utils.Images;
 
 import javax.swing.*;
@@ -11,7 +12,9 @@ import java.io.Serializable;
 /**
  * Represents a portion of a run. As such, a segment is associated to a 
  * registered time as well as a best time and a live time set on the fly by
- * the run owning the segment.
+ * the run owning the segment. Each of these times exists on both timelines
+ * of {@link TimingMethod}, the one in use being picked by the settings unless
+ * explicitly given.
  *
  * @author  Xavier "Xunkar" Sencert
  */
@@ -109,11 +112,39 @@ public class Segment implements Cloneable, Serializable {
 	 */
 	private transient Time liveTime;
 
+	/**
+	 * Registered game time for this segment during the best run.
+	 */
+	private Time runGameTime;
+
+	/**
+	 * Best game time ever registered for this segment.
+	 */
+	private Time bestGameTime;
+
+	/**
+	 * Live game time realized on this segment during a run.
+	 */
+	private transient Time liveGameTime;
+
 	/**
 	 * Number of milliseconds on the clock when the segment started.
 	 */
 	private transient long startTime;
 
+	/**
+	 * Number of milliseconds the game time of the run had been paused for
+	 * when the segment started.
+	 */
+	private transient long startPausedTime;
+
+	/**
+	 * Snapshot epoch of the run when this segment was created or copied. A
+	 * run only modifies the segments of its current epoch, copying the others
+	 * since they may be shared with one of its snapshots.
+	 */
+	private transient int snapshotEpoch;
+
 	// ----------------------------------------------------------- CONSTRUCTORS
 
 	/**
@@ -169,40 +200,125 @@ public class Segment implements Cloneable, Serializable {
 	}
 
 	/**
-	 * Returns the given type of time for this segment.
+	 * Returns the number of milliseconds the game time of the run had been
+	 * paused for when the segment started.
+	 *
+	 * @return  the paused game time at the start of this segment.
+	 */
+	public long getStartPausedTime() {
+		return startPausedTime;
+	}
+
+	/**
+	 * Returns the given type of time for this segment, on the timeline set
+	 * in the settings.
 	 *
 	 * @param   type    - one of the type identifier.
 	 * @return  the segment time of given type.
 	 */
 	public Time getTime(int type) {
+		return getTime(type, Settings.timingMethod.get());
+	}
+
+	/**
+	 * Returns the given type of time for this segment, on the given timeline.
+	 *
+	 * @param   type    - one of the type identifier.
+	 * @param   method  - the timeline of the time.
+	 * @return  the segment time of given type.
+	 */
+	public Time getTime(int type, TimingMethod method) {
+		boolean game = (method == TimingMethod.GAME_TIME);
+		Time    run  = game ? runGameTime  : runTime;
+		Time    best = game ? bestGameTime : bestTime;
+		Time    live = game ? liveGameTime : liveTime;
+
 		switch (type) {
 			case BEST:
-				return bestTime;
+				return best;
 
 			case LIVE:
-				return liveTime;
+				return live;
 
 			case RUN:
-				return runTime;
+				return run;
 
 			case DELTA_RUN:
-				if (runTime == null) {
+				if (run == null) {
 					return null;
 				}
-				return Time.getDelta(liveTime, runTime);
+				return Time.getDelta(live, run);
 
 			case DELTA_BEST:
-				if (bestTime == null) {
+				if (best == null) {
 					return null;
 				}
-				return Time.getDelta(liveTime, bestTime);
+				return Time.getDelta(live, best);
 
 			case DELTA:
-				Time   time =  getTime();
-				return (time == null ? null : Time.getDelta(liveTime, time));
+				Time   time =  getTime(method);
+				return (time == null ? null : Time.getDelta(live, time));
 
 			default:
-				return getTime();
+				return getTime(method);
+		}
+	}
+
+	/**
+	 * Returns the given type of time for this segment in milliseconds, on the
+	 * timeline set in the settings. Unlike {@link #getTime(int)}, no time is
+	 * allocated.
+	 *
+	 * @param   type    - one of the type identifier.
+	 * @return  the segment time of given type, or {@link Time#UNDEFINED}.
+	 */
+	public long getTimeMillis(int type) {
+		return getTimeMillis(type, Settings.timingMethod.get());
+	}
+
+	/**
+	 * Returns the given type of time for this segment in milliseconds, on the
+	 * given timeline. Unlike {@link #getTime(int, TimingMethod)}, no time is
+	 * allocated.
+	 *
+	 * @param   type    - one of the type identifier.
+	 * @param   method  - the timeline of the time.
+	 * @return  the segment time of given type, or {@link Time#UNDEFINED}.
+	 */
+	public long getTimeMillis(int type, TimingMethod method) {
+		boolean game = (method == TimingMethod.GAME_TIME);
+		long    run  = getMillis(game ? runGameTime  : runTime);
+		long    best = getMillis(game ? bestGameTime : bestTime);
+		long    live = getMillis(game ? liveGameTime : liveTime);
+
+		switch (type) {
+			case BEST:
+				return best;
+
+			case LIVE:
+				return live;
+
+			case RUN:
+				return run;
+
+			case DELTA_RUN:
+				if (run == Time.UNDEFINED) {
+					return Time.UNDEFINED;
+				}
+				return Time.getDelta(live, run);
+
+			case DELTA_BEST:
+				if (best == Time.UNDEFINED) {
+					return Time.UNDEFINED;
+				}
+				return Time.getDelta(live, best);
+
+			case DELTA:
+				long   time =  getMillis(getTime(method));
+				return (time == Time.UNDEFINED ? time : Time.getDelta(live, time));
+
+			default:
+				return getMillis(getTime(method));
 		}
 	}
 
@@ -216,11 +332,35 @@ public class Segment implements Cloneable, Serializable {
 		segment.bestTime  = (bestTime == null ? null : bestTime.clone());
 		segment.liveTime  = (liveTime == null ? null : liveTime.clone());
 		segment.startTime = startTime;
+
+		segment.runGameTime     = (runGameTime  == null ? null : runGameTime.clone());
+		segment.bestGameTime    = (bestGameTime == null ? null : bestGameTime.clone());
+		segment.liveGameTime    = (liveGameTime == null ? null : liveGameTime.clone());
+		segment.startPausedTime = startPausedTime;
 		return segment;
 	}
 
+	/**
+	 * Returns the snapshot epoch of the run when this segment was created or
+	 * copied.
+	 *
+	 * @return  the snapshot epoch of this segment.
+	 */
+	int getSnapshotEpoch() {
+		return snapshotEpoch;
+	}
+
 	// ---------------------------------------------------------------- SETTERS
 
+	/**
+	 * Sets the snapshot epoch of the run owning this segment.
+	 *
+	 * @param   snapshotEpoch   - the current snapshot epoch of the run.
+	 */
+	void setSnapshotEpoch(int snapshotEpoch) {
+		this.snapshotEpoch = snapshotEpoch;
+	}
+
 	/**
 	 * Sets the name of the segment to the given string.
 	 *
@@ -243,6 +383,10 @@ public class Segment implements Cloneable, Serializable {
 	public void setIcon(ImageIcon icon) {
 		if (icon == null) {
 			this.icon = null;
+		} else if (Math.max(icon.getIconWidth(), icon.getIconHeight())
+				== ICON_MAX_SIZE) {
+			// Already at the right size, no need to rescale it again.
+			this.icon = icon;
 		} else {
 			this.icon = Images.rescale(icon, ICON_MAX_SIZE);
 		}
@@ -262,6 +406,17 @@ public class Segment implements Cloneable, Serializable {
 		this.startTime = startTime;
 	}
 
+	/**
+	 * Sets the number of milliseconds the game time of the run had been
+	 * paused for when the segment started. Should only be called by the run
+	 * owning this segment.
+	 *
+	 * @param   startPausedTime - the paused game time at the start.
+	 */
+	void setStartPausedTime(long startPausedTime) {
+		this.startPausedTime = startPausedTime;
+	}
+
 	/**
 	 * Sets the given type of time to the new value. Note that some type of
 	 * times cannot be set (such as {@code DELTA}s.) The new value can be
@@ -269,22 +424,43 @@ public class Segment implements Cloneable, Serializable {
 	 *
 	 * @param   time    - the new time value for the given type.
 	 * @param   type    - one of the type identifier.
+	 * @param   bypass  - wether to accept times lower than or equal to zero.
+	 * @param   method  - the timeline of the time.
 	 * @throws  IllegalArgumentException if the new time value is lower than or
 	 *          equal to zero.
 	 */
-	public void setTime(Time time, int type, boolean bypass) {
+	public void setTime(Time time, int type, boolean bypass,
+			TimingMethod method) {
 		if (!bypass) {
 			if (time != null && time.compareTo(Time.ZERO) <= 0) {
 				throw new IllegalArgumentException("" + Language.ILLEGAL_TIME);
 			}
 		}
-		switch (type) {
-			case BEST:  bestTime = time;    break;
-			case LIVE:  liveTime = time;    break;
-			case RUN:   runTime  = time;    break;
+		if (method == TimingMethod.GAME_TIME) {
+			switch (type) {
+				case BEST:  bestGameTime = time;    break;
+				case LIVE:  liveGameTime = time;    break;
+				case RUN:   runGameTime  = time;    break;
+			}
+		} else {
+			switch (type) {
+				case BEST:  bestTime = time;    break;
+				case LIVE:  liveTime = time;    break;
+				case RUN:   runTime  = time;    break;
+			}
 		}
 	}
 
+	/**
+	 * Sets the given type of time to the new value, on the timeline set in
+	 * the settings.
+	 *
+	 * @see     #setTime(Time, int, boolean, TimingMethod)
+	 */
+	public void setTime(Time time, int type, boolean bypass) {
+		setTime(time, type, bypass, Settings.timingMethod.get());
+	}
+
 	public void setTime(Time time, int type) {
 		setTime(time, type, false);
 	}
@@ -295,20 +471,34 @@ public class Segment implements Cloneable, Serializable {
 	 * Initialize all transient fields.
 	 */
 	private void initializeTransients() {
-		liveTime  = null;
-		startTime = 0L;
+		liveTime        = null;
+		liveGameTime    = null;
+		startTime       = 0L;
+		startPausedTime = 0L;
+		snapshotEpoch   = 0;
+	}
+
+	/**
+	 * Returns the number of milliseconds of the given time.
+	 *
+	 * @param   time    - the time, possibly {@code null}.
+	 * @return  the milliseconds of the time, or {@link Time#UNDEFINED}.
+	 */
+	private static long getMillis(Time time) {
+		return (time == null ? Time.UNDEFINED : time.getMilliseconds());
 	}
 
 	/**
 	 * Returns the time of this segment as specified by the currently set
-	 * compare method.
+	 * compare method, on the given timeline.
 	 *
 	 * @return  the time as defined by the current compare method.
 	 */
-	private Time getTime() {
+	private Time getTime(TimingMethod method) {
+		boolean game = (method == TimingMethod.GAME_TIME);
 		switch (Settings.compareMethod.get()) {
-			case BEST_OVERALL_RUN:       return runTime;
-			case SUM_OF_BEST_SEGMENTS:  return bestTime;
+			case BEST_OVERALL_RUN:       return game ? runGameTime : runTime;
+			case SUM_OF_BEST_SEGMENTS:  return game ? bestGameTime : bestTime;
 		}
 		// Should not be reached.
 		return null;
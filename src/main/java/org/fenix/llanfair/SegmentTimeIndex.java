@@ -0,0 +1,184 @@
+package org.fenix.llanfair;
+
+import org.fenix.llanfair.config.TimingMethod;
+
+import java.util.List;
+
+/**
+ * Cumulative times of the segments of a run, for one type of time on one
+ * timeline. Segment times are kept in a Fenwick tree (binary indexed tree) so
+ * both the split time up to a segment and the update of a segment time take
+ * O(log n). A second tree counts the segments whose time is defined, so that
+ * the previous or next of them is found in O(log n) as well.
+ * <p>
+ * The index does not watch the segments. Its owner must either report every
+ * update through {@link #set(int, Time)} or build a new index.
+ *
+ * @author  Xavier "Xunkar" Sencert
+ */
+class SegmentTimeIndex {
+
+	// ------------------------------------------------------------- ATTRIBUTES
+
+	/**
+	 * Number of milliseconds of each segment, zero if undefined.
+	 */
+	private final long[] times;
+
+	/**
+	 * Wether the time of each segment is defined.
+	 */
+	private final boolean[] defined;
+
+	/**
+	 * Fenwick tree of {@code times}, indexed from one.
+	 */
+	private final long[] timeTree;
+
+	/**
+	 * Fenwick tree of {@code defined}, indexed from one.
+	 */
+	private final int[] definedTree;
+
+	private int definedCount;
+
+	// ----------------------------------------------------------- CONSTRUCTORS
+
+	/**
+	 * Creates the index of the given type of time of the given segments, in
+	 * linear time.
+	 *
+	 * @param   segments    - the segments of the run.
+	 * @param   type        - one of the identifier, other than the deltas.
+	 * @param   method      - the timeline of the times.
+	 */
+	SegmentTimeIndex(List<Segment> segments, int type, TimingMethod method) {
+		int size    = segments.size();
+		times       = new long[size];
+		defined     = new boolean[size];
+		timeTree    = new long[size + 1];
+		definedTree = new int[size + 1];
+
+		for (int i = 0; i < size; i++) {
+			Time time = segments.get(i).getTime(type, method);
+			if (time != null) {
+				times[i]   = time.getMilliseconds();
+				defined[i] = true;
+				definedCount++;
+			}
+			timeTree[i + 1]    += times[i];
+			definedTree[i + 1] += defined[i] ? 1 : 0;
+			// Each node also accounts for the nodes it covers.
+			int parent = (i + 1) + ((i + 1) & -(i + 1));
+			if (parent <= size) {
+				timeTree[parent]    += timeTree[i + 1];
+				definedTree[parent] += definedTree[i + 1];
+			}
+		}
+	}
+
+	// -------------------------------------------------------------- INTERFACE
+
+	/**
+	 * Returns the number of segments indexed.
+	 */
+	int size() {
+		return times.length;
+	}
+
+	/**
+	 * Returns wether the time of the given segment is defined.
+	 */
+	boolean isDefined(int index) {
+		return defined[index];
+	}
+
+	/**
+	 * Returns the sum of the times of the segments up to the given one
+	 * included, undefined times counting as zero.
+	 *
+	 * @param   index   - the index of the last segment to sum.
+	 * @return  the number of milliseconds up to the segment.
+	 */
+	long getSum(int index) {
+		long sum = 0L;
+		for (int i = index + 1; i > 0; i -= i & -i) {
+			sum += timeTree[i];
+		}
+		return sum;
+	}
+
+	/**
+	 * Returns the index of the last segment before the given one whose time
+	 * is defined, or {@code -1} if there are none.
+	 */
+	int getPrevious(int index) {
+		int count = getDefinedCount(index - 1);
+		return (count == 0) ? -1 : findDefined(count);
+	}
+
+	/**
+	 * Returns the index of the first segment after the given one whose time
+	 * is defined, or {@code -1} if there are none.
+	 */
+	int getNext(int index) {
+		int count = getDefinedCount(index);
+		return (count == definedCount) ? -1 : findDefined(count + 1);
+	}
+
+	/**
+	 * Updates the time of the given segment.
+	 *
+	 * @param   index   - the index of the updated segment.
+	 * @param   time    - its new time, {@code null} if undefined.
+	 */
+	void set(int index, Time time) {
+		long    millis    = (time == null) ? 0L : time.getMilliseconds();
+		boolean isDefined = (time != null);
+		long    delta     = millis - times[index];
+		int     count     = 0;
+		if (isDefined != defined[index]) {
+			count = isDefined ? 1 : -1;
+			definedCount += count;
+		}
+		times[index]   = millis;
+		defined[index] = isDefined;
+
+		for (int i = index + 1; i < timeTree.length; i += i & -i) {
+			timeTree[i]    += delta;
+			definedTree[i] += count;
+		}
+	}
+
+	// -------------------------------------------------------------- UTILITIES
+
+	/**
+	 * Returns the number of defined segments up to the given one included.
+	 */
+	private int getDefinedCount(int index) {
+		int count = 0;
+		for (int i = index + 1; i > 0; i -= i & -i) {
+			count += definedTree[i];
+		}
+		return count;
+	}
+
+	/**
+	 * Returns the index of the k-th defined segment, by walking down the tree
+	 * of defined segments.
+	 *
+	 * @param   k   - the rank of the segment, starting at one.
+	 */
+	private int findDefined(int k) {
+		int position = 0;
+		for (int step = Integer.highestOneBit(times.length); step > 0;
+				step >>= 1) {
+			int next = position + step;
+			if (next <= times.length && definedTree[next] < k) {
+				position = next;
+				k       -= definedTree[next];
+			}
+		}
+		return position;
+	}
+}
@@ -1,6 +1,7 @@
 package org.fenix.llanfair;
 
 import java.io.Serializable;
+import java.text.ParseException;
 
 import org.fenix.llanfair.config.Accuracy;
 import org.fenix.llanfair.config.Settings;
@@ -27,6 +28,12 @@ public class Time implements Cloneable, Comparable<Time>, Serializable {
 	 */
 	public static final Time ZERO = new Time();
 
+	/**
+	 * Number of milliseconds standing for an undefined time in the methods
+	 * working on primitive times, where a {@code Time} would be {@code null}.
+	 */
+	public static final long UNDEFINED = Long.MIN_VALUE;
+
 	private static final long serialVersionUID = 1000L;
 
 	private long milliseconds;
@@ -47,7 +54,7 @@ public class Time implements Cloneable, Comparable<Time>, Serializable {
 	 * @param ms the number of milliseconds to represent
 	 */
 	public Time(long ms) {
-		milliseconds = (ms / 10L) * 10L;
+		milliseconds = truncate(ms);
 	}
 
 	/**
@@ -71,21 +78,40 @@ public class Time implements Cloneable, Comparable<Time>, Serializable {
 	 *
 	 * Where a letter represents a digit and parenthesis indicate optionality.
 	 * H stands for hours, M for minutes, S for seconds, T for tenths, H for
-	 * hundredth and M for milliseconds.
+	 * hundredth and M for milliseconds. See {@link TimeParser} for the exact
+	 * syntax.
 	 *
 	 * @param timestamp a string representation of the time to parse
-	 * @throws IllegalArgumentException if the timestamp cannot be parsed
+	 * @throws IllegalArgumentException if the timestamp is {@code null} or
+	 *         cannot be parsed, its cause being the {@link ParseException}
+	 *         locating the error
 	 */
 	public Time(String timeStamp) {
 		try {
-			milliseconds = parseTimeStamp(timeStamp);
-		} catch (Exception ex) {
+			if (timeStamp == null) {
+				throw new ParseException("Null time stamp", 0);
+			}
+			milliseconds = TimeParser.parse(timeStamp);
+		} catch (ParseException ex) {
 			throw new IllegalArgumentException(
-					Language.INVALID_TIME_STAMP.get(timeStamp)
+					Language.INVALID_TIME_STAMP.get(timeStamp), ex
 			);
 		}
 	}
 
+	/**
+	 * Returns a time representing exactly the given number of milliseconds,
+	 * without truncating it, such as a sum of existing times.
+	 *
+	 * @param ms the number of milliseconds to represent
+	 * @return the time representing these milliseconds
+	 */
+	static Time sum(long ms) {
+		Time time = new Time();
+		time.milliseconds = ms;
+		return time;
+	}
+
 	/**
 	 * Returns the delta of time between two times. The returned time is
 	 * equivalent to, but more convenient than, the following code:
@@ -104,6 +130,67 @@ public class Time implements Cloneable, Comparable<Time>, Serializable {
 		return new Time(t1.milliseconds - t2.milliseconds);
 	}
 
+	/**
+	 * Returns the delta of time between two primitive times, as
+	 * {@link #getDelta(Time, Time)} does. An undefined time counts as zero.
+	 *
+	 * @param t1 the first number of milliseconds
+	 * @param t2 the number of milliseconds to substract from the first
+	 * @return the delta of time between the two times, truncated as a time is
+	 */
+	public static long getDelta(long t1, long t2) {
+		t1 = (t1 == UNDEFINED ? 0L : t1);
+		t2 = (t2 == UNDEFINED ? 0L : t2);
+		return truncate(t1 - t2);
+	}
+
+	/**
+	 * Truncates the given number of milliseconds the same way a time created
+	 * from it would, so that primitive times compare exactly as times do.
+	 *
+	 * @param ms the number of milliseconds to truncate
+	 * @return the number of milliseconds a time created from it would hold
+	 */
+	public static long truncate(long ms) {
+		return (ms / 10L) * 10L;
+	}
+
+	/**
+	 * Returns the given primitive time as a string, as
+	 * {@link #toString(boolean, Accuracy)} would for a time holding it.
+	 *
+	 * @param ms the number of milliseconds to represent
+	 * @param signed if the time is to be displayed as a delta of time
+	 * @param accuracy the target accuracy to display the time in
+	 * @return a string representation of the time
+	 */
+	public static String format(long ms, boolean signed, Accuracy accuracy) {
+		return TimeFormatter.get(accuracy, signed).format(ms);
+	}
+
+	/**
+	 * Returns the given primitive time as a string, as
+	 * {@link #toString(boolean)} would for a time holding it.
+	 *
+	 * @param ms the number of milliseconds to represent
+	 * @param signed if the time is to be displayed as a delta of time
+	 * @return a string representation of the time
+	 */
+	public static String format(long ms, boolean signed) {
+		return format(ms, signed, Settings.accuracy.get());
+	}
+
+	/**
+	 * Returns the given primitive time as a string, as {@link #toString()}
+	 * would for a time holding it.
+	 *
+	 * @param ms the number of milliseconds to represent
+	 * @return a string representation of the time
+	 */
+	public static String format(long ms) {
+		return format(ms, false);
+	}
+
 	/**
 	 * Returns the number of milliseconds represented by that time.
 	 *
@@ -125,63 +212,7 @@ public class Time implements Cloneable, Comparable<Time>, Serializable {
 	}
 
 	public String toString(boolean signed, Accuracy accuracy) {
-		if (signed) {
-			return (milliseconds > 0L ? "+" : "-") + toString(false, accuracy);
-		}
-		long time = Math.abs(milliseconds);
-		long cen = (time % 1000L) / 10L;
-		long sec;
-
-		// Round to the nearest tenth.
-		if (accuracy == Accuracy.TENTH) {
-			cen = Math.round((double) cen / 10L);
-			if (cen == 10L) {
-				cen = 0L;
-				time = time + 1000L;
-			}
-		}
-
-		// Round to the nearest second.
-		if (accuracy == Accuracy.SECONDS) {
-			sec = Math.round((double) time / 1000);
-		} else {
-			sec = time / 1000L;
-		}
-		long min = sec / 60L;
-		sec      = sec % 60L;
-		long hou = min / 60L;
-		min      = min % 60L;
-
-		if (hou == 0L) {
-			if (min == 0L) {
-				switch (accuracy) {
-					case HUNDREDTH:
-						return String.format("%d.%02d", sec, cen);
-					case TENTH:
-						return String.format("%d.%d", sec, cen);
-					case SECONDS:
-						return String.format("%d", sec);
-				}
-			}
-			switch (accuracy) {
-				case HUNDREDTH:
-					return String.format("%d:%02d.%02d", min, sec, cen);
-				case TENTH:
-					return String.format("%d:%02d.%d", min, sec, cen);
-				case SECONDS:
-					return String.format("%d:%02d", min, sec);
-			}
-		}
-		switch (accuracy) {
-			case HUNDREDTH:
-				return String.format("%d:%02d:%02d.%02d", hou, min, sec, cen);
-			case TENTH:
-				return String.format("%d:%02d:%02d.%d", hou, min, sec, cen);
-			case SECONDS:
-				return String.format("%d:%02d:%02d", hou, min, sec);
-		}
-		// Should not be reachable.
-		return null;
+		return format(milliseconds, signed, accuracy);
 	}
 
 	/**
@@ -264,32 +295,4 @@ public class Time implements Cloneable, Comparable<Time>, Serializable {
 		return ((Long) milliseconds).compareTo(time.milliseconds);
 	}
 
-	/**
-	 * Parses a given time-stamp and converts it to a number of milliseconds.
-	 *
-	 * @param timestamp the timestamp to parse
-	 * @return the number of milliseconds represented by the stamp
-	 */
-	private long parseTimeStamp(String timestamp) {
-		String seconds = timestamp;
-		long   millis  = 0L;
-
-		// Hours or minutes in the stamp.
-		if (timestamp.contains(":")) {
-			String[] split = timestamp.split(":");
-			if (split.length > 3) {
-				throw new IllegalArgumentException();
-			}
-			// We keep the number of seconds and lower for later.
-			seconds = split[split.length - 1];
-
-			for (int i = 0; i < split.length - 1; i++) {
-				long power = (long) Math.pow(60, split.length - i - 1);
-				millis    += Long.valueOf(split[i]) * power * 1000L;
-			}
-		}
-		double value = Double.parseDouble(seconds);
-		return (millis + (long) (value * 1000.0));
-	}
-
 }
@@ -0,0 +1,250 @@
+package org.fenix.llanfair;
+
+import org.fenix.llanfair.config.Accuracy;
+import org.fenix.llanfair.config.Settings;
+
+/**
+ * Formats numbers of milliseconds as times, for a given accuracy and with or
+ * without a sign, exactly as {@link Time#toString(boolean, Accuracy)} does.
+ * A formatter is picked once with {@link #get(Accuracy, boolean)} and then
+ * writes the digits straight into a buffer supplied by the caller, without
+ * parsing a format string nor boxing any number.
+ * <p>
+ * Formatters are immutable and shared, so they can be used from any thread.
+ *
+ * @author  Xavier "Xunkar" Sencert
+ */
+public final class TimeFormatter {
+
+	// -------------------------------------------------------------- CONSTANTS
+
+	/**
+	 * Maximum number of characters written by a formatter, enough for the
+	 * sign, the hours of the longest time and every other field.
+	 */
+	public static final int MAX_LENGTH = 24;
+
+	/**
+	 * The formatters, indexed by accuracy and then sign.
+	 */
+	private static final TimeFormatter[] FORMATTERS;
+
+	static {
+		Accuracy[] accuracies = Accuracy.values();
+		FORMATTERS = new TimeFormatter[accuracies.length * 2];
+		for (Accuracy accuracy : accuracies) {
+			FORMATTERS[accuracy.ordinal() * 2]     = new TimeFormatter(accuracy, false);
+			FORMATTERS[accuracy.ordinal() * 2 + 1] = new TimeFormatter(accuracy, true);
+		}
+	}
+
+	// ------------------------------------------------------------- ATTRIBUTES
+
+	/**
+	 * Wether times are preceded by a plus or minus sign.
+	 */
+	private final boolean signed;
+
+	/**
+	 * Number of hundredths of a second in the smallest unit displayed.
+	 */
+	private final long unit;
+
+	/**
+	 * Number of digits displayed after the seconds.
+	 */
+	private final int fractionDigits;
+
+	// ----------------------------------------------------------- CONSTRUCTORS
+
+	private TimeFormatter(Accuracy accuracy, boolean signed) {
+		this.signed = signed;
+		switch (accuracy) {
+			case SECONDS:
+				unit           = 100L;
+				fractionDigits = 0;
+				break;
+			case TENTH:
+				unit           = 10L;
+				fractionDigits = 1;
+				break;
+			default:
+				unit           = 1L;
+				fractionDigits = 2;
+		}
+	}
+
+	// -------------------------------------------------------------- INTERFACE
+
+	/**
+	 * Returns the formatter of given accuracy and sign mode.
+	 *
+	 * @param   accuracy    - the accuracy of the formatted times.
+	 * @param   signed      - wether times are formatted as deltas of time.
+	 * @return  the formatter of given accuracy and sign mode.
+	 */
+	public static TimeFormatter get(Accuracy accuracy, boolean signed) {
+		return FORMATTERS[accuracy.ordinal() * 2 + (signed ? 1 : 0)];
+	}
+
+	/**
+	 * Returns the formatter of the accuracy set in the settings and of given
+	 * sign mode.
+	 *
+	 * @param   signed  - wether times are formatted as deltas of time.
+	 * @return  the formatter of current accuracy and given sign mode.
+	 */
+	public static TimeFormatter get(boolean signed) {
+		return get(Settings.accuracy.get(), signed);
+	}
+
+	/**
+	 * Writes the given time into the given buffer, which must have room for
+	 * {@link #MAX_LENGTH} characters from the given offset.
+	 *
+	 * @param   ms      - the number of milliseconds to format.
+	 * @param   buffer  - the buffer receiving the characters.
+	 * @param   offset  - the index of the first character in the buffer.
+	 * @return  the number of characters written.
+	 */
+	public int format(long ms, char[] buffer, int offset) {
+		int  pos   = offset;
+		long units = getUnits(ms);
+		long sec   = getSeconds(units);
+		long min   = sec / 60L;
+		long hou   = min / 60L;
+
+		if (signed) {
+			buffer[pos++] = (ms > 0L ? '+' : '-');
+		}
+		if (hou > 0L) {
+			pos = writeNumber(hou, buffer, pos);
+			buffer[pos++] = ':';
+			pos = writeDigits(min % 60L, 2, buffer, pos);
+			buffer[pos++] = ':';
+			pos = writeDigits(sec % 60L, 2, buffer, pos);
+		} else if (min > 0L) {
+			pos = writeNumber(min, buffer, pos);
+			buffer[pos++] = ':';
+			pos = writeDigits(sec % 60L, 2, buffer, pos);
+		} else {
+			pos = writeNumber(sec, buffer, pos);
+		}
+		if (fractionDigits > 0) {
+			buffer[pos++] = '.';
+			pos = writeDigits(getFraction(units), fractionDigits, buffer, pos);
+		}
+		return pos - offset;
+	}
+
+	/**
+	 * Appends the given time to the given builder.
+	 *
+	 * @param   ms      - the number of milliseconds to format.
+	 * @param   builder - the builder to which the time is appended.
+	 * @return  the given builder.
+	 */
+	public StringBuilder format(long ms, StringBuilder builder) {
+		long units = getUnits(ms);
+		long sec   = getSeconds(units);
+		long min   = sec / 60L;
+		long hou   = min / 60L;
+
+		if (signed) {
+			builder.append(ms > 0L ? '+' : '-');
+		}
+		if (hou > 0L) {
+			builder.append(hou).append(':');
+			appendDigits(min % 60L, 2, builder).append(':');
+			appendDigits(sec % 60L, 2, builder);
+		} else if (min > 0L) {
+			builder.append(min).append(':');
+			appendDigits(sec % 60L, 2, builder);
+		} else {
+			builder.append(sec);
+		}
+		if (fractionDigits > 0) {
+			builder.append('.');
+			appendDigits(getFraction(units), fractionDigits, builder);
+		}
+		return builder;
+	}
+
+	/**
+	 * Returns the given time as a string.
+	 *
+	 * @param   ms  - the number of milliseconds to format.
+	 * @return  the formatted time.
+	 */
+	public String format(long ms) {
+		char[] buffer = new char[MAX_LENGTH];
+		return new String(buffer, 0, format(ms, buffer, 0));
+	}
+
+	// -------------------------------------------------------------- UTILITIES
+
+	/**
+	 * Returns the absolute value of the given time in the smallest unit
+	 * displayed, rounded to the nearest tenth or second as
+	 * {@link Time#toString(boolean, Accuracy)} does.
+	 */
+	private long getUnits(long ms) {
+		return (Math.abs(ms) / 10L + unit / 2L) / unit;
+	}
+
+	/**
+	 * Returns the number of whole seconds of the given number of units.
+	 */
+	private long getSeconds(long units) {
+		return units / (100L / unit);
+	}
+
+	/**
+	 * Returns the fraction of a second of the given number of units.
+	 */
+	private long getFraction(long units) {
+		return units % (100L / unit);
+	}
+
+	/**
+	 * Writes the given positive number without leading zeros.
+	 */
+	private static int writeNumber(long value, char[] buffer, int pos) {
+		int  digits = 1;
+		long bound  = 10L;
+		while (digits < 19 && value >= bound) {
+			digits++;
+			bound *= 10L;
+		}
+		return writeDigits(value, digits, buffer, pos);
+	}
+
+	/**
+	 * Writes the given number of last digits of the given positive number,
+	 * padded with zeros.
+	 */
+	private static int writeDigits(long value, int digits, char[] buffer,
+			int pos) {
+		for (int i = pos + digits - 1; i >= pos; i--) {
+			buffer[i] = (char) ('0' + value % 10L);
+			value /= 10L;
+		}
+		return pos + digits;
+	}
+
+	/**
+	 * Appends the given number of last digits of the given positive number,
+	 * padded with zeros.
+	 */
+	private static StringBuilder appendDigits(long value, int digits,
+			StringBuilder builder) {
+		long bound = 1L;
+		for (int i = 1; i < digits; i++) {
+			bound *= 10L;
+		}
+		for (; bound > 0L; bound /= 10L) {
+			builder.append((char) ('0' + (value / bound) % 10L));
+		}
+		return builder;
+	}
+}
@@ -0,0 +1,147 @@
+package org.fenix.llanfair;
+
+import java.text.ParseException;
+
+/**
+ * Parses time stamps into numbers of milliseconds. A time stamp is formatted
+ * according to the following, surrounding whitespace being ignored:
+ *
+ * <pre>(+|-)((H:)M:)S(.F)</pre>
+ *
+ * Where H, M and S are the hours, minutes and seconds and F the fraction of
+ * a second, each made of any number of digits. Minutes and seconds must be
+ * lower than sixty when preceded by a larger field. Digits of the fraction
+ * finer than the millisecond are ignored.
+ * <p>
+ * The stamp is read in a single pass over its characters and in integer
+ * arithmetic, so that no precision is lost and large imports are not slowed
+ * down. Invalid stamps are rejected with the position of the first offending
+ * character.
+ *
+ * @author  Xavier "Xunkar" Sencert
+ */
+public final class TimeParser {
+
+	// -------------------------------------------------------------- CONSTANTS
+
+	/**
+	 * Maximum number of fields separated by colons.
+	 */
+	private static final int MAX_FIELDS = 3;
+
+	/**
+	 * Largest number of seconds whose milliseconds fit in a {@code long}.
+	 */
+	private static final long MAX_SECONDS = (Long.MAX_VALUE - 999L) / 1000L;
+
+	// ----------------------------------------------------------- CONSTRUCTORS
+
+	private TimeParser() {}
+
+	// -------------------------------------------------------------- INTERFACE
+
+	/**
+	 * Parses the given time stamp.
+	 *
+	 * @param   text    - the time stamp to parse.
+	 * @return  the number of milliseconds represented by the stamp.
+	 * @throws  ParseException if the stamp is invalid, its error offset being
+	 *          the index of the first offending character.
+	 */
+	public static long parse(CharSequence text) throws ParseException {
+		return parse(text, 0, text.length());
+	}
+
+	/**
+	 * Parses the time stamp found between the given indexes of the given text,
+	 * such as a cell of an imported line, without extracting it first.
+	 *
+	 * @param   text    - the text containing the time stamp.
+	 * @param   start   - the index of the first character of the stamp.
+	 * @param   end     - the index following the last character of the stamp.
+	 * @return  the number of milliseconds represented by the stamp.
+	 * @throws  ParseException if the stamp is invalid, its error offset being
+	 *          the index in the text of the first offending character.
+	 */
+	public static long parse(CharSequence text, int start, int end)
+			throws ParseException {
+		int pos = start;
+		while (pos < end && Character.isWhitespace(text.charAt(pos))) {
+			pos++;
+		}
+		while (end > pos && Character.isWhitespace(text.charAt(end - 1))) {
+			end--;
+		}
+		if (pos == end) {
+			throw new ParseException("Empty time stamp", pos);
+		}
+
+		boolean negative = false;
+		char    c        = text.charAt(pos);
+		if (c == '-' || c == '+') {
+			negative = (c == '-');
+			pos++;
+		}
+
+		long seconds = 0L;
+		int  fields  = 0;
+		while (true) {
+			int  fieldStart = pos;
+			long value      = 0L;
+			while (pos < end && isDigit(c = text.charAt(pos))) {
+				if (value > (MAX_SECONDS - (c - '0')) / 10L) {
+					throw new ParseException("Time stamp too large", fieldStart);
+				}
+				value = value * 10L + (c - '0');
+				pos++;
+			}
+			boolean hasDigits = (pos > fieldStart);
+			if (fields > 0 && value >= 60L) {
+				throw new ParseException("Field must be lower than 60", fieldStart);
+			}
+			if (seconds > (MAX_SECONDS - value) / 60L) {
+				throw new ParseException("Time stamp too large", fieldStart);
+			}
+			seconds = seconds * 60L + value;
+			fields++;
+
+			if (pos < end && text.charAt(pos) == ':') {
+				if (!hasDigits) {
+					throw new ParseException("Digit expected", pos);
+				}
+				if (fields == MAX_FIELDS) {
+					throw new ParseException("Too many fields", pos);
+				}
+				pos++;
+				continue;
+			}
+
+			long millis = 0L;
+			if (pos < end && text.charAt(pos) == '.') {
+				pos++;
+				int  fractionStart = pos;
+				long scale         = 100L;
+				while (pos < end && isDigit(c = text.charAt(pos))) {
+					millis += (c - '0') * scale;
+					scale  /= 10L;
+					pos++;
+				}
+				hasDigits |= (pos > fractionStart);
+			}
+			if (!hasDigits) {
+				throw new ParseException("Digit expected", pos);
+			}
+			if (pos < end) {
+				throw new ParseException("Unexpected character", pos);
+			}
+			long ms = seconds * 1000L + millis;
+			return negative ? -ms : ms;
+		}
+	}
+
+	// -------------------------------------------------------------- UTILITIES
+
+	private static boolean isDigit(char c) {
+		return c >= '0' && c <= '9';
+	}
+}
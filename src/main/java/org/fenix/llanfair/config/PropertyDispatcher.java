@@ -0,0 +1,128 @@
+package org.fenix.llanfair.config;
+
+import org.fenix.utils.config.CompositePropertyChangeEvent;
+
+import java.beans.PropertyChangeEvent;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Routes property change events to the handlers registered for their
+ * property. Components register a handler per group of properties they
+ * react to, either settings or run properties, instead of comparing the name
+ * of every event they receive against each of them. Finding the handlers of an
+ * event is a single map lookup, whatever the number of properties.
+ * <p>
+ * The changes of a settings transaction are received in a single composite
+ * event. A handler registered for several of these changes is then only
+ * called once, with the first of them.
+ *
+ * @author  Xavier "Xunkar" Sencert
+ */
+public class PropertyDispatcher {
+
+	// ---------------------------------------------------------- INTERNAL TYPE
+
+	/**
+	 * Reaction to the update of one or more properties.
+	 */
+	public interface Handler {
+
+		/**
+		 * Called when one of the properties this handler was registered for
+		 * has been updated.
+		 *
+		 * @param   event   - the event describing the update.
+		 */
+		void propertyChanged(PropertyChangeEvent event);
+	}
+
+	// ------------------------------------------------------------- ATTRIBUTES
+
+	private final Map<String, List<Handler>> handlers;
+
+	// ----------------------------------------------------------- CONSTRUCTORS
+
+	/**
+	 * Creates a dispatcher without any handler.
+	 */
+	public PropertyDispatcher() {
+		handlers = new HashMap<>();
+	}
+
+	// -------------------------------------------------------------- INTERFACE
+
+	/**
+	 * Registers a handler for the given settings.
+	 *
+	 * @param   handler     - the handler to call on update.
+	 * @param   properties  - the settings whose update triggers the handler.
+	 */
+	public void on(Handler handler, Settings.Property<?>... properties) {
+		for (Settings.Property<?> property : properties) {
+			register(property.getKey(), handler);
+		}
+	}
+
+	/**
+	 * Registers a handler for the given properties, typically those fired by
+	 * the run.
+	 *
+	 * @param   handler     - the handler to call on update.
+	 * @param   properties  - the names of the properties whose update triggers
+	 *                        the handler.
+	 */
+	public void on(Handler handler, String... properties) {
+		for (String property : properties) {
+			register(property, handler);
+		}
+	}
+
+	/**
+	 * Calls the handlers registered for the property described by the given
+	 * event. Each change of a composite event is dispatched in turn, calling
+	 * every handler at most once.
+	 *
+	 * @param   event   - the event describing the update.
+	 */
+	public void dispatch(PropertyChangeEvent event) {
+		if (event instanceof CompositePropertyChangeEvent) {
+			Map<Handler, Boolean> called = new IdentityHashMap<>();
+			for (PropertyChangeEvent change
+					: ((CompositePropertyChangeEvent) event).getChanges()) {
+				List<Handler> list = handlers.get(change.getPropertyName());
+				if (list != null) {
+					for (Handler handler : list) {
+						if (called.put(handler, Boolean.TRUE) == null) {
+							handler.propertyChanged(change);
+						}
+					}
+				}
+			}
+		} else {
+			List<Handler> list = handlers.get(event.getPropertyName());
+			if (list != null) {
+				for (Handler handler : list) {
+					handler.propertyChanged(event);
+				}
+			}
+		}
+	}
+
+	// -------------------------------------------------------------- UTILITIES
+
+	private void register(String property, Handler handler) {
+		if (property == null || handler == null) {
+			throw new NullPointerException("Null property or handler");
+		}
+		List<Handler> list = handlers.get(property);
+		if (list == null) {
+			list = new ArrayList<>(1);
+			handlers.put(property, list);
+		}
+		list.add(handler);
+	}
+}
@@ -36,6 +36,7 @@ public class Settings {
 	public static final Property<Point> coordinates = new Property<>( "coordinates" );
 	public static final Property<Dimension> dimension = new Property<>( "dimension" );
 	public static final Property<Compare> compareMethod = new Property<>( "compareMethod" );
+	public static final Property<TimingMethod> timingMethod = new Property<>( "timingMethod" );
 	public static final Property<Accuracy> accuracy = new Property<>( "accuracy" );
 	public static final Property<Boolean> warnOnReset = new Property<>( "warnOnReset" );
 	public static final Property<Boolean> windowUserResizable = new Property<>( "windowUserResizable" );
@@ -69,6 +70,7 @@ public class Settings {
 	public static final Property<Integer> hotkeyReset = new Property<>( "hotkey.reset" );
 	public static final Property<Integer> hotkeyStop = new Property<>( "hotkey.stop" );
 	public static final Property<Integer> hotkeyPause = new Property<>( "hotkey.pause" );
+	public static final Property<Integer> hotkeyGamePause = new Property<>( "hotkey.gamePause" );
 	public static final Property<Integer> hotkeyLock = new Property<>( "hotkey.lock" );
 
 	/* HEADER properties */
@@ -126,9 +128,39 @@ public class Settings {
 	public static final Property<Boolean> footerShowSumOfBest = new Property<>( "footer.sumOfBest" );
 	public static final Property<Boolean> footerShowWorldRecord = new Property<>("footer.worldRecord");
 
+	/* OVERLAY properties */
+
+	public static final Property<Boolean> overlayEnabled = new Property<>( "overlay.enabled" );
+	public static final Property<Integer> overlayFrameRate = new Property<>( "overlay.frameRate" );
+	public static final Property<String> overlayFile = new Property<>( "overlay.file" );
+	public static final Property<Boolean> overlayPngSequence = new Property<>( "overlay.pngSequence" );
+
+	/* REMOTE properties */
+
+	public static final Property<Boolean> remoteEnabled = new Property<>( "remote.enabled" );
+	public static final Property<String> remoteAddress = new Property<>( "remote.address" );
+	public static final Property<Integer> remotePort = new Property<>( "remote.port" );
+
+	/* STREAM properties */
+
+	public static final Property<Boolean> streamEnabled = new Property<>( "stream.enabled" );
+	public static final Property<String> streamAddress = new Property<>( "stream.address" );
+	public static final Property<Integer> streamPort = new Property<>( "stream.port" );
+
+	/* INPUT properties */
+
+	public static final Property<Boolean> inputEnabled = new Property<>( "input.enabled" );
+	public static final Property<String> inputSource = new Property<>( "input.source" );
+
 	private static Configuration global = null;
 	private static Run run = null;
 
+	/**
+	 * Run whose local configuration takes part in the current transaction.
+	 */
+	private static Run transactionRun = null;
+	private static int transactionDepth = 0;
+
 	/**
 	 * Sets the currently opened run. The run will be asked for its local
 	 * configuration first when retrieving a property. If the run does not have
@@ -180,6 +212,45 @@ public class Settings {
 		}
 	}
 
+	/**
+	 * Starts a transaction on both the global and the local configuration.
+	 * Until it is committed, listeners are not warned of each update but of
+	 * all of them at once, through a {@code CompositePropertyChangeEvent}.
+	 * Transactions can be nested, every call must be matched by a call to
+	 * {@code commitTransaction}.
+	 */
+	public static void beginTransaction() {
+		if ( global == null ) {
+			retrieve();
+		}
+		if ( transactionDepth++ == 0 ) {
+			transactionRun = run;
+		}
+		global.beginTransaction();
+		if ( transactionRun != null ) {
+			transactionRun.beginSettingTransaction();
+		}
+	}
+
+	/**
+	 * Ends the current transaction. Once the outermost transaction is
+	 * committed, listeners receive one event for the global configuration and
+	 * one for the local configuration, listing every property updated.
+	 */
+	public static void commitTransaction() {
+		if ( transactionDepth == 0 ) {
+			throw new IllegalStateException( "No transaction" );
+		}
+		Run local = transactionRun;
+		if ( --transactionDepth == 0 ) {
+			transactionRun = null;
+		}
+		global.commitTransaction();
+		if ( local != null ) {
+			local.commitSettingTransaction();
+		}
+	}
+
 	/**
 	 * Saves the global configuration in {@code llanfair.xml} in the working
 	 * directory. If such a file does not exist, it is created.
@@ -221,6 +292,7 @@ public class Settings {
 		setDefault( coordinates.key, null, force );
 		setDefault( dimension.key, null, force );
 		setDefault( compareMethod.key, Compare.BEST_OVERALL_RUN, force );
+		setDefault( timingMethod.key, TimingMethod.REAL_TIME, force );
 		setDefault( accuracy.key, Accuracy.TENTH, force );
 		setDefault( warnOnReset.key, true, force );
 		setDefault( windowUserResizable.key, true, force );
@@ -250,6 +322,7 @@ public class Settings {
 		setDefault( hotkeyReset.key, -1, force );
 		setDefault( hotkeyStop.key, -1, force );
 		setDefault( hotkeyPause.key, -1, force );
+		setDefault( hotkeyGamePause.key, -1, force );
 		setDefault( hotkeyLock.key, -1, force );
 
 		setDefault( headerShowSubtitle.key, true, force );
@@ -296,6 +369,22 @@ public class Settings {
 		setDefault( footerShowDeltaLabels.key, true, force );
 		setDefault( footerShowSumOfBest.key, false, force );
 		setDefault( footerShowWorldRecord.key, true, force);
+
+		setDefault( overlayEnabled.key, false, force );
+		setDefault( overlayFrameRate.key, 30, force );
+		setDefault( overlayFile.key, null, force );
+		setDefault( overlayPngSequence.key, false, force );
+
+		setDefault( remoteEnabled.key, false, force );
+		setDefault( remoteAddress.key, "127.0.0.1", force );
+		setDefault( remotePort.key, 16834, force );
+
+		setDefault( streamEnabled.key, false, force );
+		setDefault( streamAddress.key, "127.0.0.1", force );
+		setDefault( streamPort.key, 16835, force );
+
+		setDefault( inputEnabled.key, false, force );
+		setDefault( inputSource.key, "-", force );
 	}
 
 	/**
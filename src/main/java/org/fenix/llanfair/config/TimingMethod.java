@@ -0,0 +1,24 @@
+package org.fenix.llanfair.config;
+
+import org.fenix.llanfair.Language;
+
+import java.io.Serializable;
+
+/**
+ * Timelines on which segments are timed. Real time runs from the start to
+ * the end of the run, while game time leaves out the periods during which
+ * the game time was paused, such as loading screens.
+ *
+ * @author  Xavier "Xunkar" Sencert
+ */
+public enum TimingMethod implements Serializable {
+
+	REAL_TIME,
+	GAME_TIME;
+
+	private static final long serialVersionUID = 1000L;
+
+	@Override public String toString() {
+		return Language.valueOf("timing_" + name().toLowerCase()).get();
+	}
+}
@@ -2,6 +2,7 @@ package org.fenix.llanfair.dialog;
 
 import org.fenix.llanfair.*;
 import org.fenix.llanfair.config.Accuracy;
+import org.fenix.utils.IconLoader;
 import org.fenix.utils.gui.GBC;
 
 import org.fenix.WorldRecord.*;
@@ -12,7 +13,15 @@ import javax.swing.event.ListSelectionListener;
 import javax.swing.filechooser.FileNameExtensionFilter;
 import javax.swing.table.*;
 import java.awt.*;
+import java.awt.datatransfer.DataFlavor;
+import java.awt.datatransfer.UnsupportedFlavorException;
 import java.awt.event.*;
+import java.io.File;
+import java.io.IOException;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
 
 /**
  * Boîte de dialogue permettant l’édition d’une course. {@code EditDialog}
@@ -178,15 +187,11 @@ implements ActionListener, ListSelectionListener {
 		selectRecord   = new JButton("Select record");
 		recordCategory = run.getRecordCategory();
 
-		if(!recordCategory.getId().equals("")) {
-			try {
-				recordString = new JLabel(WorldRecordParser.getRecord(recordCategory));
-			} catch(Exception e) {
-				this.master.showError("Error displaying selected world record information.", e);
-			}
-		}
-		else {
-			recordString = new JLabel();
+		recordString   = new JLabel();
+		if (run.getWorldRecord() != null) {
+			recordString.setText(run.getRecordString());
+		} else if(!recordCategory.getId().equals("")) {
+			fetchRecordString();
 		}
 
 		placeComponents();
@@ -272,6 +277,37 @@ implements ActionListener, ListSelectionListener {
 		segments.putClientProperty("terminateEditOnFocusLost", Boolean.TRUE);
 		segments.getSelectionModel().addListSelectionListener(this);
 
+		// Coller des segments depuis le presse-papiers plutôt que des cellules.
+		segments.getActionMap().put("paste", new AbstractAction() {
+			@Override public void actionPerformed(ActionEvent event) {
+				pasteSegments();
+			}
+		});
+
+		// Annuler et rétablir les modifications de la table. Le remplaçant de
+		// getMenuShortcutKeyMask n’existe qu’à partir de Java 10.
+		@SuppressWarnings("deprecation")
+		int      mask   = Toolkit.getDefaultToolkit().getMenuShortcutKeyMask();
+		InputMap inputs = segments.getInputMap(JComponent.WHEN_FOCUSED);
+		inputs.put(KeyStroke.getKeyStroke(KeyEvent.VK_Z, mask), "undo");
+		inputs.put(KeyStroke.getKeyStroke(KeyEvent.VK_Y, mask), "redo");
+		inputs.put(KeyStroke.getKeyStroke(KeyEvent.VK_Z,
+				mask | InputEvent.SHIFT_DOWN_MASK), "redo");
+		segments.getActionMap().put("undo", new AbstractAction() {
+			@Override public void actionPerformed(ActionEvent event) {
+				if (!segments.isEditing() && run.undo()) {
+					clearSelection();
+				}
+			}
+		});
+		segments.getActionMap().put("redo", new AbstractAction() {
+			@Override public void actionPerformed(ActionEvent event) {
+				if (!segments.isEditing() && run.redo()) {
+					clearSelection();
+				}
+			}
+		});
+
 		addSegment.setToolTipText("" + Language.TT_ADD_SEGMENT);
 		remSegment.setToolTipText("" + Language.TT_REMOVE_SEGMENT);
 		moveDown.setToolTipText("" + Language.TT_MOVE_SEGMENT_DOWN);
@@ -336,6 +372,7 @@ implements ActionListener, ListSelectionListener {
 			run.setDelayedStart(delayedStart == -1 ? 0 : delayedStart);
 
 			run.setRecordCategory(recordCategory);
+			run.discardBackup();
 
 			dispose();
 
@@ -370,6 +407,16 @@ implements ActionListener, ListSelectionListener {
 		}
 	}
 
+	/**
+	 * Vide la sélection de la table, dont les lignes peuvent ne plus désigner
+	 * les mêmes segments après l’annulation ou le rétablissement d’une
+	 * modification.
+	 */
+	private void clearSelection() {
+		segments.clearSelection();
+		updateButtons();
+	}
+
 	private void updateButtons() {
 		int     selected = segments.getSelectedRow();
 		boolean enabled  = (selected >= 0);
@@ -378,6 +425,108 @@ implements ActionListener, ListSelectionListener {
 		moveDown.setEnabled(enabled && selected < run.getRowCount() - 1);
 	}
 
+	/**
+	 * Ajoute à la fin de la course les segments copiés dans le presse-papiers,
+	 * par exemple depuis un tableur. Chaque ligne décrit un segment dont les
+	 * colonnes, séparées par des tabulations, suivent celles de la table : nom,
+	 * temps de course, temps de segment et meilleur temps. Seul le nom est
+	 * requis. Les segments sont ajoutés en une seule mise à jour de la course,
+	 * et rien n’est ajouté si l’un des temps est invalide.
+	 */
+	private void pasteSegments() {
+		String text;
+		try {
+			text = (String) Toolkit.getDefaultToolkit().getSystemClipboard()
+					.getData(DataFlavor.stringFlavor);
+		} catch (UnsupportedFlavorException e) {
+			return;
+		} catch (IOException e) {
+			return;
+		} catch (IllegalStateException e) {
+			return;
+		}
+		List<Segment> pasted       = new ArrayList<Segment>();
+		List<Time>    splitTimes   = new ArrayList<Time>();
+		List<Time>    segmentTimes = new ArrayList<Time>();
+		List<Time>    bestTimes    = new ArrayList<Time>();
+		try {
+			for (String line : text.split("\r?\n")) {
+				if (line.trim().isEmpty()) {
+					continue;
+				}
+				String[] cells = line.split("\t");
+				pasted.add(new Segment(cells[0].trim()));
+				splitTimes.add(parseCell(cells, 1));
+				segmentTimes.add(parseCell(cells, 2));
+				bestTimes.add(parseCell(cells, 3));
+			}
+		} catch (IllegalArgumentException e) {
+			master.showError(e.getMessage());
+			return;
+		}
+		if (pasted.isEmpty()) {
+			return;
+		}
+		int first = run.getRowCount();
+		run.beginUpdate();
+		try {
+			run.addSegments(pasted);
+			run.setTimes(Run.COLUMN_TIME, first, splitTimes);
+			run.setTimes(Run.COLUMN_SEGMENT, first, segmentTimes);
+			run.setTimes(Run.COLUMN_BEST, first, bestTimes);
+		} catch (IllegalArgumentException e) {
+			// Rien ne doit rester des segments à moitié collés
+			run.revertUpdate();
+			master.showError(e.getMessage());
+		} finally {
+			run.endUpdate();
+		}
+		Rectangle rect = segments.getCellRect(run.getRowCount() - 1, 0, true);
+		segments.scrollRectToVisible(rect);
+		updateButtons();
+	}
+
+	/**
+	 * Retourne le temps décrit par la cellule d’indice donné d’une ligne
+	 * collée, ou {@code null} si elle est absente ou vide.
+	 *
+	 * @param   cells   - les cellules de la ligne.
+	 * @param   index   - l’indice de la cellule.
+	 * @return  le temps de la cellule ou {@code null}.
+	 */
+	private static Time parseCell(String[] cells, int index) {
+		if (index >= cells.length || cells[index].trim().isEmpty()) {
+			return null;
+		}
+		return new Time(cells[index].trim());
+	}
+
+	/**
+	 * Récupère en tâche de fond la description du record du monde de la
+	 * catégorie sélectionnée, afin de ne pas bloquer l’ouverture de la boîte.
+	 */
+	private void fetchRecordString() {
+		final Category category = recordCategory;
+		new SwingWorker<String, Void>() {
+			@Override protected String doInBackground() throws Exception {
+				return WorldRecordParser.getRecord(category);
+			}
+
+			@Override protected void done() {
+				if (category != recordCategory) {
+					return;
+				}
+				try {
+					recordString.setText(get());
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				} catch (ExecutionException e) {
+					master.showError("Error displaying selected world record information.", e.getCause());
+				}
+			}
+		}.execute();
+	}
+
 	public void recordSet() {
 		this.recordCategory = recordSelector.getCategory();
 		this.recordString.setText(recordSelector.getRecordString());
@@ -478,7 +627,8 @@ implements ActionListener, ListSelectionListener {
 		/**
 		 * Arrête l’édition de la cellule. Le délégué récupère ici les exceptions
 		 * levées et les remonte à l’utilisateur. Tant que l’édition est en erreur
-		 * l’édition persiste.
+		 * l’édition persiste, le curseur étant placé sur le premier caractère
+		 * invalide.
 		 *
 		 * @return  {@code true} si l’édition s’est arrêtée.
 		 */
@@ -487,6 +637,11 @@ implements ActionListener, ListSelectionListener {
 				return super.stopCellEditing();
 			} catch (Exception e) {
 				master.showError(e.getMessage());
+				if (e.getCause() instanceof ParseException) {
+					int offset = ((ParseException) e.getCause()).getErrorOffset();
+					editor.setCaretPosition(
+							Math.min(offset, editor.getText().length()));
+				}
 				return false;
 			}
 		}
@@ -520,6 +675,16 @@ implements ActionListener, ListSelectionListener {
 
 		private Window owner;
 
+		/**
+		 * Icône de la cellule en cours d’édition.
+		 */
+		private Object icon;
+
+		/**
+		 * Indice de ligne de la cellule en cours d’édition.
+		 */
+		private int row;
+
 		/**
 		 * Création d’un éditeur par défaut.
 		 */
@@ -540,28 +705,56 @@ implements ActionListener, ListSelectionListener {
 		 */
 		public Component getTableCellEditorComponent(JTable table, Object value,
 				boolean isSelected, int row, int column) {
+			this.icon = value;
+			this.row  = row;
 			return editor;
 		}
 
 		/**
-		 * Retourne la valeur stockée par l’éditeur à savoir le fichier
-		 * sélectionner par l’utilisateur s’il y en a un.
+		 * Retourne la valeur stockée par l’éditeur, à savoir l’icône de la
+		 * cellule, l’icône choisie par l’utilisateur n’étant affectée qu’une
+		 * fois chargée.
 		 */
 		public Object getCellEditorValue() {
-			if (chooser.getSelectedFile() == null) {
-				return null;
-			}
-			return new ImageIcon(chooser.getSelectedFile().getPath());
+			return icon;
 		}
 
 		/**
 		 * Lors du clic de l’utilisateur sur le bouton, on affiche le
 		 * gestionnaire de sélection de fichier puis l’on force la fin de
-		 * l’édition lorsque celui-ci retourne.
+		 * l’édition lorsque celui-ci retourne. Sans fichier sélectionné,
+		 * l’icône est retirée. Sinon l’image est chargée en tâche de fond et
+		 * affectée au segment une fois prête, sans bloquer l’interface.
 		 */
 		@Override public void actionPerformed(ActionEvent e) {
 			chooser.showOpenDialog(owner);
-			fireEditingStopped();
+			final File file = chooser.getSelectedFile();
+			if (file == null) {
+				icon = null;
+				fireEditingStopped();
+				return;
+			}
+			fireEditingCanceled();
+			// Les lignes ont pu bouger pendant le chargement, on retient donc
+			// le segment et non sa ligne.
+			final Segment segment = run.getSegment(row);
+			IconLoader.load(file, Segment.ICON_MAX_SIZE,
+					new IconLoader.Listener() {
+				@Override public void iconLoaded(ImageIcon loaded) {
+					if (!isDisplayable()) {
+						return;
+					}
+					if (loaded == null) {
+						master.showError(
+								Language.error_read_icon.get(file.getName()));
+						return;
+					}
+					int index = run.indexOf(segment);
+					if (index >= 0) {
+						run.setValueAt(loaded, index, Run.COLUMN_ICON);
+					}
+				}
+			});
 		}
 
 	}
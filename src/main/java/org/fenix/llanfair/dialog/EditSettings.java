@@ -2,6 +2,7 @@ package org.fenix.llanfair.dialog;
 
 import org.fenix.llanfair.Language;
 import org.fenix.llanfair.Llanfair;
+import org.fenix.llanfair.config.Settings;
 import org.fenix.utils.gui.GBC;
 import org.fenix.utils.locale.LocaleDelegate;
 import org.fenix.utils.locale.LocaleEvent;
@@ -53,6 +54,7 @@ public class EditSettings extends LlanfairDialog
 		settingsTabs.add(new TabHotkeys());
 		settingsTabs.add(new TabHistory());
 		settingsTabs.add(new TabComponents());
+		settingsTabs.add(new TabConnections());
 
 		this.setDefaultCloseOperation(WindowConstants.DO_NOTHING_ON_CLOSE);
 		createResources();
@@ -124,9 +126,7 @@ public class EditSettings extends LlanfairDialog
 		Object source = e.getSource();
 		if (source.equals(actionOK)) {
 			try {
-				for (SettingsTab tab : settingsTabs) {
-					tab.doDelayedSettingChange();
-				}
+				applySettings();
 				dispose();
 			} catch (InvalidSettingException ex) {
 				ex.tab.requestFocusInWindow();
@@ -144,6 +144,23 @@ public class EditSettings extends LlanfairDialog
 
 	}
 
+	/**
+	 * Applique les réglages différés de chaque onglet au sein d’une même
+	 * transaction, afin que l’application ne se mette à jour qu’une fois.
+	 *
+	 * @throws  InvalidSettingException si un onglet contient un réglage invalide.
+	 */
+	private void applySettings() throws InvalidSettingException {
+		Settings.beginTransaction();
+		try {
+			for (SettingsTab tab : settingsTabs) {
+				tab.doDelayedSettingChange();
+			}
+		} finally {
+			Settings.commitTransaction();
+		}
+	}
+
 	@Override public void windowActivated(WindowEvent e) {}
 	@Override public void windowClosed(WindowEvent e) {}
 	@Override public void windowDeactivated(WindowEvent e) {}
@@ -153,9 +170,7 @@ public class EditSettings extends LlanfairDialog
 
 	@Override public void windowClosing(WindowEvent e) {
 		try {
-			for (SettingsTab tab : settingsTabs) {
-				tab.doDelayedSettingChange();
-			}
+			applySettings();
 			dispose();
 		} catch (InvalidSettingException ex) {
 			ex.tab.grabFocus();
@@ -0,0 +1,159 @@
+package org.fenix.llanfair.dialog;
+
+import org.fenix.llanfair.Language;
+import org.fenix.llanfair.config.Settings;
+import org.fenix.utils.gui.GBC;
+
+import javax.swing.*;
+import java.awt.*;
+
+/**
+ * Settings tab of the connections letting other programs follow or drive the
+ * timer. Settings are applied together when the dialog is accepted, so that
+ * a server is only restarted once with its new address and port.
+ *
+ * @author  Xavier "Xunkar" Sencert
+ */
+class TabConnections extends SettingsTab {
+
+	// -------------------------------------------------------------- CONSTANTS
+
+	private static final long serialVersionUID = 1000L;
+
+	/**
+	 * Largest valid port number.
+	 */
+	private static final int MAX_PORT = 65535;
+
+	// ------------------------------------------------------------- ATTRIBUTES
+
+	private JCheckBox remoteEnabled;
+
+	private JTextField remoteAddress;
+
+	private JTextField remotePort;
+
+	private JCheckBox streamEnabled;
+
+	private JTextField streamAddress;
+
+	private JTextField streamPort;
+
+	private JCheckBox inputEnabled;
+
+	/**
+	 * Path of the pipe or file from which commands are read, {@code -} for
+	 * the standard input.
+	 */
+	private JTextField inputSource;
+
+	// ----------------------------------------------------------- CONSTRUCTORS
+
+	/**
+	 * Creates the "Connections" settings tab. Only called by
+	 * {@link EditSettings}.
+	 */
+	TabConnections() {
+		remoteEnabled = new JCheckBox("" + Settings.remoteEnabled);
+		remoteEnabled.setSelected(Settings.remoteEnabled.get());
+		remoteAddress = new JTextField(Settings.remoteAddress.get(), 12);
+		remotePort    = new JTextField("" + Settings.remotePort.get(), 5);
+
+		streamEnabled = new JCheckBox("" + Settings.streamEnabled);
+		streamEnabled.setSelected(Settings.streamEnabled.get());
+		streamAddress = new JTextField(Settings.streamAddress.get(), 12);
+		streamPort    = new JTextField("" + Settings.streamPort.get(), 5);
+
+		inputEnabled = new JCheckBox("" + Settings.inputEnabled);
+		inputEnabled.setSelected(Settings.inputEnabled.get());
+		inputSource  = new JTextField(Settings.inputSource.get(), 20);
+
+		place();
+	}
+
+	// -------------------------------------------------------------- INHERITED
+
+	@Override void doDelayedSettingChange() throws InvalidSettingException {
+		int remote = parsePort(remotePort, Language.setting_remote_port);
+		int stream = parsePort(streamPort, Language.setting_stream_port);
+
+		Settings.remoteAddress.set(remoteAddress.getText().trim());
+		Settings.remotePort.set(remote);
+		Settings.remoteEnabled.set(remoteEnabled.isSelected());
+
+		Settings.streamAddress.set(streamAddress.getText().trim());
+		Settings.streamPort.set(stream);
+		Settings.streamEnabled.set(streamEnabled.isSelected());
+
+		Settings.inputSource.set(inputSource.getText().trim());
+		Settings.inputEnabled.set(inputEnabled.isSelected());
+	}
+
+	/**
+	 * Returns the localized name of this tab.
+	 */
+	@Override public String toString() {
+		return "" + Language.CONNECTIONS;
+	}
+
+	// -------------------------------------------------------------- UTILITIES
+
+	/**
+	 * Places all sub-components within this panel.
+	 */
+	private void place() {
+		setLayout(new GridBagLayout());
+
+		int row = 0;
+		row = placeServer(remoteEnabled, Language.setting_remote_address,
+				remoteAddress, Language.setting_remote_port, remotePort, row);
+		row = placeServer(streamEnabled, Language.setting_stream_address,
+				streamAddress, Language.setting_stream_port, streamPort, row);
+
+		add(inputEnabled, GBC.grid(0, row, 2, 1).anchor(GBC.LINE_START)
+				.insets(10, 10, 0, 0));
+		add(new JLabel("" + Language.setting_input_source),
+				GBC.grid(0, row + 1).anchor(GBC.LINE_END).insets(5, 10));
+		add(inputSource, GBC.grid(1, row + 1).anchor(GBC.LINE_START)
+				.insets(0, 0, 10, 10));
+	}
+
+	/**
+	 * Places the fields of a server from the given row and returns the row
+	 * following them.
+	 */
+	private int placeServer(JCheckBox enabled, Language addressText,
+			JTextField address, Language portText, JTextField port, int row) {
+		add(enabled, GBC.grid(0, row, 2, 1).anchor(GBC.LINE_START)
+				.insets(10, 10, 0, 0));
+		add(new JLabel("" + addressText),
+				GBC.grid(0, row + 1).anchor(GBC.LINE_END).insets(5, 10));
+		add(address, GBC.grid(1, row + 1).anchor(GBC.LINE_START));
+		add(new JLabel("" + portText),
+				GBC.grid(0, row + 2).anchor(GBC.LINE_END).insets(5, 10));
+		add(port, GBC.grid(1, row + 2).anchor(GBC.LINE_START));
+		return row + 3;
+	}
+
+	/**
+	 * Returns the port typed in the given field.
+	 *
+	 * @param   field   - the field containing the port.
+	 * @param   name    - the name of the port setting, for the error message.
+	 * @throws  InvalidSettingException if the field is not a valid port.
+	 */
+	private int parsePort(JTextField field, Language name)
+			throws InvalidSettingException {
+		int port;
+		try {
+			port = Integer.parseInt(field.getText().trim());
+		} catch (NumberFormatException ex) {
+			port = -1;
+		}
+		if (port < 0 || port > MAX_PORT) {
+			throw new InvalidSettingException(this, field,
+					Language.error_port.get(name));
+		}
+		return port;
+	}
+}
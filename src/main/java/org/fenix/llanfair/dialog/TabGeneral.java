@@ -5,6 +5,7 @@ import org.fenix.llanfair.Llanfair;
 import org.fenix.llanfair.config.Accuracy;
 import org.fenix.llanfair.config.Compare;
 import org.fenix.llanfair.config.Settings;
+import org.fenix.llanfair.config.TimingMethod;
 import org.fenix.utils.UserSettings;
 import org.fenix.utils.gui.GBC;
 
@@ -42,6 +43,10 @@ public class TabGeneral extends SettingsTab implements ActionListener {
 
 	private JLabel compareText;
 
+	private ButtonGroup timing;
+
+	private JLabel timingText;
+
 	private ButtonGroup accuracy;
 
 	private JLabel accuracyText;
@@ -97,6 +102,16 @@ public class TabGeneral extends SettingsTab implements ActionListener {
 			compare.add(radio);
 		}
 
+		timing = new ButtonGroup();
+		TimingMethod setTiming = Settings.timingMethod.get();
+		for (TimingMethod method : TimingMethod.values()) {
+			JRadioButton radio = new JRadioButton("" + method);
+			radio.setName(method.name());
+			radio.setSelected(setTiming == method);
+			radio.addActionListener(this);
+			timing.add(radio);
+		}
+
 		accuracy        = new ButtonGroup();
 		Accuracy setAcc = Settings.accuracy.get();
 		for (Accuracy value : Accuracy.values()) {
@@ -133,6 +148,7 @@ public class TabGeneral extends SettingsTab implements ActionListener {
 		languageText    = new JLabel("" + Language.setting_language);
 		alwaysOnTopText = new JLabel("" + Language.APPLICATION);
 		compareText     = new JLabel("" + Language.COMPARE_METHOD);
+		timingText      = new JLabel("" + Language.TIMING_METHOD);
 		accuracyText    = new JLabel("" + Language.ACCURACY);
 
 		place();
@@ -146,12 +162,18 @@ public class TabGeneral extends SettingsTab implements ActionListener {
 			Settings.language.set((Locale) language.getSelectedItem());
 		} else if (source instanceof JRadioButton) {
 			JRadioButton radio = (JRadioButton) source;
-			try {
-				Settings.compareMethod.set(
-						Compare.valueOf(radio.getName())
+			if (isInGroup(radio, timing)) {
+				Settings.timingMethod.set(
+						TimingMethod.valueOf(radio.getName())
 				);
-			} catch (Exception e) {
-				Settings.accuracy.set(Accuracy.valueOf(radio.getName()));
+			} else {
+				try {
+					Settings.compareMethod.set(
+							Compare.valueOf(radio.getName())
+					);
+				} catch (Exception e) {
+					Settings.accuracy.set(Accuracy.valueOf(radio.getName()));
+				}
 			}
 		} else if (source.equals(warnOnReset)) {
 			Settings.warnOnReset.set(warnOnReset.isSelected());
@@ -274,16 +296,38 @@ public class TabGeneral extends SettingsTab implements ActionListener {
 		add(accuracyText, GBC.grid(0, 4).anchor(GBC.FIRST_LINE_END).insets(14, 10));
 		add(accuracyPanel, GBC.grid(1, 4).fill(GBC.HORIZONTAL).insets(10, 0));
 
-		add(windowSizeLabel, GBC.grid(0, 5).anchor(GBC.LINE_END).insets(5, 10));
-		add(windowUserResizable, GBC.grid(1, 5).anchor(GBC.LINE_START));
+		JPanel timingPanel = new JPanel(new GridLayout(0, 1)); {
+			Enumeration<AbstractButton> buttons = timing.getElements();
+			while (buttons.hasMoreElements()) {
+				timingPanel.add(buttons.nextElement());
+			}
+		}
+		add(timingText, GBC.grid(0, 5).anchor(GBC.FIRST_LINE_END).insets(14, 10));
+		add(timingPanel, GBC.grid(1, 5).fill(GBC.HORIZONTAL).insets(10, 0));
+
+		add(windowSizeLabel, GBC.grid(0, 6).anchor(GBC.LINE_END).insets(5, 10));
+		add(windowUserResizable, GBC.grid(1, 6).anchor(GBC.LINE_START));
 		JPanel windowSizeContainer = new JPanel();
 		windowSizeContainer.add(windowSize);
 		windowSizeContainer.add(windowSizeUnitsText);
-		add(windowSizeContainer, GBC.grid(1, 6).anchor(GBC.LINE_START));
+		add(windowSizeContainer, GBC.grid(1, 7).anchor(GBC.LINE_START));
 
-		add(maxRecentFilesLabel, GBC.grid(0, 7).anchor(GBC.LINE_END).insets(5, 10));
-		add(maxRecentFiles, GBC.grid(1, 7).anchor(GBC.LINE_START).insets(0, 5));
+		add(maxRecentFilesLabel, GBC.grid(0, 8).anchor(GBC.LINE_END).insets(5, 10));
+		add(maxRecentFiles, GBC.grid(1, 8).anchor(GBC.LINE_START).insets(0, 5));
+
+	}
 
+	/**
+	 * Returns wether the given button belongs to the given group.
+	 */
+	private static boolean isInGroup(AbstractButton button, ButtonGroup group) {
+		Enumeration<AbstractButton> buttons = group.getElements();
+		while (buttons.hasMoreElements()) {
+			if (buttons.nextElement() == button) {
+				return true;
+			}
+		}
+		return false;
 	}
 
 	// --------------------------------------------------------- INTERNAL TYPES
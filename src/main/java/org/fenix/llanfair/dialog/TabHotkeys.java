@@ -14,6 +14,10 @@ import java.util.ArrayList;
 import java.util.List;
 
 /**
+ * Settings tab letting the user bind the hotkeys. A row is created for every
+ * setting whose key starts with {@code hotkey}, in the order they are declared
+ * in {@link Settings}, so a new hotkey such as the game time pause only needs
+ * its setting and its label.
  *
  * @author  Xavier "Xunkar" Sencert
  */
@@ -0,0 +1,287 @@
+package org.fenix.llanfair.extern;
+
+import org.fenix.llanfair.Command;
+import org.fenix.llanfair.Llanfair;
+
+import javax.swing.*;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Reads timer commands written as text by another program, such as an
+ * auto-splitter script. Commands are read one per line, among those accepted
+ * by the remote control server, optionally followed by the moment the event
+ * happened in milliseconds since the epoch:
+ * <pre>
+ * split 1528130512345
+ * </pre>
+ * Commands can be read from the standard input, a named pipe or a regular
+ * file, whose new lines are followed as they are appended. A named pipe is
+ * reopened whenever its writer closes it, so scripts can be restarted freely.
+ * <p>
+ * Commands are read on a dedicated thread and timestamped there, either with
+ * the moment given on the line or the moment it was read. Only then are they
+ * handed to the event dispatch thread, which owns the run and its views, so
+ * the hop adds no time to the splits.
+ *
+ * @author  Xavier "Xunkar" Sencert
+ */
+public class CommandReader {
+
+	// -------------------------------------------------------------- CONSTANTS
+
+	/**
+	 * Source designating the standard input.
+	 */
+	public static final String STDIN = "-";
+
+	/**
+	 * Maximum length of a command line. Longer lines are ignored.
+	 */
+	private static final int MAX_LINE_LENGTH = 256;
+
+	/**
+	 * Milliseconds to wait before looking for new lines at the end of a
+	 * followed file.
+	 */
+	private static final long POLL_INTERVAL = 10L;
+
+	// ------------------------------------------------------------- ATTRIBUTES
+
+	private Llanfair master;
+
+	/**
+	 * Source and thread of the current start, {@code null} when stopped.
+	 */
+	private volatile Session session;
+
+	// ----------------------------------------------------------- CONSTRUCTORS
+
+	/**
+	 * Creates a stopped reader driving the given application.
+	 *
+	 * @param   master  - the application to which commands are given.
+	 */
+	public CommandReader(Llanfair master) {
+		if (master == null) {
+			throw new NullPointerException("Null master");
+		}
+		this.master = master;
+	}
+
+	// -------------------------------------------------------------- INTERFACE
+
+	/**
+	 * Returns wether the reader is currently reading commands.
+	 */
+	public synchronized boolean isRunning() {
+		return session != null;
+	}
+
+	/**
+	 * Starts reading commands from the given source, stopping the reader
+	 * first if it was running.
+	 *
+	 * @param   source  - the path of a named pipe or a file, or {@link #STDIN}
+	 *                    for the standard input.
+	 * @throws  IOException if the source does not exist.
+	 */
+	public synchronized void start(String source) throws IOException {
+		stop();
+		File file = null;
+		if (source != null && !source.isEmpty() && !STDIN.equals(source)) {
+			file = new File(source);
+			if (!file.exists()) {
+				throw new FileNotFoundException(source);
+			}
+		}
+		Session started = new Session(file);
+		Thread  thread  = new Thread(started, "CommandReader");
+		thread.setDaemon(true);
+		started.thread = thread;
+		session        = started;
+		thread.start();
+	}
+
+	/**
+	 * Stops reading commands. A thread still blocked after a second, waiting
+	 * for the standard input or for a named pipe to be opened by its writer,
+	 * is abandoned and ends as soon as its call returns.
+	 */
+	public synchronized void stop() {
+		if (session != null) {
+			Thread thread = session.thread;
+			session = null;
+			thread.interrupt();
+			try {
+				thread.join(1000L);
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	// -------------------------------------------------------------- UTILITIES
+
+	/**
+	 * Opens the given file, or the standard input if {@code null}. Opening a
+	 * named pipe blocks until a writer opens it too.
+	 */
+	private static ReadableByteChannel open(File file) throws IOException {
+		if (file == null) {
+			// Closing the channel must not close the standard input itself
+			return Channels.newChannel(new FilterInputStream(System.in) {
+				@Override public void close() {}
+			});
+		}
+		return new FileInputStream(file).getChannel();
+	}
+
+	// --------------------------------------------------------- INTERNAL TYPES
+
+	/**
+	 * The source, line buffer and thread of one start of the reader. Its
+	 * commands are only executed while it is the current session.
+	 */
+	private class Session implements Runnable {
+
+		/**
+		 * File to read, {@code null} for the standard input.
+		 */
+		final File file;
+
+		final StringBuilder line = new StringBuilder();
+
+		Thread thread;
+
+		Session(File file) {
+			this.file = file;
+		}
+
+		/**
+		 * Returns wether this session has been replaced or stopped.
+		 */
+		boolean isStale() {
+			return session != this || Thread.currentThread().isInterrupted();
+		}
+
+		/**
+		 * Body of the reader thread, reading commands until the reader is
+		 * stopped or the standard input is closed.
+		 */
+		@Override public void run() {
+			boolean first = true;
+			try {
+				while (!isStale()) {
+					ReadableByteChannel channel = open(file);
+					try {
+						boolean follow = file != null && file.isFile();
+						if (follow && first) {
+							FileChannel fileChannel = (FileChannel) channel;
+							fileChannel.position(fileChannel.size());
+						}
+						first = false;
+						read(channel, follow);
+					} finally {
+						channel.close();
+					}
+					// Only a named pipe is worth reopening once its writer is done
+					if (file == null || file.isFile()) {
+						return;
+					}
+				}
+			} catch (IOException ex) {
+				// $FALL-THROUGH$
+			} catch (InterruptedException ex) {
+				// $FALL-THROUGH$
+			}
+		}
+
+		/**
+		 * Reads commands from the given channel until its end. When following
+		 * a file, waits for new lines instead, starting over if it gets
+		 * truncated.
+		 */
+		private void read(ReadableByteChannel channel, boolean follow)
+				throws IOException, InterruptedException {
+			ByteBuffer buffer = ByteBuffer.allocate(512);
+			line.setLength(0);
+
+			while (!isStale()) {
+				int count = channel.read(buffer);
+				if (count < 0) {
+					if (!follow) {
+						return;
+					}
+					FileChannel fileChannel = (FileChannel) channel;
+					if (fileChannel.size() < fileChannel.position()) {
+						fileChannel.position(0L);
+						line.setLength(0);
+					}
+					Thread.sleep(POLL_INTERVAL);
+					continue;
+				}
+				long time = System.nanoTime() / 1000000L;
+
+				buffer.flip();
+				while (buffer.hasRemaining()) {
+					char c = (char) (buffer.get() & 0xFF);
+					if (c == '\n') {
+						if (line.length() <= MAX_LINE_LENGTH) {
+							dispatch(line.toString().trim(), time);
+						}
+						line.setLength(0);
+					} else if (line.length() <= MAX_LINE_LENGTH) {
+						line.append(c);
+					}
+				}
+				buffer.clear();
+			}
+		}
+
+		/**
+		 * Executes the given command line on the event dispatch thread, unless
+		 * the session is stale by then. Lines that are not commands are
+		 * ignored.
+		 *
+		 * @param   line    - the command line.
+		 * @param   time    - the moment the line was read on the monotonic
+		 *                    clock.
+		 */
+		private void dispatch(String line, long time) {
+			if (line.isEmpty() || isStale()) {
+				return;
+			}
+			String[] words = line.split("\\s+");
+			final Command command = Command.forName(words[0]);
+			if (command == null) {
+				return;
+			}
+			if (words.length > 1) {
+				try {
+					long age = System.currentTimeMillis() - Long.parseLong(words[1]);
+					if (age > 0L) {
+						time -= age;
+					}
+				} catch (NumberFormatException ex) {
+					// $FALL-THROUGH$
+				}
+			}
+			final long commandTime = time;
+			SwingUtilities.invokeLater(new Runnable() {
+				@Override public void run() {
+					if (session == Session.this) {
+						master.execute(command, commandTime);
+					}
+				}
+			});
+		}
+	}
+}
@@ -0,0 +1,439 @@
+package org.fenix.llanfair.extern;
+
+import org.fenix.llanfair.Run;
+import org.fenix.llanfair.Run.State;
+import org.fenix.llanfair.Segment;
+import org.fenix.llanfair.Time;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import javax.swing.event.TableModelEvent;
+import javax.swing.event.TableModelListener;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.Charset;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * A TCP server pushing the changes of the run to its clients as they happen,
+ * for overlays and bots. Each event is a JSON object on its own line, whose
+ * {@code event} member gives its type:
+ * <ul>
+ *  <li>{@code run}: name, subtitle and number of segments of the run, sent
+ *  when the run or its segments change.</li>
+ *  <li>{@code state}: new state of the run and elapsed time. Tells if the run
+ *  is a personal best once stopped.</li>
+ *  <li>{@code segment}: index of the current segment.</li>
+ *  <li>{@code split}: live time, delta and gold flag of a segment that has
+ *  just been completed. Its {@code splits} member repeats them for every
+ *  segment completed so far, so that a client which only received the last
+ *  of several splits misses none.</li>
+ *  <li>{@code attempts}: attempt and completed attempt counters.</li>
+ * </ul>
+ * Times are given in milliseconds, {@code null} when undefined. Clients
+ * receive the last {@code run} and {@code state} events upon connection.
+ * <p>
+ * Events are serialized once and shared by every client. Each client has a
+ * bounded queue of pending events in which an event replaces a pending one
+ * of the same type, so slow clients only receive the latest values and the
+ * queue never holds more than one event of each type, however long the run.
+ * Clients whose queue overflows anyway are disconnected.
+ * <p>
+ * The stream only listens to the run while it is started, so a stopped
+ * stream costs nothing to the run.
+ *
+ * @author  Xavier "Xunkar" Sencert
+ */
+public class EventStream extends SelectorServer
+		implements PropertyChangeListener, TableModelListener {
+
+	// -------------------------------------------------------------- CONSTANTS
+
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	/**
+	 * Maximum number of distinct events pending for a single client. Events
+	 * are coalesced by type, so this is only reached by a broken stream.
+	 */
+	private static final int MAX_PENDING = 16;
+
+	// ------------------------------------------------------------- ATTRIBUTES
+
+	/**
+	 * Run whose changes are streamed.
+	 */
+	private Run run;
+
+	/**
+	 * Wether the stream listens to the run.
+	 */
+	private boolean listening;
+
+	/**
+	 * Connected clients. Only modified by the server threads.
+	 */
+	private final List<Client> clients;
+
+	/**
+	 * Last {@code run} event, sent to clients as they connect.
+	 */
+	private volatile ByteBuffer lastRun;
+
+	/**
+	 * Last {@code state} event, sent to clients as they connect.
+	 */
+	private volatile ByteBuffer lastState;
+
+	// ----------------------------------------------------------- CONSTRUCTORS
+
+	/**
+	 * Creates a stopped stream of the changes of the given run.
+	 *
+	 * @param   run - the run whose changes to stream.
+	 */
+	public EventStream(Run run) {
+		super("EventStream");
+		if (run == null) {
+			throw new NullPointerException("Null run");
+		}
+		this.run = run;
+		clients  = new CopyOnWriteArrayList<Client>();
+	}
+
+	// -------------------------------------------------------------- INTERFACE
+
+	/**
+	 * Streams the changes of the given run instead of the current one. Must
+	 * be called from the event dispatch thread.
+	 *
+	 * @param   run - the new run whose changes to stream.
+	 */
+	public synchronized void setRun(Run run) {
+		if (run == null) {
+			throw new NullPointerException("Null run");
+		}
+		boolean listen = listening;
+		listen(false);
+		this.run = run;
+		listen(listen);
+	}
+
+	/**
+	 * Starts accepting clients on the given address and port, stopping the
+	 * stream first if it was running. Must be called from the event dispatch
+	 * thread.
+	 *
+	 * @param   address - the address to bind, typically the loopback.
+	 * @param   port    - the port to listen on, zero for any free port.
+	 * @throws  IOException if the stream cannot be bound.
+	 */
+	@Override public synchronized void start(InetAddress address, int port)
+			throws IOException {
+		stop();
+		// Listen first so that the first clients get the run and its state.
+		listen(true);
+		try {
+			super.start(address, port);
+		} catch (IOException ex) {
+			listen(false);
+			throw ex;
+		}
+	}
+
+	/**
+	 * Stops the stream, disconnects every client and stops listening to the
+	 * run.
+	 */
+	@Override public synchronized void stop() {
+		super.stop();
+		listen(false);
+	}
+
+	// -------------------------------------------------------------- CALLBACKS
+
+	/**
+	 * Translates the changes of the run into events.
+	 */
+	@Override public void propertyChange(PropertyChangeEvent event) {
+		String property = event.getPropertyName();
+		if (Run.STATE_PROPERTY.equals(property)) {
+			publishState();
+		} else if (Run.NAME_PROPERTY.equals(property)
+				|| Run.SUBTITLE_PROPERTY.equals(property)) {
+			publishRun();
+		} else if (clients.isEmpty()) {
+			// Only the run and its state are kept for future clients.
+			return;
+		} else if (Run.CURRENT_SEGMENT_PROPERTY.equals(property)) {
+			int previous = (Integer) event.getOldValue();
+			int current  = (Integer) event.getNewValue();
+			if (previous > -1 && current > previous) {
+				publishSplit(previous);
+			}
+			JSONObject json = newEvent("segment");
+			json.put("current", current);
+			json.put("elapsed", getElapsedTime());
+			publish("segment", json);
+		} else if (Run.ATTEMPT_COUNTER_PROPERTY.equals(property)
+				|| Run.COMPLETED_ATTEMPT_COUNTER_PROPERTY.equals(property)) {
+			JSONObject json = newEvent("attempts");
+			json.put("attempts", run.getNumberOfAttempts());
+			json.put("completed", run.getNumberOfCompletedAttempts());
+			publish("attempts", json);
+		}
+	}
+
+	/**
+	 * Republishes the description of the run when its segments change.
+	 */
+	@Override public void tableChanged(TableModelEvent event) {
+		publishRun();
+	}
+
+	/**
+	 * Watches the writes of the clients of the given selector having events
+	 * pending.
+	 */
+	@Override protected void selected(Selector selector) {
+		for (Client client : clients) {
+			SelectionKey key = client.key;
+			if (key.selector() == selector && key.isValid()
+					&& client.hasPending()) {
+				key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+			}
+		}
+	}
+
+	/**
+	 * Queues the last run and state events for a new client.
+	 */
+	@Override protected void connected(SelectionKey key) {
+		Client client = new Client();
+		client.key = key;
+		key.attach(client);
+		key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+		ByteBuffer lastRun   = this.lastRun;
+		ByteBuffer lastState = this.lastState;
+		if (lastRun != null) {
+			client.offer("run", lastRun);
+		}
+		if (lastState != null) {
+			client.offer("state", lastState);
+		}
+		clients.add(client);
+	}
+
+	/**
+	 * Discards whatever the client sends, only noticing disconnections.
+	 */
+	@Override protected void read(SelectionKey key) throws IOException {
+		SocketChannel channel = (SocketChannel) key.channel();
+		Client        client  = (Client) key.attachment();
+		client.input.clear();
+		if (channel.read(client.input) < 0) {
+			disconnect(key);
+		}
+	}
+
+	/**
+	 * Writes as much of the pending events of a client as possible.
+	 */
+	@Override protected void write(SelectionKey key) throws IOException {
+		SocketChannel channel = (SocketChannel) key.channel();
+		Client        client  = (Client) key.attachment();
+		if (client.overflow) {
+			disconnect(key);
+			return;
+		}
+		while (true) {
+			if (client.output == null || !client.output.hasRemaining()) {
+				client.output = client.poll();
+				if (client.output == null) {
+					key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+					return;
+				}
+			}
+			channel.write(client.output);
+			if (client.output.hasRemaining()) {
+				return;
+			}
+		}
+	}
+
+	@Override protected void disconnected(SelectionKey key) {
+		clients.remove(key.attachment());
+	}
+
+	// -------------------------------------------------------------- UTILITIES
+
+	/**
+	 * Starts or stops listening to the run. Once listening, the run and its
+	 * state are published right away.
+	 */
+	private void listen(boolean listen) {
+		if (listen == listening) {
+			return;
+		}
+		listening = listen;
+		if (listen) {
+			run.addPropertyChangeListener(this);
+			run.addTableModelListener(this);
+			publishRun();
+			publishState();
+		} else {
+			run.removePropertyChangeListener(this);
+			run.removeTableModelListener(this);
+			lastRun   = null;
+			lastState = null;
+		}
+	}
+
+	private static JSONObject newEvent(String type) {
+		JSONObject json = new JSONObject();
+		json.put("event", type);
+		return json;
+	}
+
+	private static Object toJson(Time time) {
+		return (time == null) ? JSONObject.NULL : time.getMilliseconds();
+	}
+
+	private long getElapsedTime() {
+		return run.getElapsedTime(System.nanoTime() / 1000000L);
+	}
+
+	private void publishRun() {
+		JSONObject json = newEvent("run");
+		json.put("name", run.getName());
+		json.put("subTitle", run.getSubTitle());
+		json.put("segments", run.getRowCount());
+		lastRun = publish("run", json);
+	}
+
+	private void publishState() {
+		State state = run.getState();
+		JSONObject json = newEvent("state");
+		json.put("state", state);
+		json.put("current", run.getCurrent());
+		json.put("elapsed", getElapsedTime());
+		if (state == State.STOPPED) {
+			json.put("pb", run.isPersonalBest());
+		}
+		lastState = publish("state", json);
+	}
+
+	/**
+	 * Publishes the split of the given segment, along with every split made
+	 * before it, under a single key.
+	 */
+	private void publishSplit(int index) {
+		JSONObject json = newEvent("split");
+		JSONArray splits = new JSONArray();
+		for (int i = 0; i <= index; i++) {
+			splits.put(putSplit(new JSONObject(), i));
+		}
+		putSplit(json, index);
+		json.put("splits", splits);
+		publish("split", json);
+	}
+
+	/**
+	 * Puts the members describing the split of the given segment in the
+	 * given object.
+	 *
+	 * @return  the given object.
+	 */
+	private JSONObject putSplit(JSONObject json, int index) {
+		Segment segment = run.getSegment(index);
+		Time    live    = segment.getTime(Segment.LIVE);
+		Time    best    = segment.getTime(Segment.BEST);
+
+		json.put("index", index);
+		json.put("name", segment.getName());
+		json.put("time", toJson(live));
+		json.put("runTime", toJson(run.getTime(index, Segment.LIVE)));
+		json.put("delta", toJson(run.getTime(index, Segment.DELTA)));
+		json.put("gold", live != null
+				&& (best == null || live.compareTo(best) < 0));
+		return json;
+	}
+
+	/**
+	 * Serializes the given event once and queues it for every client,
+	 * replacing any pending event of the same key.
+	 *
+	 * @return  the serialized event.
+	 */
+	private ByteBuffer publish(String key, JSONObject json) {
+		ByteBuffer bytes = UTF8.encode(json.toString() + "\n");
+		if (!clients.isEmpty()) {
+			for (Client client : clients) {
+				client.offer(key, bytes);
+			}
+			wakeup();
+		}
+		return bytes;
+	}
+
+	// --------------------------------------------------------- INTERNAL TYPES
+
+	/**
+	 * State of a connected client.
+	 */
+	private static class Client {
+
+		SelectionKey key;
+
+		final ByteBuffer input = ByteBuffer.allocate(256);
+
+		/**
+		 * Event being written, owned by the server thread.
+		 */
+		ByteBuffer output;
+
+		/**
+		 * Events waiting to be written, by key, in order of publication.
+		 */
+		private final Map<String, ByteBuffer> pending
+				= new LinkedHashMap<String, ByteBuffer>();
+
+		/**
+		 * Wether more than {@link #MAX_PENDING} events were pending.
+		 */
+		volatile boolean overflow;
+
+		synchronized void offer(String key, ByteBuffer bytes) {
+			// Re-inserting moves a replaced event to the end of the queue
+			pending.remove(key);
+			pending.put(key, bytes.duplicate());
+			if (pending.size() > MAX_PENDING) {
+				pending.clear();
+				overflow = true;
+			}
+		}
+
+		synchronized ByteBuffer poll() {
+			Iterator<ByteBuffer> iterator = pending.values().iterator();
+			if (!iterator.hasNext()) {
+				return null;
+			}
+			ByteBuffer bytes = iterator.next();
+			iterator.remove();
+			return bytes;
+		}
+
+		synchronized boolean hasPending() {
+			return overflow || !pending.isEmpty();
+		}
+	}
+}
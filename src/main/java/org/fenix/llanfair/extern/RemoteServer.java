@@ -0,0 +1,239 @@
+package org.fenix.llanfair.extern;
+
+import org.fenix.llanfair.Command;
+import org.fenix.llanfair.Llanfair;
+import org.fenix.llanfair.Run;
+
+import javax.swing.*;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * A TCP server letting other programs drive the timer. Clients send one
+ * command per line, among {@code start}, {@code split}, {@code unsplit},
+ * {@code skip}, {@code pause}, {@code resume}, {@code reset}, {@code stop},
+ * {@code game_pause}, {@code game_resume} and {@code gettime}, and receive
+ * one line per command describing the state
+ * of the run once the command has been processed:
+ * <pre>
+ * OK state=ONGOING segment=2 segments=12 elapsed=754120
+ * </pre>
+ * where {@code elapsed} is the run time in milliseconds. Unknown commands
+ * are answered with {@code ERR unknown command}.
+ * <p>
+ * All clients are served by a single thread using a selector. Commands are
+ * timestamped as soon as they are read, then executed on the event dispatch
+ * thread like hotkeys, so the latency of the hop does not count against the
+ * runner.
+ *
+ * @author  Xavier "Xunkar" Sencert
+ */
+public class RemoteServer extends SelectorServer {
+
+	// -------------------------------------------------------------- CONSTANTS
+
+	private static final Charset ASCII = Charset.forName("US-ASCII");
+
+	/**
+	 * Maximum length of a command line. Clients sending longer lines are
+	 * disconnected.
+	 */
+	private static final int MAX_LINE_LENGTH = 256;
+
+	/**
+	 * Query returning the state of the run without executing any command.
+	 */
+	private static final String QUERY = "gettime";
+
+	// ------------------------------------------------------------- ATTRIBUTES
+
+	private Llanfair master;
+
+	/**
+	 * Replies produced on the event dispatch thread, waiting to be handed to
+	 * their client by the server thread.
+	 */
+	private final Queue<Reply> replies;
+
+	// ----------------------------------------------------------- CONSTRUCTORS
+
+	/**
+	 * Creates a stopped server driving the given application.
+	 *
+	 * @param   master  - the application to which commands are given.
+	 */
+	public RemoteServer(Llanfair master) {
+		super("RemoteServer");
+		if (master == null) {
+			throw new NullPointerException("Null master");
+		}
+		this.master = master;
+		replies     = new ConcurrentLinkedQueue<Reply>();
+	}
+
+	// -------------------------------------------------------------- CALLBACKS
+
+	/**
+	 * Hands the replies produced since the last pass to the clients of the
+	 * given selector. Replies to disconnected clients are dropped.
+	 */
+	@Override protected void selected(Selector selector) {
+		Iterator<Reply> iterator = replies.iterator();
+		while (iterator.hasNext()) {
+			Reply        reply = iterator.next();
+			SelectionKey key   = reply.key;
+			if (!key.isValid()) {
+				iterator.remove();
+			} else if (key.selector() == selector) {
+				Client client = (Client) key.attachment();
+				client.output.add(ASCII.encode(reply.text));
+				key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+				iterator.remove();
+			}
+		}
+	}
+
+	@Override protected void connected(SelectionKey key) {
+		key.attach(new Client());
+	}
+
+	/**
+	 * Reads the available bytes of a client and dispatches every complete
+	 * line as a command.
+	 */
+	@Override protected void read(SelectionKey key) throws IOException {
+		SocketChannel channel = (SocketChannel) key.channel();
+		Client        client  = (Client) key.attachment();
+
+		int count = channel.read(client.input);
+		if (count < 0) {
+			disconnect(key);
+			return;
+		}
+		long time = System.nanoTime() / 1000000L;
+
+		client.input.flip();
+		while (client.input.hasRemaining()) {
+			char c = (char) (client.input.get() & 0xFF);
+			if (c == '\n') {
+				dispatch(key, client.line.toString().trim(), time);
+				client.line.setLength(0);
+			} else if (client.line.length() < MAX_LINE_LENGTH) {
+				client.line.append(c);
+			} else {
+				disconnect(key);
+				return;
+			}
+		}
+		client.input.clear();
+	}
+
+	/**
+	 * Writes as much of the pending replies of a client as possible.
+	 */
+	@Override protected void write(SelectionKey key) throws IOException {
+		SocketChannel channel = (SocketChannel) key.channel();
+		Client        client  = (Client) key.attachment();
+
+		while (!client.output.isEmpty()) {
+			ByteBuffer buffer = client.output.peek();
+			channel.write(buffer);
+			if (buffer.hasRemaining()) {
+				return;
+			}
+			client.output.poll();
+		}
+		key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+	}
+
+	/**
+	 * Drops the replies still waiting for a disconnected client.
+	 */
+	@Override protected void disconnected(SelectionKey key) {
+		Iterator<Reply> iterator = replies.iterator();
+		while (iterator.hasNext()) {
+			if (iterator.next().key == key) {
+				iterator.remove();
+			}
+		}
+	}
+
+	// -------------------------------------------------------------- UTILITIES
+
+	/**
+	 * Executes the given command line on the event dispatch thread and
+	 * queues the reply for the client.
+	 */
+	private void dispatch(final SelectionKey key, String line, final long time) {
+		if (line.isEmpty()) {
+			return;
+		}
+		final boolean query   = QUERY.equalsIgnoreCase(line);
+		final Command command = query ? null : Command.forName(line);
+
+		SwingUtilities.invokeLater(new Runnable() {
+			@Override public void run() {
+				String reply;
+				if (command == null && !query) {
+					reply = "ERR unknown command\n";
+				} else {
+					if (command != null) {
+						master.execute(command, time);
+					}
+					reply = getSnapshot(master.getRun()) + "\n";
+				}
+				replies.add(new Reply(key, reply));
+				key.selector().wakeup();
+			}
+		});
+	}
+
+	/**
+	 * Returns a line describing the current state of the given run. Must be
+	 * called from the event dispatch thread.
+	 */
+	private static String getSnapshot(Run run) {
+		long now = System.nanoTime() / 1000000L;
+		return "OK state=" + run.getState()
+				+ " segment=" + run.getCurrent()
+				+ " segments=" + run.getRowCount()
+				+ " elapsed=" + run.getElapsedTime(now);
+	}
+
+	// --------------------------------------------------------- INTERNAL TYPES
+
+	/**
+	 * State of a connected client.
+	 */
+	private static class Client {
+
+		final ByteBuffer input = ByteBuffer.allocate(512);
+
+		final StringBuilder line = new StringBuilder();
+
+		final Queue<ByteBuffer> output = new ArrayDeque<ByteBuffer>();
+	}
+
+	/**
+	 * A reply waiting to be handed to its client.
+	 */
+	private static class Reply {
+
+		final SelectionKey key;
+
+		final String text;
+
+		Reply(SelectionKey key, String text) {
+			this.key  = key;
+			this.text = text;
+		}
+	}
+}
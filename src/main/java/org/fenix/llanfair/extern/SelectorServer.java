@@ -0,0 +1,295 @@
+package org.fenix.llanfair.extern;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+
+/**
+ * A TCP server serving all its clients from a single thread with a selector.
+ * This class owns the lifecycle of the server, accepts and disconnects the
+ * clients and dispatches the ready channels to its subclass, which only
+ * implements the protocol.
+ * <p>
+ * Each start opens its own selector and server socket, which only the thread
+ * started with them uses and closes. A thread that outlives a stop, such as
+ * one that did not end in time, can therefore never close the channels of a
+ * later start.
+ *
+ * @author  Xavier "Xunkar" Sencert
+ */
+public abstract class SelectorServer {
+
+	// ------------------------------------------------------------- ATTRIBUTES
+
+	/**
+	 * Name given to the server threads.
+	 */
+	private final String name;
+
+	/**
+	 * Channels and thread of the current start, {@code null} when stopped.
+	 */
+	private volatile Endpoint endpoint;
+
+	// ----------------------------------------------------------- CONSTRUCTORS
+
+	/**
+	 * Creates a stopped server whose threads bear the given name.
+	 *
+	 * @param   name    - the name of the server threads.
+	 */
+	protected SelectorServer(String name) {
+		this.name = name;
+	}
+
+	// -------------------------------------------------------------- INTERFACE
+
+	/**
+	 * Returns wether the server is currently accepting clients.
+	 */
+	public synchronized boolean isRunning() {
+		return endpoint != null;
+	}
+
+	/**
+	 * Returns the port on which the server listens, or {@code -1} if it is
+	 * stopped. Useful when started on port zero.
+	 */
+	public synchronized int getPort() {
+		return (endpoint == null) ? -1 : endpoint.server.socket().getLocalPort();
+	}
+
+	/**
+	 * Starts accepting clients on the given address and port, stopping the
+	 * server first if it was running.
+	 *
+	 * @param   address - the address to bind, typically the loopback.
+	 * @param   port    - the port to listen on, zero for any free port.
+	 * @throws  IOException if the server cannot be bound.
+	 */
+	public synchronized void start(InetAddress address, int port)
+			throws IOException {
+		halt();
+		Endpoint started = new Endpoint(address, port);
+		Thread   thread  = new Thread(started, name);
+		thread.setDaemon(true);
+		started.thread = thread;
+		endpoint       = started;
+		thread.start();
+	}
+
+	/**
+	 * Stops the server and disconnects every client. Waits a second at most
+	 * for the server thread to release the port before returning.
+	 */
+	public synchronized void stop() {
+		halt();
+	}
+
+	// -------------------------------------------------------------- CALLBACKS
+
+	/**
+	 * Invoked by the server thread after each selection, before the ready
+	 * channels are handled. Does nothing by default.
+	 *
+	 * @param   selector    - the selector of the server thread.
+	 */
+	protected void selected(Selector selector) {}
+
+	/**
+	 * Invoked by the server thread when a client connects, its channel being
+	 * registered for reading.
+	 *
+	 * @param   key - the key of the client channel.
+	 */
+	protected abstract void connected(SelectionKey key);
+
+	/**
+	 * Invoked by the server thread when a client channel can be read.
+	 *
+	 * @param   key - the key of the client channel.
+	 * @throws  IOException to disconnect the client.
+	 */
+	protected abstract void read(SelectionKey key) throws IOException;
+
+	/**
+	 * Invoked by the server thread when a client channel can be written.
+	 *
+	 * @param   key - the key of the client channel.
+	 * @throws  IOException to disconnect the client.
+	 */
+	protected abstract void write(SelectionKey key) throws IOException;
+
+	/**
+	 * Invoked by the server thread once a client has been disconnected,
+	 * including when the server stops. Does nothing by default.
+	 *
+	 * @param   key - the cancelled key of the client channel.
+	 */
+	protected void disconnected(SelectionKey key) {}
+
+	// -------------------------------------------------------------- UTILITIES
+
+	/**
+	 * Stops the server thread, waiting a second at most for it to end. Does
+	 * not involve the overridable {@link #stop()}, so that subclasses can
+	 * extend it without being stopped again by {@link #start}.
+	 */
+	private void halt() {
+		if (endpoint != null) {
+			Thread thread = endpoint.thread;
+			endpoint = null;
+			thread.interrupt();
+			try {
+				thread.join(1000L);
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	/**
+	 * Wakes up the server thread, if the server is running.
+	 */
+	protected void wakeup() {
+		Endpoint endpoint = this.endpoint;
+		if (endpoint != null) {
+			endpoint.selector.wakeup();
+		}
+	}
+
+	/**
+	 * Disconnects the client of given key. Must be called from the server
+	 * thread.
+	 *
+	 * @param   key - the key of the client channel.
+	 */
+	protected void disconnect(SelectionKey key) {
+		key.cancel();
+		try {
+			key.channel().close();
+		} catch (IOException ex) {
+			// $FALL-THROUGH$
+		}
+		disconnected(key);
+	}
+
+	// --------------------------------------------------------- INTERNAL TYPES
+
+	/**
+	 * The selector, server socket and thread of one start of the server. The
+	 * channels are only used and closed by that thread.
+	 */
+	private class Endpoint implements Runnable {
+
+		final Selector selector;
+
+		final ServerSocketChannel server;
+
+		Thread thread;
+
+		/**
+		 * Binds a new server socket to the given address and port.
+		 */
+		Endpoint(InetAddress address, int port) throws IOException {
+			selector = Selector.open();
+			ServerSocketChannel channel = null;
+			try {
+				channel = ServerSocketChannel.open();
+				channel.configureBlocking(false);
+				channel.socket().setReuseAddress(true);
+				channel.socket().bind(new InetSocketAddress(address, port));
+				channel.register(selector, SelectionKey.OP_ACCEPT);
+			} catch (IOException ex) {
+				if (channel != null) {
+					channel.close();
+				}
+				selector.close();
+				throw ex;
+			}
+			server = channel;
+		}
+
+		/**
+		 * Body of the server thread, serving every client until the server is
+		 * stopped.
+		 */
+		@Override public void run() {
+			try {
+				while (!Thread.currentThread().isInterrupted()) {
+					selector.select();
+					selected(selector);
+
+					Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+					while (keys.hasNext()) {
+						SelectionKey key = keys.next();
+						keys.remove();
+						try {
+							if (!key.isValid()) {
+								continue;
+							}
+							if (key.isAcceptable()) {
+								accept();
+							}
+							if (key.isValid() && key.isReadable()) {
+								read(key);
+							}
+							if (key.isValid() && key.isWritable()) {
+								write(key);
+							}
+						} catch (IOException ex) {
+							disconnect(key);
+						}
+					}
+				}
+			} catch (IOException ex) {
+				// $FALL-THROUGH$
+			} catch (ClosedSelectorException ex) {
+				// $FALL-THROUGH$
+			} finally {
+				close();
+			}
+		}
+
+		private void accept() throws IOException {
+			SocketChannel channel = server.accept();
+			if (channel != null) {
+				channel.configureBlocking(false);
+				channel.socket().setTcpNoDelay(true);
+				connected(channel.register(selector, SelectionKey.OP_READ));
+			}
+		}
+
+		/**
+		 * Disconnects every client, then closes the server socket and the
+		 * selector.
+		 */
+		private void close() {
+			try {
+				for (SelectionKey key : selector.keys()) {
+					if (key.channel() != server) {
+						disconnect(key);
+					}
+				}
+			} catch (ClosedSelectorException ex) {
+				// $FALL-THROUGH$
+			}
+			try {
+				server.close();
+			} catch (IOException ex) {
+				// $FALL-THROUGH$
+			}
+			try {
+				selector.close();
+			} catch (IOException ex) {
+				// $FALL-THROUGH$
+			}
+		}
+	}
+}
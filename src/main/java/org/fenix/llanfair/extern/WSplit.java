@@ -4,10 +4,14 @@ import org.fenix.llanfair.Llanfair;
 import org.fenix.llanfair.Run;
 import org.fenix.llanfair.Segment;
 import org.fenix.llanfair.Time;
+import org.fenix.llanfair.TimeParser;
+import org.fenix.utils.IconLoader;
 
 import javax.swing.*;
 import java.io.BufferedReader;
+import java.io.File;
 import java.io.IOException;
+import java.text.ParseException;
 
 /**
  * Utility class that provides method to interface with WSplit.
@@ -61,23 +65,25 @@ public class WSplit {
 	 * @param run the run currently built by the parser
 	 * @return the currently read line marker
 	 * @throws IOException if reading operations fail
+	 * @throws ParseException if a time is invalid
 	 */
 	private static String parseSegments( BufferedReader in, Run run )
-			throws IOException {
+			throws IOException, ParseException {
 		String line;
 		while ( !( line = in.readLine() ).startsWith( "Icons" ) ) {
 			String[] args = line.split( "," );
 			Segment segment = new Segment( args[0] );
 			run.addSegment( segment );
 
-			double parsed = Double.parseDouble( args[2] );
+			long parsed = TimeParser.parse( args[2] );
 			run.setValueAt(
-					parsed == 0.0 ? null : new Time( parsed ),
+					parsed == 0L ? null : new Time( parsed ),
 					run.getRowCount() - 1, Run.COLUMN_TIME
 			);
-			parsed = Double.parseDouble( args[3] );
-			segment.setTime(
-					parsed == 0.0 ? null : new Time(parsed), Segment.BEST
+			parsed = TimeParser.parse( args[3] );
+			run.setValueAt(
+					parsed == 0L ? null : new Time( parsed ),
+					run.getRowCount() - 1, Run.COLUMN_BEST
 			);
 		}
 		return line;
@@ -87,6 +93,8 @@ public class WSplit {
 	 * Parses the list of segment icons in a WSplit run file. The list is a
 	 * single line, listing the icons in the segment order and formatted as
 	 * follows: Icons="icon1","icon2",...,"iconN"
+	 * Icons are loaded in parallel in the background, the segments showing a
+	 * placeholder until their icon is loaded.
 	 *
 	 * @param line the line containing the icon list
 	 * @param run the run currently built by the parser
@@ -101,10 +109,32 @@ public class WSplit {
 			String[] lst = args[i].split( "\\\"" );
 
 			if ( lst.length > 0 && !lst[1].equals( "" ) ) {
-				icon = new ImageIcon( lst[1] );
+				icon = IconLoader.getPlaceholder( Segment.ICON_MAX_SIZE );
+				loadIcon( run, i, new File( lst[1] ) );
 			}
 			run.getSegment( i ).setIcon( icon );
 		}
 	}
 
+	/**
+	 * Loads the given icon file in the background and gives it to the segment
+	 * of given index once loaded, unless the segment icon has been changed
+	 * since. Unreadable icons are removed.
+	 *
+	 * @param run the run whose segment is waiting for the icon
+	 * @param index the index of the segment
+	 * @param file the icon file to load
+	 */
+	private static void loadIcon( final Run run, final int index, File file ) {
+		IconLoader.load( file, Segment.ICON_MAX_SIZE, new IconLoader.Listener() {
+			@Override public void iconLoaded( ImageIcon icon ) {
+				ImageIcon placeholder = IconLoader.getPlaceholder( Segment.ICON_MAX_SIZE );
+				if ( index < run.getRowCount()
+						&& run.getSegment( index ).getIcon() == placeholder ) {
+					run.setValueAt( icon, index, Run.COLUMN_ICON );
+				}
+			}
+		} );
+	}
+
 }
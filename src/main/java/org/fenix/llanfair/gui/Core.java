@@ -5,8 +5,11 @@ import org.fenix.llanfair.Run;
 import org.fenix.llanfair.Run.State;
 import org.fenix.llanfair.Segment;
 import org.fenix.llanfair.Time;
+import org.fenix.llanfair.TimeFormatter;
+import org.fenix.llanfair.config.PropertyDispatcher;
 import org.fenix.llanfair.config.Settings;
-import org.fenix.utils.Images;
+import org.fenix.llanfair.config.TimingMethod;
+import org.fenix.utils.IconCache;
 import org.fenix.utils.gui.GBC;
 import org.fenix.utils.locale.LocaleEvent;
 
@@ -59,12 +62,6 @@ class Core extends JPanel implements ActionListener {
 	 */
 	private static final int MIN_WIDTH = 50;
 
-	/**
-	 * Dummy object used so we can get a string format for zero time instead of new'ing up
-	 * a Time object each time.
-	 */
-	private static final Time zeroTime = new Time(0);
-
 	// ------------------------------------------------------------- ATTRIBUTES
 
 	/**
@@ -81,12 +78,12 @@ class Core extends JPanel implements ActionListener {
 	/**
 	 * Label displaying the main timer, timing the whole run.
 	 */
-	private JLabel splitTimer;
+	private TimerLabel splitTimer;
 
 	/**
 	 * Label displaying the segment timer, timing the current segment.
 	 */
-	private JLabel segmentTimer;
+	private TimerLabel segmentTimer;
 
 	/**
 	 * Label displaying the name of the current segment.
@@ -111,19 +108,24 @@ class Core extends JPanel implements ActionListener {
 	private JLabel best;
 
 	/**
-	 * Registered split time of the current segment.
+	 * Registered split time of the current segment, in milliseconds.
+	 */
+	private long splitTime;
+
+	/**
+	 * Registered segment time of the current segment, in milliseconds.
 	 */
-	private Time splitTime;
+	private long segmentTime;
 
 	/**
-	 * Registered segment time of the current segment.
+	 * Time when the run was paused if it was, in milliseconds.
 	 */
-	private Time segmentTime;
+	private long pauseTime;
 
 	/**
-	 * Time when the run was paused, if it was.
+	 * Formatter of the timers, for the accuracy set in the settings.
 	 */
-	private Time pauseTime;
+	private TimeFormatter formatter;
 
 	/**
 	 * Flag indicating wether or not the split time for the current segment
@@ -153,6 +155,11 @@ class Core extends JPanel implements ActionListener {
 	private JLabel labelSegment;
 	private JLabel labelBest;
 
+	/**
+	 * Handlers of the updates of the run and settings properties.
+	 */
+	private PropertyDispatcher dispatcher;
+
 	// ----------------------------------------------------------- CONSTRUCTORS
 
 	/**
@@ -162,8 +169,8 @@ class Core extends JPanel implements ActionListener {
 	 */
 	Core(Run run) {
 		timer         = new Timer(10, this);
-		splitTimer    = new JLabel();
-		segmentTimer  = new JLabel();
+		splitTimer    = new TimerLabel();
+		segmentTimer  = new TimerLabel();
 		name          = new JLabel();
 		icon          = new JLabel();
 		split         = new JLabel();
@@ -173,9 +180,16 @@ class Core extends JPanel implements ActionListener {
 		labelSegment  = new JLabel("" + Language.LB_CR_SEGMENT);
 		labelBest     = new JLabel("" + Language.LB_CR_BEST);
 		blinkTime     = 0L;
+		splitTime     = Time.UNDEFINED;
+		segmentTime   = Time.UNDEFINED;
+		pauseTime     = 0L;
+		formatter     = TimeFormatter.get(false);
 		preferredSize = null;
 		resize        = false;
 
+		dispatcher = new PropertyDispatcher();
+		registerHandlers();
+
 		setRun(run);
 		setOpaque(false);
 		setDoubleBuffered(true);
@@ -218,13 +232,12 @@ class Core extends JPanel implements ActionListener {
 		if (resize) {
 			Graphics graphics = getGraphics();
 			if (graphics != null) {
-				Time tmFake = new Time(600000L);
-				Time tmRun  = run.getTime(Segment.SET);
+				long   tmRun    = run.getTimeMillis(Segment.SET);
+				String template = Time.format(
+						tmRun == Time.UNDEFINED ? 600000L : tmRun);
 
 				FontMetrics coreFontMetric = graphics.getFontMetrics(Settings.coreFont.get());
 				FontMetrics coreOtherTimeFontMetric = graphics.getFontMetrics(Settings.coreOtherTimeFont.get());
-				FontMetrics coreTimerFontMetric = graphics.getFontMetrics(Settings.coreTimerFont.get());
-				FontMetrics coreSegmentTimerFontMetric = graphics.getFontMetrics(Settings.coreSegmentTimerFont.get());
 
 				// Segment Name
 				int segmentNameWidth = 0;
@@ -240,7 +253,7 @@ class Core extends JPanel implements ActionListener {
 				int timeWidth = 0;
 				int timeHeight = 0;
 				int otherTimerFontHeight = coreOtherTimeFontMetric.getHeight();
-				int otherTimerWidth = coreOtherTimeFontMetric.stringWidth("" + (tmRun == null ? tmFake : tmRun));
+				int otherTimerWidth = coreOtherTimeFontMetric.stringWidth(template);
 				otherTimerWidth += coreOtherTimeFontMetric.stringWidth("XX:");
 
 				if (Settings.coreShowBestTime.get()) {
@@ -264,15 +277,19 @@ class Core extends JPanel implements ActionListener {
 					iconWidth = iconHeight;   // always assume square icon size (will be scaled as such)
 				}
 				// Run Timer
-				int splitTimerWidth = coreTimerFontMetric.stringWidth("" + (tmRun == null ? tmFake : tmRun));
-				int splitTimerHeight = coreTimerFontMetric.getHeight();
+				splitTimer.setTemplate(template);
+				Dimension splitTimerSize = splitTimer.getPreferredSize();
+				int splitTimerWidth = splitTimerSize.width;
+				int splitTimerHeight = splitTimerSize.height;
 
 				// Segment Timer
 				int segmentTimerWidth = 0;
 				int segmentTimerHeight = 0;
+				segmentTimer.setTemplate(template);
 				if (Settings.coreShowSegmentTimer.get()) {
-					segmentTimerWidth = coreSegmentTimerFontMetric.stringWidth("" + (tmRun == null ? tmFake : tmRun));
-					segmentTimerHeight = coreSegmentTimerFontMetric.getHeight();
+					Dimension segmentTimerSize = segmentTimer.getPreferredSize();
+					segmentTimerWidth = segmentTimerSize.width;
+					segmentTimerHeight = segmentTimerSize.height;
 				}
 
 				int maxHeight = Math.max(iconHeight, splitTimerHeight + segmentTimerHeight);
@@ -297,21 +314,22 @@ class Core extends JPanel implements ActionListener {
 	 */
 	@Override public synchronized void actionPerformed(ActionEvent event) {
 		long now            = System.nanoTime() / 1000000L;
-		Segment current     = run.getSegment(run.getCurrent());
-		Time splitElapsed   = new Time(now - run.getStartTime());
-		Time segmentElapsed = new Time(now - current.getStartTime());
+		TimingMethod method = Settings.timingMethod.get();
+		long splitElapsed   = Time.truncate(run.getElapsedTime(now, method));
+		long segmentElapsed = Time.truncate(
+				run.getSegmentElapsedTime(now, method));
 
-		if (splitElapsed.getMilliseconds() < 0)
+		if (splitElapsed < 0)
 			splitTimer.setForeground(Settings.colorNegativeTime.get());
 		else
 			splitTimer.setForeground(Settings.colorTimer.get());
 
 		if (run.getState().equals(State.PAUSED)) {
-			splitTimer.setText("" + pauseTime);
+			splitTimer.setTime(pauseTime, formatter);
 			if (blinkTime == 0L || now - blinkTime >= 400L) {
 				Color bg = Settings.colorBackground.get();
 				if (splitTimer.getForeground().equals(bg)) {
-					if (pauseTime.compareTo(splitTime) > 0) {
+					if (isLate(pauseTime, splitTime)) {
 						splitTimer.setForeground(Settings.colorTimeLostWhileBehind.get());
 					} else {
 						splitTimer.setForeground(Settings.colorTimer.get());
@@ -322,19 +340,19 @@ class Core extends JPanel implements ActionListener {
 				blinkTime = now;
 			}
 		} else {
-			if (splitElapsed.getMilliseconds() < 0) {
-				splitTimer.setText("-" + splitElapsed);
-				segmentTimer.setText("" + zeroTime);
+			if (splitElapsed < 0) {
+				splitTimer.setText("-" + Time.format(splitElapsed));
+				segmentTimer.setTime(0L, formatter);
 			} else {
-				splitTimer.setText("" + splitElapsed);
-				segmentTimer.setText("" + segmentElapsed);
+				splitTimer.setTime(splitElapsed, formatter);
+				segmentTimer.setTime(segmentElapsed, formatter);
 			}
 
-			if (!splitLoss && splitElapsed.compareTo(splitTime) > 0) {
+			if (!splitLoss && isLate(splitElapsed, splitTime)) {
 				splitLoss = true;
 				splitTimer.setForeground(Settings.colorTimeLostWhileBehind.get());
 			}
-			if (!segmentLoss && segmentElapsed.compareTo(segmentTime) > 0) {
+			if (!segmentLoss && isLate(segmentElapsed, segmentTime)) {
 				segmentLoss = true;
 				segmentTimer.setForeground(Settings.colorTimeLostWhileBehind.get());
 			}
@@ -348,71 +366,23 @@ class Core extends JPanel implements ActionListener {
 	 * @param   event   - the event describing the update.
 	 */
 	void processPropertyChangeEvent(PropertyChangeEvent event) {
-		String property = event.getPropertyName();
-		if (Run.STATE_PROPERTY.equals(property)) {
-			updateValues(ALL);
-			updateVisibility(TIME);
-			if (run.getState().equals(State.PAUSED)) {
-				long now  = System.nanoTime() / 1000000L;
-				pauseTime = new Time(now - run.getStartTime());
-			} else {
-				updateColors(TIMER);
-			}
-		} else if (Run.CURRENT_SEGMENT_PROPERTY.equals(property)) {
-			updateValues(ALL & ~TIMER);
-			updateColors(TIMER);
-		} else if (Run.DELAYED_START_PROPERTY.equals(property)) {
-			updateValues(TIMER);
-			updateColors(TIMER);
-		} else if (Settings.colorForeground.equals(property)) {
-			updateColors(NAME);
-		} else if (Settings.colorTime.equals(property)) {
-			updateColors(TIME);
-		} else if (Settings.colorTimer.equals(property)) {
-			updateColors(TIMER);
-		} else if (Settings.compareMethod.equals(property)) {
-			updateValues(TIME);
-			updateColors(TIMER);
-			forceResize();
-		} else if (Settings.accuracy.equals(property)) {
-			updateValues(TIME | TIMER);
-			forceResize();
-		} else if (Settings.coreShowBestTime.equals(property)
-				|| Settings.coreShowSegmentTime.equals(property)
-				|| Settings.coreShowSplitTime.equals(property)) {
-			updateVisibility(TIME);
-			forceResize();
-		} else if (Settings.coreShowSegmentName.equals(property)) {
-			updateVisibility(NAME);
-			forceResize();
-		} else if (Settings.coreIconSize.equals(property)) {
-			forceResize();
-		} else if (Settings.coreTimerFont.equals(property)
-				|| Settings.coreSegmentTimerFont.equals(property)) {
-			updateFonts(TIMER);
-			forceResize();
-		} else if (Settings.coreShowSegmentTimer.equals(property)) {
-			updateVisibility(TIMER);
-			forceResize();
-		} else if (Settings.coreShowIcons.equals(property)) {
-			updateVisibility(ICON);
-			forceResize();
-		} else if (Settings.coreFont.equals(property)) {
-			updateFonts(NAME);
-			forceResize();
-		} else if (Settings.coreOtherTimeFont.equals(property)) {
-			updateFonts(TIME);
-			forceResize();
-		} else if (Settings.windowUserResizable.equals(property) || Settings.windowWidth.equals(property)) {
-			updateSize();
-			forceResize();
-		}
+		dispatcher.dispatch(event);
 	}
 
 	private void forceResize() {
 		resize = true;
 		revalidate();
 	}
+
+	/**
+	 * Updates the time displayed while the run is paused, on the timeline set
+	 * in the settings.
+	 */
+	private void updatePauseTime() {
+		long now  = System.nanoTime() / 1000000L;
+		pauseTime = Time.truncate(
+				run.getElapsedTime(now, Settings.timingMethod.get()));
+	}
 	/**
 	 * Callback invoked by the parent when the run table of segments is
 	 * updated.
@@ -435,6 +405,129 @@ class Core extends JPanel implements ActionListener {
 
 	// -------------------------------------------------------------- UTILITIES
 
+	/**
+	 * Registers the reactions of the panel to the updates of the run and
+	 * settings properties it displays.
+	 */
+	private void registerHandlers() {
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				updateValues(ALL);
+				updateVisibility(TIME);
+				if (run.getState().equals(State.PAUSED)) {
+					updatePauseTime();
+				} else {
+					updateColors(TIMER);
+				}
+			}
+		}, Run.STATE_PROPERTY);
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				updateValues(ALL & ~TIMER);
+				updateColors(TIMER);
+			}
+		}, Run.CURRENT_SEGMENT_PROPERTY);
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				updateValues(TIMER);
+				updateColors(TIMER);
+			}
+		}, Run.DELAYED_START_PROPERTY);
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				updateColors(NAME);
+			}
+		}, Settings.colorForeground);
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				updateColors(TIME);
+			}
+		}, Settings.colorTime);
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				updateColors(TIMER);
+			}
+		}, Settings.colorTimer);
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				updateValues(TIME);
+				updateColors(TIMER);
+				forceResize();
+			}
+		}, Settings.compareMethod);
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				updateValues(ALL & ~TIMER);
+				if (run.getState().equals(State.PAUSED)) {
+					updatePauseTime();
+				}
+				updateColors(TIMER);
+				forceResize();
+			}
+		}, Settings.timingMethod);
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				formatter = TimeFormatter.get(false);
+				updateValues(TIME | TIMER);
+				forceResize();
+			}
+		}, Settings.accuracy);
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				updateVisibility(TIME);
+				forceResize();
+			}
+		}, Settings.coreShowBestTime, Settings.coreShowSegmentTime,
+				Settings.coreShowSplitTime);
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				updateVisibility(NAME);
+				forceResize();
+			}
+		}, Settings.coreShowSegmentName);
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				forceResize();
+			}
+		}, Settings.coreIconSize);
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				updateFonts(TIMER);
+				forceResize();
+			}
+		}, Settings.coreTimerFont, Settings.coreSegmentTimerFont);
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				updateVisibility(TIMER);
+				forceResize();
+			}
+		}, Settings.coreShowSegmentTimer);
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				updateVisibility(ICON);
+				forceResize();
+			}
+		}, Settings.coreShowIcons);
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				updateFonts(NAME);
+				forceResize();
+			}
+		}, Settings.coreFont);
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				updateFonts(TIME);
+				forceResize();
+			}
+		}, Settings.coreOtherTimeFont);
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				updateSize();
+				forceResize();
+			}
+		}, Settings.windowUserResizable, Settings.windowWidth);
+	}
+
 	/**
 	 * Places the sub-components within this component.
 	 */
@@ -514,12 +607,11 @@ class Core extends JPanel implements ActionListener {
 			if (hasCurrent) {
 				splitLoss   = false;
 				segmentLoss = false;
-				splitTime   = run.getTime(currentIdx, Segment.SET);
-				segmentTime = currentSgt.getTime(Segment.SET);
-				split.setText("" + (splitTime == null ? "?" : splitTime));
-				segment.setText("" + (segmentTime == null ? "?" : segmentTime));
-				Time bestTime = currentSgt.getTime(Segment.BEST);
-				best.setText("" + (bestTime == null ? "?" : bestTime));
+				splitTime   = run.getTimeMillis(currentIdx, Segment.SET);
+				segmentTime = currentSgt.getTimeMillis(Segment.SET);
+				split.setText(format(splitTime));
+				segment.setText(format(segmentTime));
+				best.setText(format(currentSgt.getTimeMillis(Segment.BEST)));
 			} else {
 				split.setText("");
 				segment.setText("");
@@ -538,7 +630,7 @@ class Core extends JPanel implements ActionListener {
 				ImageIcon img = currentSgt.getIcon();
 				if (img != null) {
 					icon.setIcon(
-							Images.rescale(img, Settings.coreIconSize.get()));
+							IconCache.get(img, Settings.coreIconSize.get()));
 				} else {
 					icon.setIcon(null);
 				}
@@ -553,17 +645,18 @@ class Core extends JPanel implements ActionListener {
 					splitLoss   = false;
 					segmentLoss = false;
 					segmentTimer.setText("");
-					Time time = run.getTime(Segment.LIVE);
-					splitTimer.setText("" + (time == null ? Language.RUN_STOPPED : time));
+					long time = run.getTimeMillis(Segment.LIVE);
+					splitTimer.setText(time == Time.UNDEFINED
+							? Language.RUN_STOPPED.get() : Time.format(time));
 				} else if (state == State.NULL) {
-					splitTimer.setText("" + Language.RUN_NULL);
+					splitTimer.setText(Language.RUN_NULL.get());
 					segmentTimer.setText("");
 				} else if (state == State.READY) {
 					timer.stop();
 					splitLoss   = false;
 					segmentLoss = false;
 					String timeString = getLiveTimeString();
-					splitTimer.setText("" + (timeString == null ? Language.RUN_READY : timeString));
+					splitTimer.setText(timeString == null ? Language.RUN_READY.get() : timeString);
 					segmentTimer.setText("");
 				} else if (state == State.ONGOING) {
 					timer.restart();
@@ -632,11 +725,7 @@ class Core extends JPanel implements ActionListener {
 
 	private boolean isShowingNegativeTime() {
 		if (run != null) {
-			Time time = run.getTime(Segment.LIVE);
-			if (time == null)
-				time = new Time(0 - run.getDelayedStart());
-
-			return time.getMilliseconds() < 0;
+			return getLiveTime() < 0;
 		}
 
 		return false;
@@ -644,16 +733,41 @@ class Core extends JPanel implements ActionListener {
 
 	private String getLiveTimeString() {
 		if (run != null) {
-			Time time = run.getTime(Segment.LIVE);
-			if (time == null)
-				time = new Time(0 - run.getDelayedStart());
-
-			if (time.getMilliseconds() < 0)
-				return "-" + time.toString();
+			long time = getLiveTime();
+			if (time < 0)
+				return "-" + Time.format(time);
 			else
-				return time.toString();
+				return Time.format(time);
 		}
 
 		return null;
 	}
+
+	/**
+	 * Returns the live time of the run in milliseconds, or the delayed start
+	 * as a negative time if it is undefined.
+	 */
+	private long getLiveTime() {
+		long time = run.getTimeMillis(Segment.LIVE);
+		if (time == Time.UNDEFINED)
+			time = Time.truncate(0 - run.getDelayedStart());
+
+		return time;
+	}
+
+	/**
+	 * Returns the given registered time as a string, or a question mark if it
+	 * is undefined.
+	 */
+	private static String format(long time) {
+		return (time == Time.UNDEFINED ? "?" : Time.format(time));
+	}
+
+	/**
+	 * Returns wether the given elapsed time is over the registered one. An
+	 * undefined registered time is never late.
+	 */
+	private static boolean isLate(long elapsed, long registered) {
+		return registered != Time.UNDEFINED && elapsed > registered;
+	}
 }
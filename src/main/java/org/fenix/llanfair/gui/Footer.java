@@ -5,6 +5,7 @@ import org.fenix.llanfair.Run;
 import org.fenix.llanfair.Run.State;
 import org.fenix.llanfair.Segment;
 import org.fenix.llanfair.Time;
+import org.fenix.llanfair.config.PropertyDispatcher;
 import org.fenix.llanfair.config.Settings;
 import org.fenix.utils.gui.GBC;
 import org.fenix.utils.locale.LocaleEvent;
@@ -35,7 +36,7 @@ class Footer extends JPanel {
 
 
 	private Run run;
-	private Time tmDlta;
+	private long tmDlta;
 
 	private JLabel labelPrev;   // P.Se:
 	private JLabel liveL;       // Left-hand Live Time
@@ -65,6 +66,8 @@ class Footer extends JPanel {
 
 	private JLabel worldRecord;
 
+	private PropertyDispatcher dispatcher;
+
 	/**
 	 * Creates a default panel displaying informations for the given run.
 	 *
@@ -93,6 +96,9 @@ class Footer extends JPanel {
 
 		worldRecord = new JLabel();
 
+		dispatcher = new PropertyDispatcher();
+		registerHandlers();
+
 		setRun(run);
 		setOpaque(false);
 
@@ -114,12 +120,14 @@ class Footer extends JPanel {
 			int timeH = coreOtherTimeFontMetrics.getHeight();
 			int smtmW;
 			if (run.getRowCount() > 0) {
-				Time segmentTime = run.getSegment(0).getTime(Segment.RUN);
-				Time tenthTime = new Time(segmentTime.getMilliseconds() / 10L);
-				timeW = coreOtherTimeFontMetrics.stringWidth("" + segmentTime);
-				smtmW = coreOtherTimeFontMetrics.stringWidth("" + tenthTime);
+				long segmentTime = run.getSegment(0).getTimeMillis(Segment.RUN);
+				if (segmentTime == Time.UNDEFINED)
+					segmentTime = 0L;
+				long tenthTime = Time.truncate(segmentTime / 10L);
+				timeW = coreOtherTimeFontMetrics.stringWidth(Time.format(segmentTime));
+				smtmW = coreOtherTimeFontMetrics.stringWidth(Time.format(tenthTime));
 			} else {
-				timeW = coreOtherTimeFontMetrics.stringWidth("" + Time.ZERO);
+				timeW = coreOtherTimeFontMetrics.stringWidth(Time.format(0L));
 				smtmW = timeW;
 			}
 
@@ -194,68 +202,7 @@ class Footer extends JPanel {
 	 * @param   event   - the event describing the update.
 	 */
 	void processPropertyChangeEvent(PropertyChangeEvent event) {
-		String property = event.getPropertyName();
-
-		if (Run.CURRENT_SEGMENT_PROPERTY.equals(property)) {
-			updateValues(ALL & ~TEXT);
-			updateColors(TIME | DELTA);
-			updateVisibility(ALL);
-		} else if (Settings.colorTimeGainedWhileBehind.equals(property)
-		           || Settings.colorTimeLostWhileBehind.equals(property)
-		           || Settings.colorTimeLostWhileAhead.equals(property)
-		           || Settings.colorTimeGainedWhileAhead.equals(property)) {
-			updateColors(DELTA);
-
-		} else if (Settings.colorTime.equals(property)
-				|| Settings.colorNewRecord.equals(property)) {
-			updateColors(TIME | DELTA);
-
-		} else if (Settings.colorForeground.equals(property)) {
-			updateColors(TEXT);
-
-		} else if (Settings.accuracy.equals(property)
-				|| Settings.compareMethod.equals(property)) {
-			updateValues(ALL & ~TEXT);
-			forceResize();
-
-		} else if (Run.STATE_PROPERTY.equals(property)) {
-			if (run.getState() == State.NULL || run.getState() == State.READY) {
-				updateValues(ALL & ~TEXT);
-			}
-			updateVisibility(ALL);
-		} else if (Settings.footerUseSplitData.equals(property)) {
-			updateValues(ALL);
-		} else if (Settings.footerShowBestTime.equals(property)
-				|| Settings.footerMultiline.equals(property)) {
-
-			updateVisibility(BEST);
-			forceResize();
-		} else if (Settings.footerShowDeltaLabels.equals(property)
-				|| Settings.footerShowWorldRecord.equals(property)) {
-			updateVisibility(TEXT);
-			forceResize();
-		} else if (Settings.footerVerbose.equals(property)) {
-			updateValues(DELTA);
-			updateVisibility(VERBOSE);
-			forceResize();
-		} else if (Settings.coreFont.equals(property)) {
-			updateFonts(TEXT);
-			forceResize();
-		} else if (Settings.coreOtherTimeFont.equals(property)) {
-			updateFonts(TIME | DELTA);
-			forceResize();
-		} else if (Settings.windowUserResizable.equals(property)
-		           || Settings.windowWidth.equals(property)) {
-			updateSize();
-			forceResize();
-		} else if (Settings.footerShowSumOfBest.equals(property)) {
-			updateVisibility(BEST | TEXT);
-			updateValues(TIME | TEXT);
-			updateSize();
-			forceResize();
-		} else if (Run.RECORD_CATEGORY_PROPERTY.equals(property)) {
-			updateValues(WORLD_RECORD);
-		}
+		dispatcher.dispatch(event);
 	}
 
 	private void forceResize() {
@@ -275,6 +222,106 @@ class Footer extends JPanel {
 
 	// -------------------------------------------------------------- UTILITIES
 
+	/**
+	 * Registers the reactions of the footer to the updates of the run and
+	 * settings properties it displays.
+	 */
+	private void registerHandlers() {
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				updateValues(ALL & ~TEXT);
+				updateColors(TIME | DELTA);
+				updateVisibility(ALL);
+			}
+		}, Run.CURRENT_SEGMENT_PROPERTY);
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				updateColors(DELTA);
+			}
+		}, Settings.colorTimeGainedWhileBehind, Settings.colorTimeLostWhileBehind,
+				Settings.colorTimeLostWhileAhead,
+				Settings.colorTimeGainedWhileAhead);
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				updateColors(TIME | DELTA);
+			}
+		}, Settings.colorTime, Settings.colorNewRecord);
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				updateColors(TEXT);
+			}
+		}, Settings.colorForeground);
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				updateValues(ALL & ~TEXT);
+				forceResize();
+			}
+		}, Settings.accuracy, Settings.compareMethod, Settings.timingMethod);
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				if (run.getState() == State.NULL || run.getState() == State.READY) {
+					updateValues(ALL & ~TEXT);
+				}
+				updateVisibility(ALL);
+			}
+		}, Run.STATE_PROPERTY);
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				updateValues(ALL);
+			}
+		}, Settings.footerUseSplitData);
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				updateVisibility(BEST);
+				forceResize();
+			}
+		}, Settings.footerShowBestTime, Settings.footerMultiline);
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				updateVisibility(TEXT);
+				forceResize();
+			}
+		}, Settings.footerShowDeltaLabels, Settings.footerShowWorldRecord);
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				updateValues(DELTA);
+				updateVisibility(VERBOSE);
+				forceResize();
+			}
+		}, Settings.footerVerbose);
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				updateFonts(TEXT);
+				forceResize();
+			}
+		}, Settings.coreFont);
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				updateFonts(TIME | DELTA);
+				forceResize();
+			}
+		}, Settings.coreOtherTimeFont);
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				updateSize();
+				forceResize();
+			}
+		}, Settings.windowUserResizable, Settings.windowWidth);
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				updateVisibility(BEST | TEXT);
+				updateValues(TIME | TEXT);
+				updateSize();
+				forceResize();
+			}
+		}, Settings.footerShowSumOfBest);
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				updateValues(WORLD_RECORD);
+			}
+		}, Run.RECORD_CATEGORY_PROPERTY, Run.RECORD_PROPERTY);
+	}
+
 	/**
 	 * Places the sub-components within this component.
 	 */
@@ -422,7 +469,7 @@ class Footer extends JPanel {
 					deltaBest.setForeground(colorNR);
 					inlineDeltaBest.setForeground(colorNR);
 				} else {
-					int compare = tmDlta.compareTo(Time.ZERO);
+					int compare = Long.compare(tmDlta, 0L);
 					if (compare > 0) {
 						delta.setForeground(Settings.colorTimeLostWhileBehind.get());
 					} else {
@@ -484,27 +531,27 @@ class Footer extends JPanel {
 		boolean hasPrevious = run.hasPreviousSegment();
 		int     pIndex      = run.getPrevious();
 		Segment pSegment    = null;
-		Time    live;
+		long    live;
   
 		if (hasPrevious) {
 			pSegment = run.getSegment(pIndex);
 		}
 		if ((identifier & TIME) == TIME) {
-			Time    set;
+			long    set;
 			if (hasPrevious) {
 				if (useSplit) {
-					live  = run.getTime(pIndex, Segment.LIVE);
-					set   = run.getTime(pIndex, Segment.SET);
+					live  = run.getTimeMillis(pIndex, Segment.LIVE);
+					set   = run.getTimeMillis(pIndex, Segment.SET);
 				} else {
-					live  = pSegment.getTime(Segment.LIVE);
-					set   = pSegment.getTime(Segment.SET);
+					live  = pSegment.getTimeMillis(Segment.LIVE);
+					set   = pSegment.getTimeMillis(Segment.SET);
 				}
-				time.setText("" + (set == null ? "--" : set));
-				liveL.setText("" + (live == null ? "--" : live));
+				time.setText(format(set));
+				liveL.setText(format(live));
 				liveR.setText(liveL.getText());
-				Time bTime = pSegment.getTime(Segment.BEST);
-				inlineBest.setText("| " + (bTime == null ? "--" : bTime));
-				best.setText("" + (bTime == null ? "--" : bTime));
+				long bTime = pSegment.getTimeMillis(Segment.BEST);
+				inlineBest.setText("| " + format(bTime));
+				best.setText(format(bTime));
 			} else {
 				time.setText("");
 				liveL.setText("");
@@ -512,56 +559,55 @@ class Footer extends JPanel {
 				best.setText("");
 				inlineBest.setText("");
 			}
-			Time sumOfBestTime = run.getSumOfBest();
-			if (sumOfBestTime.getMilliseconds() > 0)
-				sumOfBest.setText(sumOfBestTime.toString());
+			long sumOfBestTime = run.getSumOfBestMillis();
+			if (sumOfBestTime > 0)
+				sumOfBest.setText(Time.format(sumOfBestTime));
 			else
 				sumOfBest.setText("");
 		}
 		if ((identifier & DELTA) == DELTA) {
 			if (hasPrevious) {
 				if (useSplit) {
-					tmDlta = run.getTime(pIndex, Segment.DELTA);
-					live      = run.getTime(pIndex, Segment.LIVE);
+					tmDlta = run.getTimeMillis(pIndex, Segment.DELTA);
+					live      = run.getTimeMillis(pIndex, Segment.LIVE);
 
-					if (tmDlta == null || live == null) {
+					if (tmDlta == Time.UNDEFINED || live == Time.UNDEFINED) {
 						delta.setText("--");
 					} else {
-						delta.setText(tmDlta.toString(true));
+						delta.setText(Time.format(tmDlta, true));
 					}
 				} else {
-					tmDlta = pSegment.getTime(Segment.DELTA);
-					live      = pSegment.getTime(Segment.LIVE);
-					Time set  = pSegment.getTime(Segment.SET);
+					tmDlta = pSegment.getTimeMillis(Segment.DELTA);
+					live      = pSegment.getTimeMillis(Segment.LIVE);
+					long set  = pSegment.getTimeMillis(Segment.SET);
 
-					Time dBst = pSegment.getTime(Segment.DELTA_BEST);
-					inlineDeltaBest.setText("| " + (dBst == null ? "--" : dBst.toString(true)));
-					deltaBest.setText("" + (dBst == null ? "--" : dBst.toString(true)));
+					long dBst = pSegment.getTimeMillis(Segment.DELTA_BEST);
+					inlineDeltaBest.setText("| " + formatDelta(dBst));
+					deltaBest.setText(formatDelta(dBst));
 
-					if (set != null && pIndex > 1) {
-						set = set.clone();
+					if (set != Time.UNDEFINED && pIndex > 1) {
 						for (int i = pIndex - 1; i >= 0; i--) {
 							Segment pSeg = run.getSegment(i);
-							Time    ante = pSeg.getTime(Segment.LIVE);
-							if (ante == null) {
-								set.add(pSeg.getTime(Segment.SET));
+							if (pSeg.getTimeMillis(Segment.LIVE) == Time.UNDEFINED) {
+								long ante = pSeg.getTimeMillis(Segment.SET);
+								set += (ante == Time.UNDEFINED ? 0L : ante);
 							} else {
 								break;
 							}
 						}
 						tmDlta = Time.getDelta(live, set);
 					}
-					if (tmDlta == null || live == null) {
+					if (tmDlta == Time.UNDEFINED || live == Time.UNDEFINED) {
 						delta.setText("--");
 						inlineDeltaBest.setText("| --");
 						deltaBest.setText("--");
 					} else {
-						delta.setText(tmDlta.toString(true));
+						delta.setText(Time.format(tmDlta, true));
 					}
 					if (pIndex > 0) {
-						Time sTime = run.getSegment(pIndex - 1)
-														.getTime(Segment.SET);
-						if (sTime == null) {
+						long sTime = run.getSegment(pIndex - 1)
+														.getTimeMillis(Segment.SET);
+						if (sTime == Time.UNDEFINED) {
 							delta.setText("--");
 						}
 					}
@@ -593,6 +639,21 @@ class Footer extends JPanel {
 		}
 	}
 
+	/**
+	 * Returns the given time as a string, or dashes if it is undefined.
+	 */
+	private static String format(long time) {
+		return (time == Time.UNDEFINED ? "--" : Time.format(time));
+	}
+
+	/**
+	 * Returns the given delta of time as a signed string, or dashes if it is
+	 * undefined.
+	 */
+	private static String formatDelta(long time) {
+		return (time == Time.UNDEFINED ? "--" : Time.format(time, true));
+	}
+
 	private void updateSize() {
 	}
 }
@@ -5,6 +5,7 @@ import org.fenix.llanfair.Run;
 import org.fenix.llanfair.Run.State;
 import org.fenix.llanfair.Segment;
 import org.fenix.llanfair.Time;
+import org.fenix.llanfair.config.PropertyDispatcher;
 import org.fenix.llanfair.config.Settings;
 import org.fenix.utils.gui.GBC;
 import org.fenix.utils.locale.LocaleEvent;
@@ -12,6 +13,7 @@ import org.fenix.utils.locale.LocaleEvent;
 import javax.swing.*;
 import javax.swing.event.TableModelEvent;
 import java.awt.*;
+import java.awt.image.BufferedImage;
 import java.beans.PropertyChangeEvent;
 
 /**
@@ -93,6 +95,11 @@ class Graph extends JPanel {
 	 */
 	private JLabel scaleText;
 
+	/**
+	 * Handlers of the updates of the run and settings properties.
+	 */
+	private PropertyDispatcher dispatcher;
+
 	// ----------------------------------------------------------- CONSTRUCTORS
 
 	/**
@@ -105,6 +112,9 @@ class Graph extends JPanel {
 		scale     = new JLabel();
 		scaleText = new JLabel();
 
+		dispatcher = new PropertyDispatcher();
+		registerHandlers();
+
 		setRun(run);
 		setOpaque(false);
 
@@ -128,6 +138,7 @@ class Graph extends JPanel {
 	void setRun(Run run) {
 		this.run = run;
 		updateValues(TIME);
+		canvas.invalidateCache();
 	}
 
 	/**
@@ -137,45 +148,7 @@ class Graph extends JPanel {
 	 * @param   event   - the event describing the update.
 	 */
 	void processPropertyChangeEvent(PropertyChangeEvent event) {
-		String property = event.getPropertyName();
-		// Settings.COLOR_FOREGROUND
-		if (Settings.colorForeground.equals(property)) {
-			updateColors(TEXT);
-			canvas.repaint();
-		// Settings.COLOR_TIME
-		} else if (Settings.colorTime.equals(property)) {
-			updateColors(TIME);
-		// Settings.COLOR_BACKGROUND, COLOR_TIME_LOST, COLOR_TIME_GAINED
-		// or Run.CURRENT_SEGMENT_PROPERTY
-		} else if (Settings.colorBackground.equals(property)
-				|| Settings.colorTimeGainedWhileBehind.equals(property)
-		        || Settings.colorTimeLostWhileBehind.equals(property)
-				|| Settings.colorTimeGainedWhileAhead.equals(property)
-		        || Settings.colorTimeLostWhileAhead.equals(property)
-				|| Settings.colorNewRecord.equals(property)
-				|| Run.CURRENT_SEGMENT_PROPERTY.equals(property)) {
-			canvas.repaint();
-		// Settings.COMPARE_PERCENT or Settings.COMPARE_METHOD
-		} else if (Settings.graphScale.equals(property)
-				|| Settings.compareMethod.equals(property)) {
-			updateValues(TIME);
-			canvas.repaint();
-		// Settings.ACCURACY
-		} else if (Settings.accuracy.equals(property)) {
-			updateValues(TIME);
-		// Run.STATE_PROPERTY
-		} else if (Run.STATE_PROPERTY.equals(property)) {
-			if (run.getState() == State.READY) {
-				canvas.repaint();
-			} else if (run.getState() == State.NULL) {
-				updateValues(TIME);
-			}
-		} else if (Settings.coreFont.equals(property)) {
-			updateFonts(ALL);
-		} else if (Settings.windowUserResizable.equals(property) || Settings.windowWidth.equals(property)) {
-			updateSize();
-			forceResize();
-		}
+		dispatcher.dispatch(event);
 	}
 
 	private void forceResize() {
@@ -197,7 +170,7 @@ class Graph extends JPanel {
 				|| column == Run.COLUMN_SEGMENT
 				|| column == Run.COLUMN_TIME) {
 			updateValues(TIME);
-			canvas.repaint();
+			canvas.invalidateCache();
 		}
 	}
 
@@ -213,18 +186,92 @@ class Graph extends JPanel {
 
 	// -------------------------------------------------------------- UTILITIES
 
+	/**
+	 * Registers the reactions of the graph to the updates of the run and
+	 * settings properties it displays.
+	 */
+	private void registerHandlers() {
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				updateColors(TEXT);
+				canvas.invalidateCache();
+			}
+		}, Settings.colorForeground);
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				updateColors(TIME);
+			}
+		}, Settings.colorTime);
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				canvas.invalidateCache();
+			}
+		}, Settings.colorBackground, Settings.colorTimeGainedWhileBehind,
+				Settings.colorTimeLostWhileBehind,
+				Settings.colorTimeGainedWhileAhead,
+				Settings.colorTimeLostWhileAhead, Settings.colorNewRecord);
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				canvas.repaint();
+			}
+		}, Run.CURRENT_SEGMENT_PROPERTY);
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				updateValues(TIME);
+				canvas.invalidateCache();
+			}
+		}, Settings.graphScale, Settings.compareMethod, Settings.timingMethod);
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				updateValues(TIME);
+			}
+		}, Settings.accuracy);
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				if (run.getState() == State.READY) {
+					canvas.invalidateCache();
+				} else if (run.getState() == State.NULL) {
+					updateValues(TIME);
+				}
+			}
+		}, Run.STATE_PROPERTY);
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				updateFonts(ALL);
+			}
+		}, Settings.coreFont);
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				updateSize();
+				forceResize();
+			}
+		}, Settings.windowUserResizable, Settings.windowWidth);
+	}
+
 	/**
 	 * Returns a percent representing the delta split time of the segment of
 	 * given index in relation to a set fraction of the whole run given by
-	 * {@link Run#getCompareTime()}.
+	 * {@link Run#getCompareTimeMillis()}.
 	 *
 	 * @param   index   - the index of the segment to compare.
 	 * @return  the percent of the segment delta split time and the run’s
 	 *          compare time.
 	 */
 	protected long getCompareTimePercent(int index) {
-		long compare = run.getCompareTime().getMilliseconds();
-		long delta   = run.getTime(index, Segment.DELTA).getMilliseconds();
+		return getCompareTimePercent(index, run.getCompareTimeMillis());
+	}
+
+	/**
+	 * Returns a percent representing the delta split time of the segment of
+	 * given index in relation to the given compare time.
+	 *
+	 * @param   index   - the index of the segment to compare.
+	 * @param   compare - the compare time of the run, in milliseconds.
+	 * @return  the percent of the segment delta split time and the compare
+	 *          time.
+	 */
+	protected long getCompareTimePercent(int index, long compare) {
+		long delta = run.getTimeMillis(index, Segment.DELTA);
 
 		return (delta * 100L) / compare;
 	}
@@ -252,8 +299,7 @@ class Graph extends JPanel {
 	private void updateValues(int identifier) {
 		// TIME
 		if ((identifier & TIME) == TIME) {
-			Time time = run.getCompareTime();
-			scale.setText("" + (time == null ? "???" : time));
+			scale.setText(Time.format(run.getCompareTimeMillis()));
 		}
 		// TEXT
 		if ((identifier & TEXT) == TEXT) {
@@ -299,82 +345,162 @@ class Graph extends JPanel {
 
 	/**
 	 * A simple panel whose paint method has been overriden to draw the graph.
+	 * The graph is rendered in an image which is extended with the vertices
+	 * of the newly split segments and only redrawn entirely when the canvas
+	 * is resized or when {@link #invalidateCache()} is called.
 	 *
 	 * @author  Xavier "Xunkar" Sencert
 	 */
 	protected class Canvas extends JPanel {
 
+		// ---------------------------------------------------- ATTRIBUTES
+
+		/**
+		 * Image in which the graph is rendered.
+		 */
+		private BufferedImage buffer;
+
+		/**
+		 * Wether the content of the buffer can be extended or must be
+		 * entirely redrawn.
+		 */
+		private boolean valid;
+
+		/**
+		 * Number of segments whose vertex has been considered for drawing.
+		 */
+		private int drawn;
+
+		/**
+		 * Abscissa of the last drawn vertex.
+		 */
+		private int prevX;
+
+		/**
+		 * Ordinate of the last drawn vertex.
+		 */
+		private int prevY;
+
 		// ----------------------------------------------------- INTERFACE
 
+		/**
+		 * Discards the rendered graph, which will be entirely redrawn on the
+		 * next repaint. Must be called whenever the appearance of the
+		 * already drawn vertices could change.
+		 */
+		void invalidateCache() {
+			valid = false;
+			repaint();
+		}
+
 		/**
 		 * Draws the graph onto the canvas.
 		 */
 		@Override protected void paintComponent(Graphics g) {
-			Graphics2D g2 = (Graphics2D) g;
+			int clipH = getHeight();
+			int clipW = getWidth();
+			if (clipW <= 0 || clipH <= 0) {
+				return;
+			}
+			if (buffer == null || buffer.getWidth() != clipW
+					|| buffer.getHeight() != clipH) {
+				GraphicsConfiguration config = getGraphicsConfiguration();
+				if (config == null) {
+					buffer = new BufferedImage(
+							clipW, clipH, BufferedImage.TYPE_INT_RGB);
+				} else {
+					buffer = config.createCompatibleImage(clipW, clipH);
+				}
+				valid = false;
+			}
+			int target = 0;
+			if (run.getState() != State.NULL) {
+				target = Math.max(0, run.getCurrent());
+			}
+			Graphics2D g2 = buffer.createGraphics();
 			g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
 					RenderingHints.VALUE_ANTIALIAS_ON);
+			if (!valid || target < drawn) {
+				drawAxis(g2, clipW, clipH);
+			}
+			if (target > drawn) {
+				drawVertices(g2, target, clipW, clipH);
+			}
+			g2.dispose();
+			g.drawImage(buffer, 0, 0, null);
+		}
 
-			int clipH = getHeight();
-			int clipW = getWidth();
+		// ----------------------------------------------------- UTILITIES
+
+		/**
+		 * Clears the buffer and draws the axis, resetting the graph.
+		 */
+		private void drawAxis(Graphics2D g2, int clipW, int clipH) {
 			int halfH = clipH / 2;
 
 			g2.setColor(Settings.colorBackground.get());
 			g2.fillRect(0, 0, clipW, clipH);
-  
+			g2.setColor(Settings.colorForeground.get());
+			g2.drawLine(0, halfH, clipW, halfH);
+
+			valid = true;
+			drawn = 0;
+			prevX = 0;
+			prevY = halfH;
+		}
+
+		/**
+		 * Draws the vertices of the segments from the last drawn one up to
+		 * the given segment, excluded.
+		 */
+		private void drawVertices(Graphics2D g2, int target, int clipW,
+				int clipH) {
+			int halfH = clipH / 2;
+
 			Color colorFG = Settings.colorForeground.get();
 			Color colorTG = Settings.colorTimeGainedWhileAhead.get();
 			Color colorTL = Settings.colorTimeLostWhileBehind.get();
 			Color colorRC = Settings.colorNewRecord.get();
 
-			// Draw the axis.
-			g2.setColor(colorFG);
-			g2.drawLine(0, halfH, clipW, halfH);
+			int    segCnt  = run.getRowCount();
+			double segGap  = (double) clipW / segCnt;
+			long   compare = run.getCompareTimeMillis();
+
+			for (int i = drawn; i < target && i < segCnt; i++) {
+				long delta = run.getTimeMillis(i, Segment.DELTA);
+				long live  = run.getTimeMillis(i, Segment.LIVE);
+				if (delta != Time.UNDEFINED && live != Time.UNDEFINED) {
+					int percent = (int) getCompareTimePercent(i, compare);
+					g2.setColor(run.isBetterSegment(i) ? colorTG : colorTL);
+					if (run.isBestSegment(i)) {
+						g2.setColor(colorRC);
+					}
 
-			if (run.getState() != State.NULL) {
-				int    segCnt = run.getRowCount();
-				double segGap = (double) clipW / segCnt;
-
-				if (run.hasPreviousSegment()) {
-					// Coordinates of the last drawn vertex.
-					int prevX = 0;
-					int prevY = halfH;
-
-					for (int i = 0; i < run.getCurrent(); i++) {
-						Time delta = run.getTime(i, Segment.DELTA);
-						Time live  = run.getTime(i, Segment.LIVE);
-						if (delta != null && live != null) {
-							int percent = (int) getCompareTimePercent(i);
-							g2.setColor(run.isBetterSegment(i) ? colorTG : colorTL);
-							if (run.isBestSegment(i)) {
-								g2.setColor(colorRC);
-							}
-
-							// Coordinates of this segment’s vertex.
-							int coordY = halfH - ((percent * halfH) / 100);
-							coordY     = Math.min(clipH - HALF_THICKNESS, coordY);
-							coordY     = Math.max(HALF_THICKNESS, coordY);
-							int coordX = (int) ((i + 1) * segGap);
-
-							// Set the brush depending on the delta.
-							g2.setStroke(GRAPH_STROKE);
-
-							// Make sure the last vertex reaches the pane’s end.
-							if (i == segCnt - 1) {
-								coordX = Math.min(coordX - 1, clipW);
-							}
-							g2.drawLine(prevX, prevY, coordX, coordY);
-
-							// Projection along the x axis.
-							g2.setColor(colorFG);
-							g2.setStroke(DASHED_STROKE);
-							g2.drawLine(coordX, halfH, coordX, coordY);
-
-							prevY = coordY;
-							prevX = coordX;
-						}
+					// Coordinates of this segment’s vertex.
+					int coordY = halfH - ((percent * halfH) / 100);
+					coordY     = Math.min(clipH - HALF_THICKNESS, coordY);
+					coordY     = Math.max(HALF_THICKNESS, coordY);
+					int coordX = (int) ((i + 1) * segGap);
+
+					// Set the brush depending on the delta.
+					g2.setStroke(GRAPH_STROKE);
+
+					// Make sure the last vertex reaches the pane’s end.
+					if (i == segCnt - 1) {
+						coordX = Math.min(coordX - 1, clipW);
 					}
+					g2.drawLine(prevX, prevY, coordX, coordY);
+
+					// Projection along the x axis.
+					g2.setColor(colorFG);
+					g2.setStroke(DASHED_STROKE);
+					g2.drawLine(coordX, halfH, coordX, coordY);
+
+					prevY = coordY;
+					prevX = coordX;
 				}
 			}
+			drawn = target;
 		}
 
 	}
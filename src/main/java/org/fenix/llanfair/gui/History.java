@@ -5,8 +5,9 @@ import org.fenix.llanfair.Run.State;
 import org.fenix.llanfair.Segment;
 import org.fenix.llanfair.Time;
 import org.fenix.llanfair.config.Merge;
+import org.fenix.llanfair.config.PropertyDispatcher;
 import org.fenix.llanfair.config.Settings;
-import org.fenix.utils.Images;
+import org.fenix.utils.IconCache;
 import org.fenix.utils.gui.GBC;
 
 import javax.swing.*;
@@ -14,6 +15,7 @@ import javax.swing.event.TableModelEvent;
 import java.awt.*;
 import java.beans.PropertyChangeEvent;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -23,6 +25,8 @@ import java.util.List;
  * segments in the run and the number of segments to display as per the 
  * settings. If the history is set to display blank rows, the number of 
  * segments in the viewport is always the number of desired segments.
+ * Only as many rows as can be displayed are ever created; they are bound to
+ * the segments in the viewport and rebound as the viewport scrolls.
  *
  * @author  Xavier "Xunkar" Sencert
  * @version 1.2
@@ -56,12 +60,44 @@ public class History extends JPanel {
 
 	/**
 	 * List containing the rows of segment to be displayed in the history. This
-	 * list will contain all the rows we could need.
+	 * list contains exactly as many rows as the history can display at once,
+	 * each row being bound to the segment it currently represents.
 	 *
 	 * @see SegmentRow
 	 */
 	private List<SegmentRow> segmentRows;
 
+	/**
+	 * Indexes of the segments of the viewport, in order. Sized with the row
+	 * pool and reused by every computation of the viewport.
+	 */
+	private int[] viewportIndices;
+
+	/**
+	 * Rows of the viewport, in order, while it is being computed.
+	 */
+	private SegmentRow[] viewportRows;
+
+	/**
+	 * Rows bound to no segment of the viewport, while it is being computed.
+	 */
+	private List<SegmentRow> freeRows;
+
+	/**
+	 * Index of the segment currently highlighted by the marker.
+	 */
+	private int marker;
+
+	/**
+	 * Wether the segment icons were displayed during the last update.
+	 */
+	private boolean showIcons;
+
+	/**
+	 * Number of segments of the run when the rows were last populated.
+	 */
+	private int segmentCount;
+
 	/**
 	 * The ideal display size of this component. Stored in an attribute to
 	 * be retrieved easily without recomputing the size.
@@ -73,6 +109,11 @@ public class History extends JPanel {
 	 */
 	private boolean resize;
 
+	/**
+	 * Handlers of the updates of the run and settings properties.
+	 */
+	private PropertyDispatcher dispatcher;
+
 	// ----------------------------------------------------------- CONSTRUCTORS
 
 	/**
@@ -85,9 +126,14 @@ public class History extends JPanel {
 		super(new GridBagLayout());
 
 		segmentRows   = new ArrayList<SegmentRow>();
+		freeRows      = new ArrayList<SegmentRow>();
+		marker        = -1;
 		preferredSize = null;
 		resize        = false;
 
+		dispatcher = new PropertyDispatcher();
+		registerHandlers();
+
 		setRun(run);
 		setOpaque(false);
 	}
@@ -136,10 +182,9 @@ public class History extends JPanel {
 				FontMetrics timeMetric = graphics.getFontMetrics(
 						Settings.historyTimeFont.get()
 				);
-				Time tmFake = new Time(600000L);
-				Time tmRun  = run.getTime(Segment.SET);
+				long tmRun  = run.getTimeMillis(Segment.SET);
 				int  wRun   = timeMetric.stringWidth(
-						"" + (tmRun == null ? tmFake : tmRun)
+						Time.format(tmRun == Time.UNDEFINED ? 600000L : tmRun)
 				);
 				Merge merge = Settings.historyMerge.get();
 				// Live Time
@@ -199,97 +244,16 @@ public class History extends JPanel {
 	 * @param   event   - the event describing the update.
 	 */
 	void processPropertyChangeEvent(PropertyChangeEvent event) {
-		String property = event.getPropertyName();
-
-		if (Run.CURRENT_SEGMENT_PROPERTY.equals(property)) {
-			int neu = (Integer) event.getNewValue();
-			int old = (Integer) event.getOldValue();
-			// Display the live time for the segment we just split.
-			int previous = run.getPrevious();
-			if (previous > -1) {
-				updateValues(LIVE, previous, previous);
-			}
-			// And move to the next segment in the history.
-			updateColors(MARKER);
-			computeViewport();
-			// If we unsplit, restore the previous segment values.
-			if (neu < old) {
-				updateValues(TIME, neu, neu);
-				updateColors(TIME, neu, neu);
-				segmentRows.get(neu).live.setText("");
-				segmentRows.get(neu).delta.setText("");
-			}
-//            updateColumnWidth();
-		} else if (Run.STATE_PROPERTY.equals(property)) {
-			// Clear the history when the run is reset.
-			if (run.getState() == State.READY) {
-				computeViewport();
-				updateValues(TIME | LIVE);
-				updateColors(MARKER | TIME);
-//                updateColumnWidth();
-				// When the run stops, clear the marker.
-			} else if (run.getState() == State.STOPPED) {
-				updateColors(MARKER);
-			}
-		} else if (Settings.historyTabular.equals(property)) {
-			updateVisibility(LIVE | DELTA);
-			updateColumnWidth();
-		} else if (Settings.historySegmentFont.equals(property)) {
-			updateFonts(NAME);
-			forceResize();
-		} else if (Settings.historyTimeFont.equals(property)) {
-			updateFonts(TIME);
-			forceResize();
-		} else if (Settings.historyMultiline.equals(property)) {
-			updateValues(LINE);
-			forceResize();
-		} else if (Settings.historyIconSize.equals(property)) {
-			updateValues(ICON);
-			forceResize();
-		} else if (Settings.historyIcons.equals(property)) {
-			updateVisibility(ICON);
-			forceResize();
-		} else if (Settings.historyAlwaysShowLast.equals(property)
-				|| Settings.historyOffset.equals(property)) {
-			computeViewport();
-		} else if (Settings.historyRowCount.equals(property)
-				|| Settings.historyBlankRows.equals(property)) {
-			populateRows();
-		} else if (Settings.colorTimeGainedWhileAhead.equals(property)
-		           || Settings.colorTimeLostWhileAhead.equals(property)
-		           || Settings.colorTimeGainedWhileBehind.equals(property)
-		           || Settings.colorTimeLostWhileBehind.equals(property)
-		           || Settings.colorNewRecord.equals(property)) {
-			updateColors(LIVE);
-		} else if (Settings.colorHighlight.equals(property)) {
-			updateColors(MARKER);
-		} else if (Settings.colorTime.equals(property)) {
-			updateColors(TIME | LIVE);
-		} else if (Settings.colorForeground.equals(property)) {
-			updateColors(NAME);
-		} else if (Settings.accuracy.equals(property)
-				|| Settings.compareMethod.equals(property)) {
-			updateValues(LIVE | TIME);
-			forceResize();
-		} else if (Settings.historyDeltas.equals(property)) {
-			updateVisibility(DELTA);
-			forceResize();
-		} else if (Settings.historyLiveTimes.equals(property)) {
-			updateVisibility(LIVE);
-			forceResize();
-		} else if (Settings.historyMerge.equals(property)) {
-			updateValues(TIME | LIVE);
-			updateColors(TIME);
-			forceResize();
-		} else if (Settings.windowUserResizable.equals(property) || Settings.windowWidth.equals(property)) {
-			updateSize();
-			forceResize();
-		}
+		dispatcher.dispatch(event);
 	}
 
 	/**
 	 * Callback invoked by the parent when the run table of segments is
-	 * updated.
+	 * updated. Only the group of components displaying the updated column
+	 * is refreshed. Since split times accumulate, a change of time refreshes
+	 * every row following the first updated one. A change of the whole
+	 * table, such as a bulk update, populates the rows again if segments
+	 * were added or removed.
 	 *
 	 * @param   event   - the event describing the update.
 	 */
@@ -304,11 +268,24 @@ public class History extends JPanel {
 			populateRows();
 			repaint();
 		} else if (type == TableModelEvent.UPDATE) {
-			if (firstRow == TableModelEvent.HEADER_ROW) {
+			if (firstRow == TableModelEvent.HEADER_ROW
+					|| (lastRow == Integer.MAX_VALUE
+						&& segmentCount != run.getRowCount())) {
 				populateRows();
+				return;
+			}
+			int column = event.getColumn();
+			if (column == TableModelEvent.ALL_COLUMNS) {
+				updateValues(NAME | ICON, firstRow, lastRow);
+				updateValues(TIME, firstRow, Integer.MAX_VALUE);
+				updateIconVisibility(false);
+			} else if (column == Run.COLUMN_NAME) {
+				updateValues(NAME, firstRow, lastRow);
+			} else if (column == Run.COLUMN_ICON) {
+				updateValues(ICON, firstRow, lastRow);
+				updateIconVisibility(false);
 			} else {
-				updateValues(TIME | NAME | ICON, firstRow, lastRow);
-				updateVisibility(ICON);
+				updateValues(TIME, firstRow, Integer.MAX_VALUE);
 			}
 		}
 	}
@@ -316,25 +293,172 @@ public class History extends JPanel {
 	// -------------------------------------------------------------- UTILITIES
 
 	/**
-	 * Creates a segment row for each segment in the run, counting possible
-	 * blank rows in advance and places them in the panel. Each row is then
-	 * displayed using {@code setVisible()} depending on wether we want it
-	 * in the viewport or not. This function should be called everytime the
-	 * run structure is changed and rows must be added or removed.
+	 * Registers the reactions of the history to the updates of the run and
+	 * settings properties it displays.
+	 */
+	private void registerHandlers() {
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				int neu = (Integer) event.getNewValue();
+				int old = (Integer) event.getOldValue();
+				// Display the live time for the segment we just split.
+				int previous = run.getPrevious();
+				if (previous > -1) {
+					updateValues(LIVE, previous, previous);
+				}
+				// And move to the next segment in the history.
+				updateMarker();
+				computeViewport();
+				// If we unsplit, restore the previous segment values.
+				if (neu < old) {
+					updateValues(TIME, neu, neu);
+					updateColors(TIME, neu, neu);
+					SegmentRow row = getRow(neu);
+					if (row != null) {
+						row.live.setText("");
+						row.delta.setText("");
+					}
+				}
+			}
+		}, Run.CURRENT_SEGMENT_PROPERTY);
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				// Clear the history when the run is reset.
+				if (run.getState() == State.READY) {
+					updateMarker();
+					computeViewport();
+					clearLiveValues();
+				// When the run stops, clear the marker.
+				} else if (run.getState() == State.STOPPED) {
+					updateMarker();
+				}
+			}
+		}, Run.STATE_PROPERTY);
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				updateVisibility(LIVE | DELTA);
+				updateColumnWidth();
+			}
+		}, Settings.historyTabular);
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				updateFonts(NAME);
+				forceResize();
+			}
+		}, Settings.historySegmentFont);
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				updateFonts(TIME);
+				forceResize();
+			}
+		}, Settings.historyTimeFont);
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				updateValues(LINE);
+				forceResize();
+			}
+		}, Settings.historyMultiline);
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				updateValues(ICON);
+				forceResize();
+			}
+		}, Settings.historyIconSize);
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				updateIconVisibility(true);
+				forceResize();
+			}
+		}, Settings.historyIcons);
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				computeViewport();
+			}
+		}, Settings.historyAlwaysShowLast, Settings.historyOffset);
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				populateRows();
+			}
+		}, Settings.historyRowCount, Settings.historyBlankRows);
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				updateColors(LIVE);
+			}
+		}, Settings.colorTimeGainedWhileAhead, Settings.colorTimeLostWhileAhead,
+				Settings.colorTimeGainedWhileBehind,
+				Settings.colorTimeLostWhileBehind, Settings.colorNewRecord);
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				updateColors(MARKER, marker, marker);
+			}
+		}, Settings.colorHighlight);
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				updateColors(TIME | LIVE);
+			}
+		}, Settings.colorTime);
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				updateColors(NAME);
+				updateColors(MARKER, marker, marker);
+			}
+		}, Settings.colorForeground);
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				updateValues(LIVE | TIME);
+				forceResize();
+			}
+		}, Settings.accuracy, Settings.compareMethod, Settings.timingMethod);
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				updateVisibility(DELTA);
+				forceResize();
+			}
+		}, Settings.historyDeltas);
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				updateVisibility(LIVE);
+				forceResize();
+			}
+		}, Settings.historyLiveTimes);
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				updateValues(TIME | LIVE);
+				updateColors(TIME);
+				forceResize();
+			}
+		}, Settings.historyMerge);
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				updateSize();
+				forceResize();
+			}
+		}, Settings.windowUserResizable, Settings.windowWidth);
+	}
+
+	/**
+	 * Creates as many segment rows as the history can display and places them
+	 * in the panel. Rows are then bound to the segments of the viewport by
+	 * {@link #computeViewport()}, unbound rows being hidden. This function
+	 * should be called everytime the run structure is changed or the number
+	 * of rows to display is updated.
 	 */
 	private void populateRows() {
 		// Clear the panel and the row list.
 		removeAll();
 		segmentRows.clear();
-		// At most, we need as much segments as the run has or as much as
-		// is demanded by the user.
-		int count = Math.max(Settings.historyRowCount.get(), run.getRowCount());
+		// We never display more rows than demanded by the user.
+		int count = Settings.historyRowCount.get();
 		// Create and place the rows.
 		for (int i = 0; i < count; i++) {
 			SegmentRow row = new SegmentRow();
-			add(row, GBC.grid(0, i).fill(GBC.HORIZONTAL).anchor(GBC.NORTH).weight(1.0, 0.0));
+			add(row, getRowConstraints(i));
 			segmentRows.add(i, row);
 		}
+		if (viewportIndices == null || viewportIndices.length != count) {
+			viewportIndices = new int[count];
+			viewportRows    = new SegmentRow[count];
+		}
 
 		// HACK: if we're to display a set number of rows (even if blank, if the run has less then this number)
 		// we place an additional filler row that has vertical weight which pushes up the actual run rows so
@@ -347,12 +471,13 @@ public class History extends JPanel {
 				add(filler, GBC.grid(0, count).fill(GBC.BOTH).anchor(GBC.NORTH).weight(1.0, 1.0));
 			}
 		}
-		// Fill the rows with the segment data and colorize.
-		updateValues(ALL);
-		updateColors(ALL);
+		// Fonts and visibility do not depend on the bound segment.
+		segmentCount = run.getRowCount();
+		marker    = run.getCurrent();
+		showIcons = Settings.historyIcons.get() && run.getMaxIconHeight() > 0;
 		updateFonts(ALL);
 		updateVisibility(ALL);
-		// Only display the segments we can currently see.
+		// Bind the rows to the segments we can currently see.
 		computeViewport();
 		// Force computation of minimum component size.
 		forceResize();
@@ -369,8 +494,11 @@ public class History extends JPanel {
 	}
 
 	/**
-	 * Computes which segments need to be displayed in the history and sets
-	 * their visibility accordingly.
+	 * Computes which segments need to be displayed in the history and binds
+	 * the rows to them in order. A row already bound to a segment of the
+	 * viewport keeps it and is simply moved to its new place, so scrolling
+	 * by one segment only refreshes the row coming into view. Rows left
+	 * without a segment are hidden.
 	 */
 	private void computeViewport() {
 		// If we display blank rows, the row count is always the value
@@ -389,22 +517,138 @@ public class History extends JPanel {
 		if (lastSeg > run.getRowCount() - endOffset) {
 			lastSeg = run.getRowCount() - endOffset;
 		}
-		// Set the visibility of every segments accordingly.
-		for (int i = 0; i < segmentRows.size(); i++) {
-			boolean visible = (i > lastSeg - realCount) && (i <= lastSeg);
-			segmentRows.get(i).setVisible(visible);
+		// List the segments of the viewport, in order.
+		int   size    = segmentRows.size();
+		int[] indices = viewportIndices;
+		int   count   = 0;
+		for (int i = Math.max(0, lastSeg - realCount + 1);
+				i <= lastSeg && count < size; i++) {
+			indices[count++] = i;
 		}
 		// Display the last segment if the setting is enabled.
-		if (Settings.historyAlwaysShowLast.get() && run.getRowCount() > 0) {
-			segmentRows.get(run.getRowCount() - 1).setVisible(true);
+		int last = run.getRowCount() - 1;
+		if (showLast && last > -1 && lastSeg < last && count < size) {
+			indices[count++] = last;
+		}
+		// Rows already bound to a segment of the viewport keep it.
+		SegmentRow[]     slots = viewportRows;
+		List<SegmentRow> free  = freeRows;
+		for (SegmentRow row : segmentRows) {
+			int slot = -1;
+			for (int i = 0; i < count && slot < 0; i++) {
+				if (indices[i] == row.index) {
+					slot = i;
+				}
+			}
+			if (slot < 0) {
+				free.add(row);
+			} else {
+				slots[slot] = row;
+			}
+		}
+		// The other rows are rebound to the remaining segments or hidden.
+		boolean moved = false;
+		int     next  = 0;
+		for (int i = 0; i < size; i++) {
+			if (slots[i] == null) {
+				slots[i] = free.get(next++);
+			}
+			slots[i].bind(i < count ? indices[i] : -1);
+			if (segmentRows.get(i) != slots[i]) {
+				((GridBagLayout) getLayout()).setConstraints(
+						slots[i], getRowConstraints(i)
+				);
+				segmentRows.set(i, slots[i]);
+				moved = true;
+			}
+		}
+		// Leave the buffers empty for the next computation.
+		Arrays.fill(slots, null);
+		free.clear();
+		if (moved) {
+			revalidate();
+		}
+	}
+
+	/**
+	 * Returns the layout constraints of the row placed at the given slot.
+	 *
+	 * @param   slot    - the place of the row in the history.
+	 * @return  the constraints to place the row with.
+	 */
+	private GBC getRowConstraints(int slot) {
+		return GBC.grid(0, slot).fill(GBC.HORIZONTAL).anchor(GBC.NORTH)
+				.weight(1.0, 0.0);
+	}
+
+	/**
+	 * Moves the marker to the current segment, only recoloring the rows of
+	 * the previous and new marked segments.
+	 */
+	private void updateMarker() {
+		int old = marker;
+		marker  = run.getCurrent();
+		if (old != marker) {
+			updateColors(MARKER, old, old);
+			updateColors(MARKER, marker, marker);
+		}
+	}
+
+	/**
+	 * Clears the live times displayed when the run is reset. Registered times
+	 * are refreshed on every row but only the rows which were displaying live
+	 * times see their live values cleared.
+	 */
+	private void clearLiveValues() {
+		for (SegmentRow row : segmentRows) {
+			if (row.index > -1) {
+				if (row.showsLive) {
+					row.updateValues(TIME | LIVE);
+				} else {
+					row.updateValues(TIME);
+				}
+				row.updateColors(TIME);
+			}
 		}
 	}
 
+	/**
+	 * Updates the visibility of the icons if it has changed since the last
+	 * update, or unconditionally if {@code force} is set.
+	 *
+	 * @param   force   - wether to update the rows even if nothing changed.
+	 */
+	private void updateIconVisibility(boolean force) {
+		boolean show = Settings.historyIcons.get() && run.getMaxIconHeight() > 0;
+		if (force || show != showIcons) {
+			showIcons = show;
+			updateVisibility(ICON);
+		}
+	}
+
+	/**
+	 * Returns the row currently bound to the segment of given index or
+	 * {@code null} if that segment is not in the viewport.
+	 *
+	 * @param   index   - index of the segment.
+	 * @return  the row displaying the segment, if any.
+	 */
+	private SegmentRow getRow(int index) {
+		if (index > -1) {
+			for (SegmentRow row : segmentRows) {
+				if (row.index == index) {
+					return row;
+				}
+			}
+		}
+		return null;
+	}
+
 	private void updateColumnWidth() {
 		int width = 0;
 		int height = 0;
-		if (run.hasPreviousSegment()) {
-			SegmentRow previous = segmentRows.get(run.getPrevious());
+		SegmentRow previous = getRow(run.getPrevious());
+		if (previous != null) {
 			FontMetrics metrics = getGraphics().getFontMetrics(
 					Settings.historyTimeFont.get()
 			);
@@ -420,8 +664,10 @@ public class History extends JPanel {
 	}
 
 	private void updateColors(int identifier, int first, int last) {
-		for (int i = first; i <= last; i++) {
-			segmentRows.get(i).updateColors(i, identifier);
+		for (SegmentRow row : segmentRows) {
+			if (row.index >= first && row.index <= last) {
+				row.updateColors(identifier);
+			}
 		}
 	}
 
@@ -430,8 +676,12 @@ public class History extends JPanel {
 	}
 
 	private void updateValues(int identifier, int first, int last) {
-		for (int i = first; i <= last; i++) {
-			segmentRows.get(i).updateValues(i, identifier);
+		for (SegmentRow row : segmentRows) {
+			if (row.index >= first && row.index <= last) {
+				row.updateValues(identifier);
+			} else if ((identifier & LINE) == LINE) {
+				row.updateValues(LINE);
+			}
 		}
 	}
 
@@ -439,24 +689,16 @@ public class History extends JPanel {
 		updateValues(identifier, 0, run.getRowCount() - 1);
 	}
 
-	private void updateVisibility(int identifier, int first, int last) {
-		for (int i = first; i <= last; i++) {
-			segmentRows.get(i).updateVisibility(i, identifier);
-		}
-	}
-
 	private void updateVisibility(int identifier) {
-		updateVisibility(identifier, 0, run.getRowCount() - 1);
-	}
-
-	private void updateFonts(int identifier, int first, int last) {
-		for (int i = first; i <= last; i++) {
-			segmentRows.get(i).updateFonts(i, identifier);
+		for (SegmentRow row : segmentRows) {
+			row.updateVisibility(identifier);
 		}
 	}
 
 	private void updateFonts(int identifier) {
-		updateFonts(identifier, 0, run.getRowCount() - 1);
+		for (SegmentRow row : segmentRows) {
+			row.updateFonts(identifier);
+		}
 	}
 
 	private void updateSize() {
@@ -505,6 +747,18 @@ public class History extends JPanel {
 		 */
 		List<JLabel> counters;
 
+		/**
+		 * Index of the segment represented by this row or -1 if the row is
+		 * not bound to any segment.
+		 */
+		int index;
+
+		/**
+		 * Wether this row is currently displaying the live times of its
+		 * segment.
+		 */
+		boolean showsLive;
+
 		// --------------------------------------------------- CONSTRUCTORS
 
 		/**
@@ -519,6 +773,7 @@ public class History extends JPanel {
 			live     = new JLabel();
 			delta    = new JLabel();
 			counters = new ArrayList<JLabel>();
+			index    = -1;
 
 			icon.setHorizontalAlignment(JLabel.CENTER);
 			setOpaque(false);
@@ -527,27 +782,43 @@ public class History extends JPanel {
 
 		// ------------------------------------------------------ INTERFACE
 
+		/**
+		 * Binds this row to the segment of given index, refreshing its values
+		 * and colors if it was representing another segment. A row bound to
+		 * no segment (index -1) is hidden.
+		 *
+		 * @param   index   - index of the segment to represent or -1.
+		 */
+		void bind(int index) {
+			if (this.index != index) {
+				this.index = index;
+				if (index > -1) {
+					updateValues(NAME | TIME | ICON | LIVE);
+					updateColors(NAME | TIME | MARKER | LIVE);
+				}
+			}
+			setVisible(index > -1);
+		}
+
 		/**
 		 * Updates the values of the group of components specified by the
-		 * identifier for this segment row. The row must know which segment
-		 * he represents by passing the segment index.
+		 * identifier for this segment row, using the segment it is bound to.
 		 *
-		 * @param   index       - index of the segment represented by this row.
 		 * @param   identifier  - one of the constant update identifier.
 		 */
-		void updateValues(int index, int identifier) {
+		void updateValues(int identifier) {
 			if ((identifier & NAME) == NAME) {
 				name.setText(run.getSegment(index).getName());
 			}
 			if ((identifier & TIME) == TIME) {
-				Time setTime = run.getTime(index, Segment.SET);
-				time.setText("" + (setTime == null ? "?" : setTime));
+				long setTime = run.getTimeMillis(index, Segment.SET);
+				time.setText(setTime == Time.UNDEFINED ? "?" : Time.format(setTime));
 			}
 			if ((identifier & ICON) == ICON) {
 				int  iconSize = Settings.historyIconSize.get();
 				ImageIcon runIcon  = run.getSegment(index).getIcon();
 				if (runIcon != null) {
-					icon.setIcon(Images.rescale(runIcon, iconSize));
+					icon.setIcon(IconCache.get(runIcon, iconSize));
 				} else {
 					icon.setIcon(null);
 				}
@@ -563,18 +834,19 @@ public class History extends JPanel {
 				JLabel realDelta = (merge == Merge.DELTA) ? time : delta;
 				JLabel realLive  = (merge == Merge.LIVE ) ? time : live;
 
-				if (index < run.getCurrent()) {
-					Time liveTime = run.getTime(index, Segment.LIVE);
-					if (liveTime == null) {
+				showsLive = index < run.getCurrent();
+				if (showsLive) {
+					long liveTime = run.getTimeMillis(index, Segment.LIVE);
+					if (liveTime == Time.UNDEFINED) {
 						realLive.setText("?");
 						realDelta.setText("[?]");
 					} else {
-						realLive.setText("" + liveTime);
+						realLive.setText(Time.format(liveTime));
 
 						String    text = "?";
-						Time deltaTime = run.getTime(index, Segment.DELTA);
-						if (deltaTime != null) {
-							text = deltaTime.toString(true);
+						long deltaTime = run.getTimeMillis(index, Segment.DELTA);
+						if (deltaTime != Time.UNDEFINED) {
+							text = Time.format(deltaTime, true);
 						}
 						if (merge == Merge.DELTA) {
 							realDelta.setText(text);
@@ -583,23 +855,17 @@ public class History extends JPanel {
 						}
 					}
 				} else {
-					Time setTime = run.getTime(index, Segment.SET);
-					realLive.setText(
-							(merge == Merge.LIVE) ?
-							"" + (setTime == null ? "?" : setTime)
-							: ""
-					);
-					realDelta.setText(
-							(merge == Merge.DELTA) ?
-							"" + (setTime == null ? "?" : setTime)
-							: ""
-					);
+					long   setTime = run.getTimeMillis(index, Segment.SET);
+					String setText = (setTime == Time.UNDEFINED)
+							? "?" : Time.format(setTime);
+					realLive.setText((merge == Merge.LIVE) ? setText : "");
+					realDelta.setText((merge == Merge.DELTA) ? setText : "");
 				}
-				updateColors(index, LIVE);
+				updateColors(LIVE);
 			}
 		}
 
-		void updateVisibility(int index, int identifier) {
+		void updateVisibility(int identifier) {
 			if ((identifier & LIVE) == LIVE) {
 				live.setVisible(
 						Settings.historyLiveTimes.get() || Settings.historyTabular.get()
@@ -609,12 +875,11 @@ public class History extends JPanel {
 				delta.setVisible(Settings.historyDeltas.get()  || Settings.historyTabular.get());
 			}
 			if ((identifier & ICON) == ICON) {
-				icon.setVisible(Settings.historyIcons.get()
-						&& run.getMaxIconHeight() > 0);
+				icon.setVisible(showIcons);
 			}
 		}
 
-		void updateColors(int index, int identifier) {
+		void updateColors(int identifier) {
 			if ((identifier & NAME) == NAME) {
 				name.setForeground(Settings.colorForeground.get());
 			}
@@ -638,15 +903,15 @@ public class History extends JPanel {
 				JLabel realLive  = (merge == Merge.LIVE ) ? time : live;
 
 				if (index <= prev) {
-					Time liveTime  = run.getTime(index, Segment.LIVE);
-					Time deltaTime = run.getTime(index, Segment.DELTA);
+					long liveTime  = run.getTimeMillis(index, Segment.LIVE);
+					long deltaTime = run.getTimeMillis(index, Segment.DELTA);
 					if (run.isBestSegment(index)) {
 						realLive.setForeground(recd);
 						realDelta.setForeground(recd);
 					} else {
-						if (deltaTime != null) {
-							int compare = deltaTime.compareTo(Time.ZERO);
-							if (liveTime == null) {
+						if (deltaTime != Time.UNDEFINED) {
+							int compare = Long.compare(deltaTime, 0L);
+							if (liveTime == Time.UNDEFINED) {
 								realLive.setForeground(neut);
 								realDelta.setForeground(neut);
 							} else {
@@ -680,7 +945,7 @@ public class History extends JPanel {
 			}
 		}
 
-		void updateFonts(int index, int identifier) {
+		void updateFonts(int identifier) {
 			if ((identifier & NAME) == NAME) {
 				name.setFont(Settings.historySegmentFont.get());
 			}
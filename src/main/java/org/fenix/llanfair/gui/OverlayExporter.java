@@ -0,0 +1,360 @@
+package org.fenix.llanfair.gui;
+
+import org.fenix.llanfair.Run;
+import org.fenix.llanfair.Run.State;
+import org.fenix.llanfair.config.Settings;
+import org.fenix.utils.UserSettings;
+
+import javax.imageio.ImageIO;
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renders a {@link RunPane} offscreen at a fixed frame rate and publishes the
+ * frames for capture software, sparing them a screen grab of the window. The
+ * pane is only painted when something may have changed: while the run is
+ * timing, or after {@link #markDirty()} has been called. Frames identical to
+ * the previous one are not published.
+ * <p>
+ * Frames are written in a memory-mapped file laid out as follows, all values
+ * being little-endian:
+ * <pre>
+ *  0  int   magic number, "LLFR"
+ *  4  int   format version, currently 1
+ *  8  int   width of the frame in pixels
+ * 12  int   height of the frame in pixels
+ * 16  long  sequence number, odd while a frame is being written
+ * 24  long  time of the frame, in milliseconds since the epoch
+ * 32  int[] pixels, row by row, as 0xAARRGGBB (BGRA byte order)
+ * </pre>
+ * Readers should read the sequence number before and after copying a frame
+ * and discard the copy if they differ or if it is odd. Frames can also be
+ * saved as a sequence of PNG files, written on a background thread. The
+ * sequence keeps the last {@link #PNG_SEQUENCE_LENGTH} frames only, their
+ * files being reused in a ring, so that it never fills the disk.
+ *
+ * @author  Xavier "Xunkar" Sencert
+ */
+public class OverlayExporter implements ActionListener {
+
+	// -------------------------------------------------------------- CONSTANTS
+
+	/**
+	 * Magic number opening the frame file.
+	 */
+	public static final int MAGIC = 0x4C4C4652;
+
+	/**
+	 * Version of the layout of the frame file.
+	 */
+	public static final int VERSION = 1;
+
+	/**
+	 * Size in bytes of the header of the frame file.
+	 */
+	public static final int HEADER_SIZE = 32;
+
+	/**
+	 * Offset of the sequence number in the frame file.
+	 */
+	private static final int SEQUENCE_OFFSET = 16;
+
+	/**
+	 * Maximum number of PNG frames waiting to be written. Frames produced
+	 * while the queue is full are dropped.
+	 */
+	private static final int PNG_QUEUE_SIZE = 4;
+
+	/**
+	 * Number of PNG files of the sequence. Once reached, the oldest frames
+	 * are overwritten, the number of a frame being its index modulo this.
+	 */
+	public static final int PNG_SEQUENCE_LENGTH = 1000;
+
+	// ------------------------------------------------------------- ATTRIBUTES
+
+	/**
+	 * Pane to render.
+	 */
+	private RunPane runPane;
+
+	/**
+	 * Run represented by the pane.
+	 */
+	private Run run;
+
+	/**
+	 * Timer ticking at the frame rate.
+	 */
+	private Timer timer;
+
+	/**
+	 * Image in which the pane is rendered, reused between frames.
+	 */
+	private BufferedImage image;
+
+	/**
+	 * Pixels of the last published frame.
+	 */
+	private int[] published;
+
+	/**
+	 * Wether the pane must be painted on the next tick.
+	 */
+	private boolean dirty;
+
+	/**
+	 * File in which the frames are published.
+	 */
+	private File file;
+
+	private RandomAccessFile output;
+
+	private MappedByteBuffer buffer;
+
+	private long sequence;
+
+	/**
+	 * Directory in which PNG frames are written, {@code null} if the PNG
+	 * sequence is disabled.
+	 */
+	private File pngDirectory;
+
+	private ThreadPoolExecutor pngWriter;
+
+	private int pngCount;
+
+	// ----------------------------------------------------------- CONSTRUCTORS
+
+	/**
+	 * Creates a stopped exporter for the given pane.
+	 *
+	 * @param   runPane - the pane to render.
+	 * @param   run     - the run represented by the pane.
+	 */
+	public OverlayExporter(RunPane runPane, Run run) {
+		this.runPane = runPane;
+		this.run     = run;
+		timer        = new Timer(1000, this);
+		dirty        = true;
+	}
+
+	// -------------------------------------------------------------- INTERFACE
+
+	/**
+	 * Sets the run represented by the pane.
+	 *
+	 * @param   run - the new run represented by the pane.
+	 */
+	public void setRun(Run run) {
+		this.run = run;
+		markDirty();
+	}
+
+	/**
+	 * Returns the file in which the frames are published, as per the
+	 * settings.
+	 *
+	 * @return  the frame file.
+	 */
+	public File getFile() {
+		String path = Settings.overlayFile.get();
+		if (path == null) {
+			return new File(UserSettings.getSettingsPath(), "overlay.frame");
+		}
+		return new File(path);
+	}
+
+	/**
+	 * Returns wether the exporter is currently publishing frames.
+	 */
+	public boolean isRunning() {
+		return timer.isRunning();
+	}
+
+	/**
+	 * Starts publishing frames using the current settings.
+	 *
+	 * @throws  IOException if the frame file cannot be opened.
+	 */
+	public void start() throws IOException {
+		stop();
+		file     = getFile();
+		output   = new RandomAccessFile(file, "rw");
+		sequence = 0L;
+
+		if (Settings.overlayPngSequence.get()) {
+			pngDirectory = new File(UserSettings.getSettingsPath(), "overlay");
+			pngDirectory.mkdirs();
+			pngCount  = 0;
+			pngWriter = new ThreadPoolExecutor(
+					1, 1, 0L, TimeUnit.MILLISECONDS,
+					new ArrayBlockingQueue<Runnable>(PNG_QUEUE_SIZE),
+					new ThreadFactory() {
+						@Override public Thread newThread(Runnable runnable) {
+							Thread thread = new Thread(runnable, "OverlayPNG");
+							thread.setDaemon(true);
+							return thread;
+						}
+					},
+					new ThreadPoolExecutor.DiscardPolicy()
+			);
+		}
+		int rate = Math.max(1, Math.min(60, Settings.overlayFrameRate.get()));
+		timer.setDelay(1000 / rate);
+		timer.setInitialDelay(0);
+		dirty = true;
+		timer.start();
+	}
+
+	/**
+	 * Stops publishing frames and releases the frame file.
+	 */
+	public void stop() {
+		timer.stop();
+		if (pngWriter != null) {
+			pngWriter.shutdown();
+			pngWriter    = null;
+			pngDirectory = null;
+		}
+		if (output != null) {
+			try {
+				output.close();
+			} catch (IOException ex) {
+				// $FALL-THROUGH$
+			}
+			output = null;
+		}
+		buffer    = null;
+		published = null;
+	}
+
+	/**
+	 * Notifies the exporter that the appearance of the pane may have changed
+	 * and that it should be painted on the next frame.
+	 */
+	public void markDirty() {
+		dirty = true;
+	}
+
+	// -------------------------------------------------------------- CALLBACKS
+
+	/**
+	 * Callback invoked by the timer on every frame.
+	 */
+	@Override public void actionPerformed(ActionEvent event) {
+		State state = run.getState();
+		if (dirty || state == State.ONGOING || state == State.PAUSED) {
+			dirty = false;
+			renderFrame();
+		}
+	}
+
+	// -------------------------------------------------------------- UTILITIES
+
+	/**
+	 * Paints the pane into the image and publishes it if it differs from the
+	 * last published frame.
+	 */
+	private void renderFrame() {
+		int width  = runPane.getWidth();
+		int height = runPane.getHeight();
+		if (width <= 0 || height <= 0) {
+			dirty = true;
+			return;
+		}
+		if (image == null || image.getWidth() != width
+				|| image.getHeight() != height) {
+			image     = new BufferedImage(
+					width, height, BufferedImage.TYPE_INT_ARGB);
+			published = null;
+		}
+		Graphics2D g2 = image.createGraphics();
+		g2.setComposite(AlphaComposite.Clear);
+		g2.fillRect(0, 0, width, height);
+		g2.setComposite(AlphaComposite.SrcOver);
+		runPane.paint(g2);
+		g2.dispose();
+
+		int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer())
+				.getData();
+		if (published != null && Arrays.equals(pixels, published)) {
+			return;
+		}
+		if (published == null) {
+			published = pixels.clone();
+		} else {
+			System.arraycopy(pixels, 0, published, 0, pixels.length);
+		}
+		try {
+			writeFrame(width, height, pixels);
+		} catch (IOException ex) {
+			stop();
+			return;
+		}
+		if (pngWriter != null) {
+			writePng(width, height, pixels);
+		}
+	}
+
+	/**
+	 * Writes the given frame in the memory-mapped file, remapping the file if
+	 * the size of the frame changed.
+	 */
+	private void writeFrame(int width, int height, int[] pixels)
+			throws IOException {
+		long size = HEADER_SIZE + 4L * pixels.length;
+		if (buffer == null || buffer.capacity() != size) {
+			buffer = output.getChannel().map(
+					FileChannel.MapMode.READ_WRITE, 0L, size);
+			buffer.order(ByteOrder.LITTLE_ENDIAN);
+			buffer.putInt(0, MAGIC);
+			buffer.putInt(4, VERSION);
+		}
+		buffer.putLong(SEQUENCE_OFFSET, ++sequence);
+		buffer.putInt(8, width);
+		buffer.putInt(12, height);
+		buffer.putLong(24, System.currentTimeMillis());
+		buffer.position(HEADER_SIZE);
+		buffer.asIntBuffer().put(pixels);
+		buffer.putLong(SEQUENCE_OFFSET, ++sequence);
+	}
+
+	/**
+	 * Queues a copy of the given frame to be written as the next PNG file of
+	 * the sequence, replacing the oldest one once the sequence is full.
+	 */
+	private void writePng(int width, int height, int[] pixels) {
+		final BufferedImage copy = new BufferedImage(
+				width, height, BufferedImage.TYPE_INT_ARGB);
+		copy.setRGB(0, 0, width, height, pixels, 0, width);
+		final File png = new File(
+				pngDirectory, String.format("frame-%03d.png", pngCount));
+		pngCount = (pngCount + 1) % PNG_SEQUENCE_LENGTH;
+		pngWriter.execute(new Runnable() {
+			@Override public void run() {
+				try {
+					ImageIO.write(copy, "png", png);
+				} catch (IOException ex) {
+					// $FALL-THROUGH$
+				}
+			}
+		});
+	}
+
+}
@@ -2,6 +2,7 @@ package org.fenix.llanfair.gui;
 
 import org.fenix.llanfair.Run;
 import org.fenix.llanfair.Run.State;
+import org.fenix.llanfair.config.PropertyDispatcher;
 import org.fenix.llanfair.config.Settings;
 import org.fenix.utils.gui.GBC;
 import org.fenix.utils.locale.LocaleEvent;
@@ -130,6 +131,11 @@ public class RunPane extends JPanel {
 	 */
 	private History history;
 
+	/**
+	 * Handlers of the updates of the run and settings properties.
+	 */
+	private PropertyDispatcher dispatcher;
+
 	// ----------------------------------------------------------- CONSTRUCTORS
 
 	/**
@@ -155,6 +161,9 @@ public class RunPane extends JPanel {
 		title.setHorizontalAlignment(SwingConstants.CENTER);
 		subTitle.setHorizontalAlignment(SwingConstants.CENTER);
 
+		dispatcher = new PropertyDispatcher();
+		registerHandlers();
+
 		placeComponents();
 		setRun(run);
 
@@ -211,52 +220,7 @@ public class RunPane extends JPanel {
 		graph.processPropertyChangeEvent(event);
 		history.processPropertyChangeEvent(event);
 		footer.processPropertyChangeEvent(event);
-
-		String property = event.getPropertyName();
-		if (Run.STATE_PROPERTY.equals(property)) {
-			if (run.getState() == State.READY || run.getState() == State.NULL) {
-				updateValues(ATTEMPTS | SEPARATOR);
-			}
-		} else if (Run.NAME_PROPERTY.equals(property)) {
-			updateValues(TITLE);
-		} else if (Settings.colorBackground.equals(property)) {
-			updateColors(BACKGROUND);
-		} else if (Settings.colorForeground.equals(property)) {
-			updateColors(TEXT);
-		} else if (Settings.colorSeparators.equals(property)) {
-			updateColors(SEPARATOR);
-		} else if (Settings.historyRowCount.equals(property)) {
-			updateValues(SEPARATOR);
-		} else if (Settings.colorTitle.equals(property)
-		           || Settings.colorSubTitle.equals(property)) {
-			updateColors(TITLE);
-		} else if (Settings.graphDisplay.equals(property)) {
-			updateVisibility(GRAPH);
-		} else if (Settings.footerDisplay.equals(property)) {
-			updateVisibility(FOOTER);
-		} else if (Settings.headerShowTitle.equals(property)) {
-			updateVisibility(TITLE);
-			updateValues(SEPARATOR);
-		} else if (Settings.headerShowSubtitle.equals(property)) {
-			updateVisibility(SUBTITLE);
-			updateValues(SEPARATOR);
-		} else if (Settings.headerShowAttempts.equals(property)) {
-			updateVisibility(ATTEMPTS);
-			updateValues(SEPARATOR);
-		} else if (Settings.accuracy.equals(property)
-				|| Run.SUBTITLE_PROPERTY.equals(property)) {
-			updateValues(TITLE);
-		} else if (Run.ATTEMPT_COUNTER_PROPERTY.equals(property) ||
-			Run.COMPLETED_ATTEMPT_COUNTER_PROPERTY.equals(property)) {
-			updateValues(ATTEMPTS);
-		} else if (Settings.headerTitleFont.equals(property)
-		           || Settings.headerSubTitleFont.equals(property)) {
-			updateFonts(TITLE);
-		} else if (Settings.coreFont.equals(property)) {
-			updateFonts(ALL & ~TITLE);
-		} else if (Settings.windowUserResizable.equals(property) || Settings.windowWidth.equals(property)) {
-			updateSize();
-		}
+		dispatcher.dispatch(event);
 	}
 
 	/**
@@ -278,6 +242,103 @@ public class RunPane extends JPanel {
 
 	// -------------------------------------------------------------- UTILITIES
 
+	/**
+	 * Registers the reactions of the panel to the updates of the run and
+	 * settings properties it displays.
+	 */
+	private void registerHandlers() {
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				if (run.getState() == State.READY || run.getState() == State.NULL) {
+					updateValues(ATTEMPTS | SEPARATOR);
+				}
+			}
+		}, Run.STATE_PROPERTY);
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				updateValues(TITLE);
+			}
+		}, Run.NAME_PROPERTY, Run.SUBTITLE_PROPERTY);
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				updateValues(TITLE);
+			}
+		}, Settings.accuracy);
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				updateColors(BACKGROUND);
+			}
+		}, Settings.colorBackground);
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				updateColors(TEXT);
+			}
+		}, Settings.colorForeground);
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				updateColors(SEPARATOR);
+			}
+		}, Settings.colorSeparators);
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				updateValues(SEPARATOR);
+			}
+		}, Settings.historyRowCount);
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				updateColors(TITLE);
+			}
+		}, Settings.colorTitle, Settings.colorSubTitle);
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				updateVisibility(GRAPH);
+			}
+		}, Settings.graphDisplay);
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				updateVisibility(FOOTER);
+			}
+		}, Settings.footerDisplay);
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				updateVisibility(TITLE);
+				updateValues(SEPARATOR);
+			}
+		}, Settings.headerShowTitle);
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				updateVisibility(SUBTITLE);
+				updateValues(SEPARATOR);
+			}
+		}, Settings.headerShowSubtitle);
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				updateVisibility(ATTEMPTS);
+				updateValues(SEPARATOR);
+			}
+		}, Settings.headerShowAttempts);
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				updateValues(ATTEMPTS);
+			}
+		}, Run.ATTEMPT_COUNTER_PROPERTY, Run.COMPLETED_ATTEMPT_COUNTER_PROPERTY);
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				updateFonts(TITLE);
+			}
+		}, Settings.headerTitleFont, Settings.headerSubTitleFont);
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				updateFonts(ALL & ~TITLE);
+			}
+		}, Settings.coreFont);
+		dispatcher.on(new PropertyDispatcher.Handler() {
+			@Override public void propertyChanged(PropertyChangeEvent event) {
+				updateSize();
+			}
+		}, Settings.windowUserResizable, Settings.windowWidth);
+	}
+
 	/**
 	 * Adds a new separator to the list of separators used by the component
 	 * and returns it.
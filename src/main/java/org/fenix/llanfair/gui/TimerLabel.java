@@ -0,0 +1,404 @@
+package org.fenix.llanfair.gui;
+
+import org.fenix.llanfair.TimeFormatter;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.font.FontRenderContext;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A label dedicated to the display of timers. The characters used by times
+ * are rasterized once per font and color in an atlas and blitted from there,
+ * sparing the text layout of a regular label on every tick. All digits share
+ * the same width and the label reserves the width of a template text, so its
+ * size does not change while the timer is running.
+ *
+ * @author  Xavier "Xunkar" Sencert
+ */
+class TimerLabel extends JComponent {
+
+	// -------------------------------------------------------------- CONSTANTS
+
+	private static final long serialVersionUID = 1000L;
+
+	/**
+	 * Characters rasterized in the atlases. Any other character is drawn as
+	 * regular text.
+	 */
+	private static final String GLYPHS = "0123456789:.-+";
+
+	/**
+	 * Maximum number of atlases kept in memory.
+	 */
+	private static final int MAX_ATLASES = 16;
+
+	/**
+	 * Atlases of glyphs, identified by their font and color.
+	 */
+	private static final Map<List<Object>, GlyphAtlas> ATLASES
+			= new LinkedHashMap<List<Object>, GlyphAtlas>(16, 0.75F, true) {
+		@Override protected boolean removeEldestEntry(
+				Map.Entry<List<Object>, GlyphAtlas> eldest) {
+			return size() > MAX_ATLASES;
+		}
+	};
+
+	// ------------------------------------------------------------- ATTRIBUTES
+
+	/**
+	 * Text currently displayed.
+	 */
+	private String text;
+
+	/**
+	 * Buffer into which times are formatted before being compared with the
+	 * displayed text.
+	 */
+	private final char[] buffer;
+
+	/**
+	 * Text whose width is reserved by this label.
+	 */
+	private String template;
+
+	/**
+	 * The ideal display size of this component, {@code null} if it must be
+	 * recomputed.
+	 */
+	private Dimension preferredSize;
+
+	// ----------------------------------------------------------- CONSTRUCTORS
+
+	/**
+	 * Creates an empty timer label.
+	 */
+	TimerLabel() {
+		text          = "";
+		buffer        = new char[TimeFormatter.MAX_LENGTH];
+		template      = "";
+		preferredSize = null;
+		setOpaque(false);
+	}
+
+	// ---------------------------------------------------------------- GETTERS
+
+	/**
+	 * Returns the text currently displayed by this label.
+	 */
+	String getText() {
+		return text;
+	}
+
+	/**
+	 * Returns the preferred size of this label, which is the size of its
+	 * template or of its text if wider.
+	 */
+	@Override public Dimension getPreferredSize() {
+		if (isPreferredSizeSet()) {
+			return super.getPreferredSize();
+		}
+		if (preferredSize == null) {
+			GlyphAtlas atlas  = getAtlas();
+			Insets     insets = getInsets();
+			int width = Math.max(atlas.stringWidth(template),
+					atlas.stringWidth(text));
+			preferredSize = new Dimension(
+					width + insets.left + insets.right,
+					atlas.height + insets.top + insets.bottom
+			);
+		}
+		return new Dimension(preferredSize);
+	}
+
+	// ---------------------------------------------------------------- SETTERS
+
+	/**
+	 * Sets the text to display. The label is only laid out again if the text
+	 * does not fit in its current width.
+	 *
+	 * @param   text    - the new text to display.
+	 */
+	void setText(String text) {
+		if (text == null) {
+			text = "";
+		}
+		if (!text.equals(this.text)) {
+			this.text = text;
+			if (getAtlas().stringWidth(text) > getTextWidth()) {
+				preferredSize = null;
+				revalidate();
+			}
+			repaint();
+		}
+	}
+
+	/**
+	 * Sets the time to display, formatted with the given formatter. A new text
+	 * is only created if the formatted time differs from the displayed one,
+	 * which spares most ticks of a timer whose accuracy is coarser than its
+	 * refresh rate.
+	 *
+	 * @param   time        - the time to display, in milliseconds.
+	 * @param   formatter   - the formatter of the time.
+	 */
+	void setTime(long time, TimeFormatter formatter) {
+		int length = formatter.format(time, buffer, 0);
+		if (length != text.length()) {
+			setText(new String(buffer, 0, length));
+			return;
+		}
+		for (int i = 0; i < length; i++) {
+			if (buffer[i] != text.charAt(i)) {
+				setText(new String(buffer, 0, length));
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Sets the text whose width should be reserved by this label, typically
+	 * the longest time the timer is expected to display.
+	 *
+	 * @param   template    - the text whose width to reserve.
+	 */
+	void setTemplate(String template) {
+		if (template == null) {
+			template = "";
+		}
+		if (!template.equals(this.template)) {
+			this.template = template;
+			preferredSize = null;
+			revalidate();
+		}
+	}
+
+	@Override public void setFont(Font font) {
+		preferredSize = null;
+		super.setFont(font);
+	}
+
+	// -------------------------------------------------------------- CALLBACKS
+
+	/**
+	 * Draws the text right-aligned and vertically centered in this label.
+	 */
+	@Override protected void paintComponent(Graphics g) {
+		if (text.isEmpty()) {
+			return;
+		}
+		GlyphAtlas atlas  = getAtlas();
+		Insets     insets = getInsets();
+		int x = getWidth() - insets.right - atlas.stringWidth(text);
+		int y = insets.top + (getHeight() - insets.top - insets.bottom
+				- atlas.height) / 2;
+
+		Graphics2D g2 = (Graphics2D) g;
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			x += atlas.draw(g2, c, x, y);
+		}
+	}
+
+	// -------------------------------------------------------------- UTILITIES
+
+	/**
+	 * Returns the width available for the text in the current preferred size.
+	 */
+	private int getTextWidth() {
+		Insets insets = getInsets();
+		return getPreferredSize().width - insets.left - insets.right;
+	}
+
+	/**
+	 * Returns the atlas for the current font and color of this label,
+	 * creating it if necessary.
+	 */
+	private GlyphAtlas getAtlas() {
+		Font  font  = getFont();
+		Color color = getForeground();
+		if (font == null) {
+			font = UIManager.getFont("Label.font");
+		}
+		if (color == null) {
+			color = Color.BLACK;
+		}
+		List<Object> key   = Arrays.<Object>asList(font, color);
+		GlyphAtlas   atlas = ATLASES.get(key);
+		if (atlas == null) {
+			atlas = new GlyphAtlas(font, color);
+			ATLASES.put(key, atlas);
+		}
+		return atlas;
+	}
+
+	// --------------------------------------------------------- INTERNAL TYPES
+
+	/**
+	 * An image containing the glyphs of {@link #GLYPHS} for a given font and
+	 * color, side by side. Every digit is given the width of the widest one.
+	 * Each glyph is rasterized in a cell padded to its visual bounds, so that
+	 * ink overhanging its advance, as with italic fonts, is not clipped.
+	 */
+	private static class GlyphAtlas {
+
+		/**
+		 * Metrics of the font, used to draw the characters not in the atlas.
+		 */
+		final FontMetrics metrics;
+
+		/**
+		 * Height of a line of text.
+		 */
+		final int height;
+
+		/**
+		 * The rasterized glyphs.
+		 */
+		private final BufferedImage image;
+
+		/**
+		 * Color of the glyphs.
+		 */
+		private final Color color;
+
+		/**
+		 * Abscissa of the cell of each glyph in the image.
+		 */
+		private final int[] offsets;
+
+		/**
+		 * Width of each glyph in the text.
+		 */
+		private final int[] advances;
+
+		/**
+		 * Width of the ink of each glyph overhanging the left of its advance.
+		 */
+		private final int[] overhangs;
+
+		/**
+		 * Width of the cell of each glyph in the image.
+		 */
+		private final int[] cellWidths;
+
+		/**
+		 * Rasterizes the glyphs in the given font and color.
+		 */
+		GlyphAtlas(Font font, Color color) {
+			this.color = color;
+
+			BufferedImage scratch = new BufferedImage(
+					1, 1, BufferedImage.TYPE_INT_ARGB);
+			Graphics2D g2 = scratch.createGraphics();
+			setHints(g2);
+			metrics = g2.getFontMetrics(font);
+			FontRenderContext context = g2.getFontRenderContext();
+			g2.dispose();
+			height = metrics.getHeight();
+
+			int digitWidth = 0;
+			for (char c = '0'; c <= '9'; c++) {
+				digitWidth = Math.max(digitWidth, metrics.charWidth(c));
+			}
+			offsets    = new int[GLYPHS.length()];
+			advances   = new int[GLYPHS.length()];
+			overhangs  = new int[GLYPHS.length()];
+			cellWidths = new int[GLYPHS.length()];
+			int width = 0;
+			for (int i = 0; i < GLYPHS.length(); i++) {
+				char c = GLYPHS.charAt(i);
+				advances[i] = Character.isDigit(c)
+						? digitWidth : metrics.charWidth(c);
+				// Ink bounds relative to the start of the advance, with a
+				// pixel of margin for antialiasing.
+				Rectangle2D bounds = font.createGlyphVector(
+						context, String.valueOf(c)).getVisualBounds();
+				double shift = getShift(i, c);
+				int    left  = (int) Math.floor(shift + bounds.getMinX()) - 1;
+				int    right = (int) Math.ceil(shift + bounds.getMaxX()) + 1;
+				overhangs[i]  = Math.max(0, -left);
+				cellWidths[i] = overhangs[i] + Math.max(advances[i], right);
+				offsets[i]    = width;
+				width += cellWidths[i];
+			}
+
+			image = new BufferedImage(Math.max(1, width), Math.max(1, height),
+					BufferedImage.TYPE_INT_ARGB);
+			g2 = image.createGraphics();
+			setHints(g2);
+			g2.setFont(font);
+			g2.setColor(color);
+			for (int i = 0; i < GLYPHS.length(); i++) {
+				char c = GLYPHS.charAt(i);
+				int  x = offsets[i] + overhangs[i] + getShift(i, c);
+				g2.drawString(String.valueOf(c), x, metrics.getAscent());
+			}
+			g2.dispose();
+		}
+
+		/**
+		 * Returns the width of the given text when drawn with this atlas.
+		 */
+		int stringWidth(String text) {
+			int width = 0;
+			for (int i = 0; i < text.length(); i++) {
+				width += advance(text.charAt(i));
+			}
+			return width;
+		}
+
+		/**
+		 * Draws the given character with its top left corner at the given
+		 * coordinates and returns its width.
+		 */
+		int draw(Graphics2D g2, char c, int x, int y) {
+			int index = GLYPHS.indexOf(c);
+			if (index < 0) {
+				Object hint = g2.getRenderingHint(
+						RenderingHints.KEY_TEXT_ANTIALIASING);
+				g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
+						RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+				g2.setFont(metrics.getFont());
+				g2.setColor(color);
+				g2.drawString(String.valueOf(c), x, y + metrics.getAscent());
+				g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, hint);
+				return metrics.charWidth(c);
+			}
+			int cell = cellWidths[index];
+			int left = offsets[index];
+			int dx   = x - overhangs[index];
+			g2.drawImage(image, dx, y, dx + cell, y + height,
+					left, 0, left + cell, height, null);
+			return advances[index];
+		}
+
+		/**
+		 * Returns the abscissa of the given glyph from the start of its
+		 * advance, digits being centered on the width of the widest one.
+		 */
+		private int getShift(int index, char c) {
+			return (advances[index] - metrics.charWidth(c)) / 2;
+		}
+
+		/**
+		 * Returns the width of the given character.
+		 */
+		private int advance(char c) {
+			int index = GLYPHS.indexOf(c);
+			return (index < 0) ? metrics.charWidth(c) : advances[index];
+		}
+
+		private static void setHints(Graphics2D g2) {
+			g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
+					RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+			g2.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS,
+					RenderingHints.VALUE_FRACTIONALMETRICS_OFF);
+		}
+	}
+}
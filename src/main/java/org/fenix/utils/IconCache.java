@@ -0,0 +1,137 @@
+package org.fenix.utils;
+
+import javax.swing.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Cache of rescaled icons, keyed by the identity of the source icon and the
+ * target size. The least recently used variants are evicted once the cache
+ * holds more than {@link #CAPACITY} icons. Variants can be computed ahead of
+ * time on a background thread using {@link #prefetch(Collection, int...)}.
+ */
+public class IconCache {
+	/**
+	 * Maximum number of rescaled icons kept in the cache.
+	 */
+	public static final int CAPACITY = 1024;
+
+	private static final Map<Key, ImageIcon> cache = new LinkedHashMap<Key, ImageIcon>(64, 0.75F, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Key, ImageIcon> eldest) {
+			return size() > CAPACITY;
+		}
+	};
+
+	private static ExecutorService executor;
+
+	/**
+	 * Returns the given icon rescaled to the given size, as done by
+	 * {@link Images#rescale(ImageIcon, int)}. The variant is computed on the
+	 * calling thread if it is not in the cache yet.
+	 */
+	public static ImageIcon get(ImageIcon icon, int size) {
+		Key key = new Key(icon, size);
+		ImageIcon scaled;
+		synchronized (cache) {
+			scaled = cache.get(key);
+		}
+		if (scaled == null) {
+			scaled = Images.rescale(icon, size);
+			synchronized (cache) {
+				cache.put(key, scaled);
+			}
+		}
+		return scaled;
+	}
+
+	/**
+	 * Computes on a background thread the variants of the given icons for
+	 * each of the given sizes, in order, skipping those already cached.
+	 * {@code null} icons are ignored.
+	 */
+	public static void prefetch(Collection<ImageIcon> icons, final int... sizes) {
+		final List<ImageIcon> sources = new ArrayList<ImageIcon>();
+		for (ImageIcon icon : icons) {
+			if (icon != null) {
+				sources.add(icon);
+			}
+		}
+		if (sources.isEmpty()) {
+			return;
+		}
+		getExecutor().execute(new Runnable() {
+			@Override
+			public void run() {
+				for (int size : sizes) {
+					for (ImageIcon icon : sources) {
+						boolean cached;
+						synchronized (cache) {
+							cached = cache.containsKey(new Key(icon, size));
+						}
+						if (!cached) {
+							get(icon, size);
+						}
+					}
+				}
+			}
+		});
+	}
+
+	/**
+	 * Discards every cached variant.
+	 */
+	public static void clear() {
+		synchronized (cache) {
+			cache.clear();
+		}
+	}
+
+	private static synchronized ExecutorService getExecutor() {
+		if (executor == null) {
+			executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+				@Override
+				public Thread newThread(Runnable runnable) {
+					Thread thread = new Thread(runnable, "IconCache");
+					thread.setDaemon(true);
+					thread.setPriority(Thread.MIN_PRIORITY);
+					return thread;
+				}
+			});
+		}
+		return executor;
+	}
+
+	/**
+	 * Identifies a variant by the identity of its source icon and its size.
+	 */
+	private static class Key {
+		private final ImageIcon icon;
+		private final int size;
+
+		Key(ImageIcon icon, int size) {
+			this.icon = icon;
+			this.size = size;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (!(other instanceof Key)) {
+				return false;
+			}
+			Key key = (Key) other;
+			return icon == key.icon && size == key.size;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * System.identityHashCode(icon) + size;
+		}
+	}
+}
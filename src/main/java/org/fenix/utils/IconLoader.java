@@ -0,0 +1,133 @@
+package org.fenix.utils;
+
+import javax.imageio.ImageIO;
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads icons from image files in the background. Images are decoded with
+ * {@link ImageIO} and rescaled on a pool of at most {@link #MAX_THREADS}
+ * threads, so that many icons load in parallel without blocking the event
+ * dispatch thread. Until an icon is loaded, its owner can display the
+ * placeholder returned by {@link #getPlaceholder(int)}.
+ */
+public class IconLoader {
+	/**
+	 * Receives the icons loaded by {@link IconLoader#load(File, int, Listener)},
+	 * on the event dispatch thread.
+	 */
+	public interface Listener {
+		/**
+		 * Invoked once the icon is loaded, with {@code null} if the file could
+		 * not be read as an image.
+		 */
+		void iconLoaded(ImageIcon icon);
+	}
+
+	/**
+	 * Maximum number of images decoded at the same time.
+	 */
+	public static final int MAX_THREADS = 4;
+
+	private static final Map<Integer, ImageIcon> placeholders = new HashMap<Integer, ImageIcon>();
+
+	private static ExecutorService executor;
+
+	/**
+	 * Loads the given image file in the background, rescaled to the given
+	 * size as done by {@link Images#rescale(ImageIcon, int)}, and hands it to
+	 * the given listener on the event dispatch thread.
+	 */
+	public static void load(final File file, final int size, final Listener listener) {
+		if (listener == null) {
+			throw new NullPointerException("Null listener");
+		}
+		getExecutor().execute(new Runnable() {
+			@Override
+			public void run() {
+				ImageIcon icon;
+				try {
+					icon = read(file, size);
+				} catch (IOException e) {
+					icon = null;
+				} catch (RuntimeException e) {
+					icon = null;
+				}
+				final ImageIcon loaded = icon;
+				SwingUtilities.invokeLater(new Runnable() {
+					@Override
+					public void run() {
+						listener.iconLoaded(loaded);
+					}
+				});
+			}
+		});
+	}
+
+	/**
+	 * Reads the given image file on the calling thread and rescales it to the
+	 * given size, as done by {@link Images#rescale(ImageIcon, int)}.
+	 *
+	 * @throws IOException if the file cannot be read as an image.
+	 */
+	public static ImageIcon read(File file, int size) throws IOException {
+		BufferedImage image = ImageIO.read(file);
+		if (image == null) {
+			throw new IOException("Not an image: " + file);
+		}
+		return Images.rescale(new ImageIcon(image), size);
+	}
+
+	/**
+	 * Returns the icon of given size standing for an icon being loaded. The
+	 * same placeholder is returned for a given size, so owners can tell
+	 * whether an icon is still pending by comparing their icon with it.
+	 */
+	public static ImageIcon getPlaceholder(int size) {
+		synchronized (placeholders) {
+			ImageIcon placeholder = placeholders.get(size);
+			if (placeholder == null) {
+				BufferedImage image = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
+				Graphics2D g2 = image.createGraphics();
+				g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+				g2.setColor(new Color(128, 128, 128, 64));
+				g2.fillRoundRect(0, 0, size - 1, size - 1, size / 4, size / 4);
+				g2.setColor(new Color(128, 128, 128, 128));
+				g2.drawRoundRect(0, 0, size - 1, size - 1, size / 4, size / 4);
+				g2.dispose();
+				placeholder = new ImageIcon(image);
+				placeholders.put(size, placeholder);
+			}
+			return placeholder;
+		}
+	}
+
+	private static synchronized ExecutorService getExecutor() {
+		if (executor == null) {
+			int threads = Math.max(1, Math.min(MAX_THREADS, Runtime.getRuntime().availableProcessors()));
+			ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 30L, TimeUnit.SECONDS,
+					new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+				@Override
+				public Thread newThread(Runnable runnable) {
+					Thread thread = new Thread(runnable, "IconLoader");
+					thread.setDaemon(true);
+					thread.setPriority(Thread.MIN_PRIORITY);
+					return thread;
+				}
+			});
+			pool.allowCoreThreadTimeOut(true);
+			executor = pool;
+		}
+		return executor;
+	}
+}
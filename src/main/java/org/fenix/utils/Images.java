@@ -31,13 +31,12 @@ public class Images {
 				buffer = new BufferedImage(size, (int)((double)height * scale), 2);
 			}
 
-			Graphics2D g2 = buffer.createGraphics();
 			if(scale < 1.0D) {
-				g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
-			} else {
-				g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+				return new ImageIcon(downscale(icon, buffer.getWidth(), buffer.getHeight()));
 			}
 
+			Graphics2D g2 = buffer.createGraphics();
+			g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
 			g2.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
 			g2.scale(scale, scale);
 			icon.paintIcon(null, g2, 0, 0);
@@ -45,4 +44,31 @@ public class Images {
 			return new ImageIcon(buffer);
 		}
 	}
+
+	/**
+	 * Downscales the given icon to the given dimensions by successive bilinear
+	 * steps, each halving the image at most, which retains far more detail
+	 * than a single interpolation when the reduction factor is large.
+	 */
+	private static BufferedImage downscale(ImageIcon icon, int width, int height) {
+		int w = icon.getIconWidth();
+		int h = icon.getIconHeight();
+		BufferedImage image = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+		Graphics2D g2 = image.createGraphics();
+		icon.paintIcon(null, g2, 0, 0);
+		g2.dispose();
+
+		while(w != width || h != height) {
+			w = Math.max(w / 2, width);
+			h = Math.max(h / 2, height);
+			BufferedImage step = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+			g2 = step.createGraphics();
+			g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+			g2.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+			g2.drawImage(image, 0, 0, w, h, null);
+			g2.dispose();
+			image = step;
+		}
+		return image;
+	}
 }
@@ -39,7 +39,7 @@ public class Resources {
 	}
 
 	public String getString(String key) {
-		return !this.language.keySet().contains(key)?null:this.language.getString(key);
+		return !this.language.containsKey(key)?null:this.language.getString(key);
 	}
 
 	public String getString(String key, Object[] parameters) {
@@ -0,0 +1,46 @@
+package org.fenix.utils.config;
+
+import java.beans.PropertyChangeEvent;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Event fired when a transaction on a {@link Configuration} is committed,
+ * describing every property changed during the transaction. As specified by
+ * {@link PropertyChangeEvent}, its property name is {@code null} since more
+ * than one property changed. Each property appears once, with the value it
+ * had before the transaction and the value it has after it.
+ */
+public class CompositePropertyChangeEvent extends PropertyChangeEvent {
+	private static final long serialVersionUID = 1000L;
+
+	private final Map<String, PropertyChangeEvent> changes;
+
+	public CompositePropertyChangeEvent(Object source, Map<String, PropertyChangeEvent> changes) {
+		super(source, null, null, null);
+		this.changes = new LinkedHashMap<>(changes);
+	}
+
+	/**
+	 * Returns the names of the changed properties, in the order they were
+	 * first changed.
+	 */
+	public Set<String> getPropertyNames() {
+		return Collections.unmodifiableSet(this.changes.keySet());
+	}
+
+	/**
+	 * Returns one event per changed property.
+	 */
+	public List<PropertyChangeEvent> getChanges() {
+		return new ArrayList<>(this.changes.values());
+	}
+
+	public boolean contains(String propertyName) {
+		return this.changes.containsKey(propertyName);
+	}
+}
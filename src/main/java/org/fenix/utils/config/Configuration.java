@@ -9,6 +9,7 @@ import com.thoughtworks.xstream.XStream;
 import com.thoughtworks.xstream.io.xml.DomDriver;
 import org.fenix.llanfair.SerializationUtils;
 
+import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
 import java.io.File;
@@ -17,6 +18,7 @@ import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 public class Configuration implements Serializable {
@@ -24,10 +26,13 @@ public class Configuration implements Serializable {
 	private transient File path;
 	private Map<String, Map<String, Object>> values;
 	private transient PropertyChangeSupport pcSupport;
+	private transient int transactionDepth;
+	private transient Map<String, PropertyChangeEvent> pendingChanges;
 
 	public Configuration() {
 		this.values = new HashMap<>();
 		this.pcSupport = new PropertyChangeSupport(this);
+		this.pendingChanges = new LinkedHashMap<>();
 	}
 
 	private Configuration(File path) {
@@ -104,7 +109,10 @@ public class Configuration implements Serializable {
 				propertyName = key;
 			else
 				propertyName = section + "." + key;
-			this.pcSupport.firePropertyChange(propertyName, old, value);
+			if (this.transactionDepth > 0)
+				this.deferChange(propertyName, old, value);
+			else
+				this.pcSupport.firePropertyChange(propertyName, old, value);
 		} else {
 			throw new NullPointerException("Null key");
 		}
@@ -152,6 +160,57 @@ public class Configuration implements Serializable {
 		}
 	}
 
+	/**
+	 * Starts a transaction. Until it is committed, changes are not fired one
+	 * by one but collected, to be fired at once by {@link #commitTransaction()}.
+	 * Transactions can be nested, only the outermost commit fires the changes.
+	 */
+	public void beginTransaction() {
+		++this.transactionDepth;
+	}
+
+	/**
+	 * Ends the current transaction. If it is the outermost one, fires a single
+	 * {@link CompositePropertyChangeEvent} listing every property whose value
+	 * changed since the transaction began, and nothing if none did.
+	 */
+	public void commitTransaction() {
+		if (this.transactionDepth == 0) {
+			throw new IllegalStateException("No transaction");
+		}
+		if (--this.transactionDepth > 0) {
+			return;
+		}
+		Map<String, PropertyChangeEvent> changes = new LinkedHashMap<>();
+		for (PropertyChangeEvent change : this.pendingChanges.values()) {
+			Object old = change.getOldValue();
+			Object value = change.getNewValue();
+			if (old == null ? value != null : !old.equals(value)) {
+				changes.put(change.getPropertyName(), change);
+			}
+		}
+		this.pendingChanges.clear();
+		if (!changes.isEmpty()) {
+			this.pcSupport.firePropertyChange(new CompositePropertyChangeEvent(this, changes));
+		}
+	}
+
+	public boolean isInTransaction() {
+		return this.transactionDepth > 0;
+	}
+
+	/**
+	 * Records a change made during a transaction, keeping the value the
+	 * property had before the transaction began.
+	 */
+	private void deferChange(String propertyName, Object old, Object value) {
+		PropertyChangeEvent previous = this.pendingChanges.get(propertyName);
+		if (previous != null) {
+			old = previous.getOldValue();
+		}
+		this.pendingChanges.put(propertyName, new PropertyChangeEvent(this, propertyName, old, value));
+	}
+
 	public void addPropertyChangeListener(PropertyChangeListener listener) {
 		if(listener == null) {
 			throw new NullPointerException("Null listener");
@@ -196,5 +255,6 @@ public class Configuration implements Serializable {
 	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
 		in.defaultReadObject();
 		this.pcSupport = new PropertyChangeSupport(this);
+		this.pendingChanges = new LinkedHashMap<>();
 	}
 }
@@ -0,0 +1,63 @@
+package org.fenix.utils.gui;
+
+import javax.swing.*;
+
+/**
+ * Coalesces the layout requests made during a pass of the event dispatch
+ * thread. Whatever the number of calls to {@link #schedule(int)}, the layout
+ * task is run once, after the events currently queued have been processed,
+ * with the union of the flags given by the requests. Must only be used from
+ * the event dispatch thread.
+ */
+public class LayoutScheduler {
+	private final Task task;
+	private int pending;
+
+	private final Runnable runner = new Runnable() {
+		@Override
+		public void run() {
+			int flags = pending;
+			pending = 0;
+			task.layout(flags);
+		}
+	};
+
+	public LayoutScheduler(Task task) {
+		if (task == null) {
+			throw new NullPointerException("Null task");
+		}
+		this.task = task;
+		this.pending = 0;
+	}
+
+	/**
+	 * Requests a layout pass with the given flags, which must not be zero.
+	 */
+	public void schedule(int flags) {
+		if (flags == 0) {
+			throw new IllegalArgumentException("No flags");
+		}
+		if (pending == 0) {
+			SwingUtilities.invokeLater(runner);
+		}
+		pending |= flags;
+	}
+
+	/**
+	 * Returns whether a layout pass has been requested and not run yet.
+	 */
+	public boolean isPending() {
+		return pending != 0;
+	}
+
+	/**
+	 * The layout work to run once per pass.
+	 */
+	public interface Task {
+		/**
+		 * Lays out the component, the flags being the union of those given
+		 * by the coalesced requests.
+		 */
+		void layout(int flags);
+	}
+}
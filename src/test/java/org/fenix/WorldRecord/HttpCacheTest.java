@@ -0,0 +1,189 @@
+package org.fenix.WorldRecord;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.Charset;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the response cache against a local http server replaying recorded responses
+ * @author  4ilo 2018
+ */
+public class HttpCacheTest
+{
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private static final String ETAG = "\"v1\"";
+
+    private static final String BODY = "{\"data\":{\"id\":\"k6qqkx6g\",\"names\":{\"international\":\"Super Metroid\"}}}";
+
+    private static final String UPDATED = "{\"data\":{\"id\":\"k6qqkx6g\",\"names\":{\"international\":\"Super Metroid (Updated)\"}}}";
+
+    private static final long TTL = 60000L;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private HttpServer server;
+
+    private Handler handler;
+
+    private String url;
+
+    @Before
+    public void setUp() throws IOException
+    {
+        HttpCache.setDirectory(new File(folder.getRoot(), "cache"));
+
+        handler = new Handler();
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/api/v1/games", handler);
+        server.start();
+        url = "http://localhost:" + server.getAddress().getPort() + "/api/v1/games/k6qqkx6g";
+    }
+
+    @After
+    public void tearDown()
+    {
+        if(server != null)
+            server.stop(0);
+    }
+
+    @Test
+    public void freshResponseIsServedWithoutRequest() throws IOException
+    {
+        assertEquals(BODY, HttpCache.get(url, TTL));
+        assertEquals(BODY, HttpCache.get(url, TTL));
+        assertEquals(1, handler.requests);
+    }
+
+    @Test
+    public void staleResponseIsRevalidated() throws IOException
+    {
+        assertEquals(BODY, HttpCache.get(url, TTL));
+        assertEquals(BODY, HttpCache.get(url, 0L));
+        assertEquals(2, handler.requests);
+        assertEquals(1, handler.notModified);
+
+        // the revalidation renews the cached response
+        assertEquals(BODY, HttpCache.get(url, TTL));
+        assertEquals(2, handler.requests);
+    }
+
+    @Test
+    public void changedResponseReplacesCachedOne() throws IOException
+    {
+        assertEquals(BODY, HttpCache.get(url, TTL));
+        handler.body = UPDATED;
+        handler.etag = "\"v2\"";
+        assertEquals(UPDATED, HttpCache.get(url, 0L));
+        assertEquals(UPDATED, HttpCache.get(url, TTL));
+        assertEquals(0, handler.notModified);
+    }
+
+    @Test
+    public void cachedResponseIsServedOffline() throws IOException
+    {
+        assertEquals(BODY, HttpCache.get(url, TTL));
+        server.stop(0);
+        server = null;
+        assertEquals(BODY, HttpCache.get(url, 0L));
+    }
+
+    @Test(expected = IOException.class)
+    public void uncachedResponseFailsOffline() throws IOException
+    {
+        server.stop(0);
+        server = null;
+        HttpCache.get(url, TTL);
+    }
+
+    @Test
+    public void interruptedBodyIsNotCached() throws IOException
+    {
+        assertEquals(BODY, HttpCache.get(url, TTL));
+        handler.body = UPDATED;
+        handler.etag = null;
+        handler.truncated = true;
+
+        try
+        {
+            HttpCache.get(url, 0L);
+            fail("The truncated body was read as a whole");
+        } catch(IOException e)
+        {
+            // expected
+        }
+
+        server.stop(0);
+        server = null;
+        assertEquals(BODY, HttpCache.get(url, 0L));
+
+        for(String name: new File(folder.getRoot(), "cache").list())
+        {
+            assertFalse(name, name.endsWith(".tmp"));
+        }
+    }
+
+    /**
+     * Serves the current body, answering 304 to a request carrying its ETag
+     */
+    private static class Handler implements HttpHandler
+    {
+        volatile String body = BODY;
+        volatile String etag = ETAG;
+        volatile boolean truncated = false;
+        volatile int requests = 0;
+        volatile int notModified = 0;
+
+        public void handle(HttpExchange exchange) throws IOException
+        {
+            requests++;
+
+            try
+            {
+                if(etag != null && etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match")))
+                {
+                    notModified++;
+                    exchange.sendResponseHeaders(304, -1);
+                    return;
+                }
+
+                byte[] bytes = body.getBytes(UTF8);
+
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                if(etag != null)
+                    exchange.getResponseHeaders().set("ETag", etag);
+
+                if(truncated)
+                {
+                    // announce the whole body but drop the connection halfway
+                    exchange.sendResponseHeaders(200, bytes.length);
+                    OutputStream out = exchange.getResponseBody();
+                    out.write(bytes, 0, bytes.length / 2);
+                    out.flush();
+                    return;
+                }
+
+                exchange.sendResponseHeaders(200, bytes.length);
+                exchange.getResponseBody().write(bytes);
+            } finally
+            {
+                exchange.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package org.fenix.WorldRecord;
+
+import java.io.IOException;
+
+/**
+ * Compares the speed of the pull parser with the former org.json reading of a game search response.
+ * Not part of the test suite, run it by hand with the test classpath.
+ * @author  4ilo 2018
+ */
+public class JsonPullParserBenchmark
+{
+    private static final int WARMUP = 200;
+
+    private static final int ROUNDS = 1000;
+
+    public static void main(String[] args) throws IOException
+    {
+        byte[] response = JsonPullParserTest.gameSearch(WorldRecordParser.SEARCH_PAGE_SIZE);
+        int games = 0;
+
+        for(int i = 0; i < WARMUP; i++)
+        {
+            games += JsonPullParserTest.readGamesWithTree(response).size();
+            games += JsonPullParserTest.readGamesWithParser(response).size();
+        }
+
+        long tree = 0L;
+        long pull = 0L;
+
+        for(int i = 0; i < ROUNDS; i++)
+        {
+            long start = System.nanoTime();
+            games += JsonPullParserTest.readGamesWithTree(response).size();
+            long middle = System.nanoTime();
+            games += JsonPullParserTest.readGamesWithParser(response).size();
+            long end = System.nanoTime();
+
+            tree += middle - start;
+            pull += end - middle;
+        }
+
+        System.out.printf("Game search of %d bytes (%d games read): org.json %d us, pull parser %d us%n",
+                response.length, games, tree / ROUNDS / 1000L, pull / ROUNDS / 1000L);
+    }
+}
@@ -0,0 +1,209 @@
+package org.fenix.WorldRecord;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the pull parser against org.json
+ * @author  4ilo 2018
+ */
+public class JsonPullParserTest
+{
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    @Test
+    public void readsValuesLikeJsonObject() throws IOException
+    {
+        String json = "{\"text\":\"a\\\"b\\\\c\\/d\\b\\f\\n\\r\\t\\u00e9\\u4e2d\",\"unicode\":\"Pok\u00e9mon \u30dd\u30b1\u30e2\u30f3\","
+                + "\"int\":-42,\"real\":1.5e3,\"small\":0.25,\"yes\":true,\"no\":false,\"nothing\":null}";
+        JSONObject expected = new JSONObject(json);
+        JsonPullParser parser = new JsonPullParser(new StringReader(json));
+
+        parser.beginObject();
+        assertEquals("text", parser.nextName());
+        assertEquals(expected.getString("text"), parser.nextString());
+        assertEquals("unicode", parser.nextName());
+        assertEquals(expected.getString("unicode"), parser.nextString());
+        assertEquals("int", parser.nextName());
+        assertEquals(expected.getDouble("int"), parser.nextDouble(), 0.0);
+        assertEquals("real", parser.nextName());
+        assertEquals(expected.getDouble("real"), parser.nextDouble(), 0.0);
+        assertEquals("small", parser.nextName());
+        assertEquals(expected.getDouble("small"), parser.nextDouble(), 0.0);
+        assertEquals("yes", parser.nextName());
+        assertEquals("true", parser.nextString());
+        assertEquals("no", parser.nextName());
+        assertEquals("false", parser.nextString());
+        assertEquals("nothing", parser.nextName());
+        assertEquals(JsonPullParser.Token.NULL, parser.peek());
+        parser.nextNull();
+        parser.endObject();
+        assertEquals(JsonPullParser.Token.END_DOCUMENT, parser.peek());
+    }
+
+    @Test
+    public void skipsNestedValues() throws IOException
+    {
+        String json = "{\"skipped\":{\"a\":[1,{\"b\":[[],{}]},\"]}\"],\"c\":{}},\"kept\":\"value\",\"empty\":[]}";
+        JsonPullParser parser = new JsonPullParser(new StringReader(json));
+
+        parser.beginObject();
+        assertEquals("skipped", parser.nextName());
+        parser.skipValue();
+        assertEquals("kept", parser.nextName());
+        assertEquals("value", parser.nextString());
+        assertEquals("empty", parser.nextName());
+        parser.beginArray();
+        assertFalse(parser.hasNext());
+        parser.endArray();
+        parser.endObject();
+        assertEquals(JsonPullParser.Token.END_DOCUMENT, parser.peek());
+    }
+
+    @Test
+    public void rejectsMalformedDocuments()
+    {
+        String[] documents = {
+                "", "{", "{\"a\"}", "{\"a\":}", "{\"a\":1,}", "[1 2]", "{\"a\":\"b}", "{\"a\":tru}",
+                "{\"a\":\"\\x\"}", "{\"a\":1}}", "{a:1}"
+        };
+
+        for(String json: documents)
+        {
+            try
+            {
+                JsonPullParser parser = new JsonPullParser(new StringReader(json));
+                parser.skipValue();
+                parser.peek();
+                fail("Accepted " + json);
+            } catch(IOException e)
+            {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void readsGamesLikeJsonObject() throws IOException
+    {
+        byte[] response = gameSearch(WorldRecordParser.SEARCH_PAGE_SIZE);
+        ArrayList<Game> expected = readGamesWithTree(response);
+        ArrayList<Game> games = readGamesWithParser(response);
+
+        assertEquals(WorldRecordParser.SEARCH_PAGE_SIZE, games.size());
+        for(int i = 0; i < expected.size(); i++)
+        {
+            assertEquals(expected.get(i).getId(), games.get(i).getId());
+            assertEquals(expected.get(i).getTitle(), games.get(i).getTitle());
+        }
+    }
+
+    /**
+     * Read the games of a search the way it was done before the pull parser
+     */
+    static ArrayList<Game> readGamesWithTree(byte[] response) throws IOException
+    {
+        JSONObject json = new JSONObject(JSONReader.readAll(new ByteArrayInputStream(response)));
+        JSONArray data = json.getJSONArray("data");
+        ArrayList<Game> games = new ArrayList<>();
+
+        for(Object item: data)
+        {
+            JSONObject obj = (JSONObject) item;
+            games.add(new Game(obj.getJSONObject("names").get("international").toString(), obj.get("id").toString()));
+        }
+
+        return games;
+    }
+
+    /**
+     * Read the games of a search with the pull parser
+     */
+    static ArrayList<Game> readGamesWithParser(byte[] response) throws IOException
+    {
+        JsonPullParser parser = new JsonPullParser(new InputStreamReader(new ByteArrayInputStream(response), UTF8));
+
+        try
+        {
+            return WorldRecordParser.readGames(parser);
+        } finally
+        {
+            parser.close();
+        }
+    }
+
+    /**
+     * Build a game search response shaped like those of the speedrun.com api
+     */
+    static byte[] gameSearch(int count)
+    {
+        StringBuilder json = new StringBuilder("{\"data\":[");
+
+        for(int i = 0; i < count; i++)
+        {
+            String id = "g" + Integer.toString(1000000 + i * 7919, 36);
+
+            if(i > 0)
+                json.append(',');
+
+            json.append("{\"id\":\"").append(id).append("\",")
+                    .append("\"names\":{\"international\":\"Pok\\u00e9mon \\\"Edition ").append(i).append("\\\"\",")
+                    .append("\"japanese\":\"\u30dd\u30b1\u30e2\u30f3 ").append(i).append("\",\"twitch\":null},")
+                    .append("\"abbreviation\":\"pkmn").append(i).append("\",")
+                    .append("\"weblink\":\"https://www.speedrun.com/pkmn").append(i).append("\",")
+                    .append("\"released\":").append(1996 + i % 20).append(",")
+                    .append("\"release-date\":\"").append(1996 + i % 20).append("-02-27\",")
+                    .append("\"ruleset\":{\"show-milliseconds\":false,\"require-verification\":true,")
+                    .append("\"require-video\":false,\"run-times\":[\"realtime\",\"ingame\"],")
+                    .append("\"default-time\":\"realtime\",\"emulators-allowed\":true},")
+                    .append("\"romhack\":false,\"gametypes\":[],")
+                    .append("\"platforms\":[\"3167d6q2\",\"n5e17e27\",\"vm9vn63k\"],")
+                    .append("\"regions\":[\"e6lxy1dz\",\"o316x197\",\"pr184lqn\"],")
+                    .append("\"genres\":[],\"engines\":[],\"developers\":[],\"publishers\":[],")
+                    .append("\"moderators\":{\"x35ej6j4\":\"super-moderator\",\"kj9rl5j4\":\"moderator\"},")
+                    .append("\"created\":\"2015-02-17T23:04:12Z\",\"assets\":{");
+
+            String[] assets = { "logo", "cover-tiny", "cover-small", "cover-medium", "cover-large", "icon",
+                    "trophy-1st", "trophy-2nd", "trophy-3rd", "trophy-4th", "background", "foreground" };
+
+            for(int j = 0; j < assets.length; j++)
+            {
+                if(j > 0)
+                    json.append(',');
+                json.append('"').append(assets[j]).append("\":{\"uri\":\"https://www.speedrun.com/themes/")
+                        .append(id).append('/').append(assets[j]).append(".png\",\"width\":")
+                        .append(32 + j * 16).append(",\"height\":").append(48 + j * 16).append('}');
+            }
+
+            json.append("},\"links\":[");
+
+            String[] links = { "self", "runs", "levels", "categories", "variables", "records", "series",
+                    "base-game", "derived-games", "romhacks", "leaderboard" };
+
+            for(int j = 0; j < links.length; j++)
+            {
+                if(j > 0)
+                    json.append(',');
+                json.append("{\"rel\":\"").append(links[j]).append("\",\"uri\":\"https://www.speedrun.com/api/v1/games/")
+                        .append(id).append('/').append(links[j]).append("\"}");
+            }
+
+            json.append("]}");
+        }
+
+        json.append("],\"pagination\":{\"offset\":0,\"max\":").append(count).append(",\"size\":").append(count)
+                .append(",\"links\":[]}}");
+
+        return json.toString().getBytes(UTF8);
+    }
+}
@@ -0,0 +1,67 @@
+package org.fenix.llanfair;
+
+import org.fenix.llanfair.config.Accuracy;
+
+/**
+ * Compares the speed of the former formatting of times with
+ * {@code String.format} against the formatters writing into a buffer and
+ * into a new string. Kept out of the tests so that a loaded machine does not
+ * slow down or fail the build, run it with its {@code main}.
+ *
+ * @author  Xavier "Xunkar" Sencert
+ */
+public class TimeFormatterBenchmark {
+
+	// -------------------------------------------------------------- CONSTANTS
+
+	private static final int WARMUP = 100000;
+
+	private static final int ROUNDS = 300000;
+
+	// ----------------------------------------------------------- CONSTRUCTORS
+
+	private TimeFormatterBenchmark() {}
+
+	// -------------------------------------------------------------- INTERFACE
+
+	/**
+	 * Prints the average time taken by each way of formatting, for every
+	 * accuracy.
+	 */
+	public static void main(String[] args) {
+		char[] buffer = new char[TimeFormatter.MAX_LENGTH];
+		for (Accuracy accuracy : Accuracy.values()) {
+			TimeFormatter formatter = TimeFormatter.get(accuracy, false);
+			int length = 0;
+			for (int i = 0; i < WARMUP; i++) {
+				length += TimeFormatterTest.legacyFormat(
+						i * 37L, false, accuracy).length();
+				length += formatter.format(i * 37L, buffer, 0);
+				length += formatter.format(i * 37L).length();
+			}
+
+			long start = System.nanoTime();
+			for (int i = 0; i < ROUNDS; i++) {
+				length += TimeFormatterTest.legacyFormat(
+						i * 37L, false, accuracy).length();
+			}
+			long legacy = System.nanoTime() - start;
+
+			start = System.nanoTime();
+			for (int i = 0; i < ROUNDS; i++) {
+				length += formatter.format(i * 37L, buffer, 0);
+			}
+			long buffered = System.nanoTime() - start;
+
+			start = System.nanoTime();
+			for (int i = 0; i < ROUNDS; i++) {
+				length += formatter.format(i * 37L).length();
+			}
+			long string = System.nanoTime() - start;
+
+			System.out.printf("%s: String.format %d ns, buffer %d ns, "
+					+ "string %d ns (%d chars)%n", accuracy.name(),
+					legacy / ROUNDS, buffered / ROUNDS, string / ROUNDS, length);
+		}
+	}
+}
@@ -0,0 +1,135 @@
+package org.fenix.llanfair;
+
+import org.fenix.llanfair.config.Accuracy;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests of {@link TimeFormatter} against the former formatting of times with
+ * {@code String.format}. Their speed is compared by
+ * {@link TimeFormatterBenchmark}.
+ *
+ * @author  Xavier "Xunkar" Sencert
+ */
+public class TimeFormatterTest {
+
+	// ------------------------------------------------------------------ TESTS
+
+	@Test public void formatsAroundEveryCarry() {
+		// Every hundredth up to six minutes, in both directions.
+		for (long ms = -360000L; ms <= 360000L; ms += 10L) {
+			check(ms);
+			check(ms + 5L);
+			check(ms + 9L);
+		}
+		// Every millisecond around the first hours.
+		for (long hour = 3600000L; hour <= 36000000L; hour *= 10L) {
+			for (long ms = hour - 1000L; ms <= hour + 1000L; ms++) {
+				check(ms);
+				check(-ms);
+			}
+		}
+	}
+
+	@Test public void formatsLongTimes() {
+		Random random = new Random(47L);
+		for (int i = 0; i < 200000; i++) {
+			long ms = (long) (random.nextDouble() * 1e12);
+			check(random.nextBoolean() ? ms : -ms);
+		}
+		check(Long.MAX_VALUE / 1000L);
+		check(-Long.MAX_VALUE / 1000L);
+	}
+
+	// -------------------------------------------------------------- UTILITIES
+
+	/**
+	 * Checks that every formatter and entry point agree with the former
+	 * formatting of the given time.
+	 */
+	private static void check(long ms) {
+		char[] buffer = new char[TimeFormatter.MAX_LENGTH];
+		StringBuilder builder = new StringBuilder();
+		for (Accuracy accuracy : Accuracy.values()) {
+			for (boolean signed : new boolean[] { false, true }) {
+				TimeFormatter formatter = TimeFormatter.get(accuracy, signed);
+				String expected = legacyFormat(ms, signed, accuracy);
+				String message  = ms + " " + accuracy.name() + " " + signed;
+
+				assertEquals(message, expected, formatter.format(ms));
+				assertEquals(message, expected,
+						new String(buffer, 0, formatter.format(ms, buffer, 0)));
+				builder.setLength(0);
+				assertEquals(message, expected,
+						formatter.format(ms, builder).toString());
+			}
+		}
+	}
+
+	/**
+	 * Formats a time as {@code Time.format} did before {@link TimeFormatter}.
+	 */
+	static String legacyFormat(long ms, boolean signed,
+			Accuracy accuracy) {
+		if (signed) {
+			return (ms > 0L ? "+" : "-") + legacyFormat(ms, false, accuracy);
+		}
+		long time = Math.abs(ms);
+		long cen = (time % 1000L) / 10L;
+		long sec;
+
+		// Round to the nearest tenth.
+		if (accuracy == Accuracy.TENTH) {
+			cen = Math.round((double) cen / 10L);
+			if (cen == 10L) {
+				cen = 0L;
+				time = time + 1000L;
+			}
+		}
+
+		// Round to the nearest second.
+		if (accuracy == Accuracy.SECONDS) {
+			sec = Math.round((double) time / 1000);
+		} else {
+			sec = time / 1000L;
+		}
+		long min = sec / 60L;
+		sec      = sec % 60L;
+		long hou = min / 60L;
+		min      = min % 60L;
+
+		if (hou == 0L) {
+			if (min == 0L) {
+				switch (accuracy) {
+					case HUNDREDTH:
+						return String.format("%d.%02d", sec, cen);
+					case TENTH:
+						return String.format("%d.%d", sec, cen);
+					case SECONDS:
+						return String.format("%d", sec);
+				}
+			}
+			switch (accuracy) {
+				case HUNDREDTH:
+					return String.format("%d:%02d.%02d", min, sec, cen);
+				case TENTH:
+					return String.format("%d:%02d.%d", min, sec, cen);
+				case SECONDS:
+					return String.format("%d:%02d", min, sec);
+			}
+		}
+		switch (accuracy) {
+			case HUNDREDTH:
+				return String.format("%d:%02d:%02d.%02d", hou, min, sec, cen);
+			case TENTH:
+				return String.format("%d:%02d:%02d.%d", hou, min, sec, cen);
+			case SECONDS:
+				return String.format("%d:%02d:%02d", hou, min, sec);
+		}
+		// Should not be reachable.
+		return null;
+	}
+}
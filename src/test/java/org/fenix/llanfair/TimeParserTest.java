@@ -0,0 +1,178 @@
+package org.fenix.llanfair;
+
+import org.fenix.llanfair.config.Accuracy;
+import org.fenix.utils.Resources;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.text.ParseException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests of {@link TimeParser}, on its own and through {@link Time}, and of
+ * the parsing back of times formatted by {@link TimeFormatter}.
+ *
+ * @author  Xavier "Xunkar" Sencert
+ */
+public class TimeParserTest {
+
+	// ------------------------------------------------------------------ SETUP
+
+	/**
+	 * Loads the resources the messages of {@link Time} are localized from,
+	 * which are otherwise loaded by the main window.
+	 */
+	@BeforeClass public static void loadResources() throws Exception {
+		Field resources = Llanfair.class.getDeclaredField("RESOURCES");
+		resources.setAccessible(true);
+		if (resources.get(null) == null) {
+			resources.set(null, new Resources());
+		}
+	}
+
+	// ------------------------------------------------------------------ TESTS
+
+	@Test public void parsesSeconds() throws ParseException {
+		assertEquals(0L, TimeParser.parse("0"));
+		assertEquals(5000L, TimeParser.parse("5"));
+		assertEquals(100000L, TimeParser.parse("100"));
+		assertEquals(5000L, TimeParser.parse("05"));
+	}
+
+	@Test public void parsesFractions() throws ParseException {
+		assertEquals(5500L, TimeParser.parse("5.5"));
+		assertEquals(5050L, TimeParser.parse("5.05"));
+		assertEquals(5005L, TimeParser.parse("5.005"));
+		assertEquals(500L, TimeParser.parse(".5"));
+		assertEquals(5000L, TimeParser.parse("5."));
+		// Digits finer than the millisecond are ignored.
+		assertEquals(1234L, TimeParser.parse("1.23456"));
+		assertEquals(1999L, TimeParser.parse("1.9999"));
+	}
+
+	@Test public void parsesMinutesAndHours() throws ParseException {
+		assertEquals(90000L, TimeParser.parse("1:30"));
+		assertEquals(5000L, TimeParser.parse("0:05"));
+		assertEquals(3723456L, TimeParser.parse("1:02:03.456"));
+		assertEquals(3599990L, TimeParser.parse("59:59.99"));
+		// Only the first field may reach sixty.
+		assertEquals(5400000L, TimeParser.parse("90:00"));
+		assertEquals(360000000L, TimeParser.parse("100:00:00"));
+	}
+
+	@Test public void parsesSignsAndWhitespace() throws ParseException {
+		assertEquals(-90000L, TimeParser.parse("-1:30"));
+		assertEquals(90000L, TimeParser.parse("+1:30"));
+		assertEquals(-500L, TimeParser.parse("-.5"));
+		assertEquals(90000L, TimeParser.parse(" \t1:30 "));
+		assertEquals(-90000L, new Time("-1:30").getMilliseconds());
+	}
+
+	@Test public void parsesBetweenIndexes() throws ParseException {
+		String line = "Level 1;1:30;2:00.50";
+		assertEquals(90000L, TimeParser.parse(line, 8, 12));
+		assertEquals(120500L, TimeParser.parse(line, 13, line.length()));
+		try {
+			TimeParser.parse("Level 1;1:60", 8, 12);
+			fail("Accepted 1:60");
+		} catch (ParseException e) {
+			assertEquals(10, e.getErrorOffset());
+		}
+	}
+
+	@Test public void rejectsEmptyStamps() {
+		checkRejected("", 0);
+		checkRejected("   ", 3);
+		checkRejected("-", 1);
+		checkRejected("+", 1);
+		checkRejected(".", 1);
+		checkRejected("-.", 2);
+	}
+
+	@Test public void rejectsFieldsFromSixty() {
+		checkRejected("1:60", 2);
+		checkRejected("0:99.5", 2);
+		checkRejected("1:00:60", 5);
+		checkRejected("1:60:00", 2);
+		checkRejected("-1:60", 3);
+	}
+
+	@Test public void rejectsMissingDigits() {
+		checkRejected(":30", 0);
+		checkRejected("1:", 2);
+		checkRejected("1::30", 2);
+	}
+
+	@Test public void rejectsTooManyFields() {
+		checkRejected("1:00:00:00", 7);
+	}
+
+	@Test public void rejectsUnexpectedCharacters() {
+		checkRejected("abc", 0);
+		checkRejected("1a", 1);
+		checkRejected("1.2.3", 3);
+		checkRejected("1,5", 1);
+		checkRejected("1 : 30", 1);
+		checkRejected("--1", 1);
+		checkRejected("1:3O", 3);
+	}
+
+	@Test public void rejectsTooLargeStamps() {
+		checkRejected("9223372036854776", 0);
+		checkRejected("99999999999999999999", 0);
+		checkRejected("2562047788015216:00", 17);
+	}
+
+	@Test public void rejectsInvalidTimes() {
+		for (String stamp : new String[] { null, "", "1:60", "abc" }) {
+			try {
+				new Time(stamp);
+				fail("Accepted " + stamp);
+			} catch (IllegalArgumentException e) {
+				assertTrue(stamp, e.getCause() instanceof ParseException);
+			}
+		}
+	}
+
+	@Test public void parsesFormattedTimes() throws ParseException {
+		for (long ms = -7200000L; ms <= 7200000L; ms += 1230L) {
+			checkRoundTrip(ms / 10L * 10L, Accuracy.HUNDREDTH);
+			checkRoundTrip(ms / 100L * 100L, Accuracy.TENTH);
+			checkRoundTrip(ms / 1000L * 1000L, Accuracy.SECONDS);
+		}
+		checkRoundTrip(359999990L, Accuracy.HUNDREDTH);
+		checkRoundTrip(3600000000000L, Accuracy.HUNDREDTH);
+	}
+
+	// -------------------------------------------------------------- UTILITIES
+
+	/**
+	 * Checks that the given stamp is rejected at the given offset.
+	 */
+	private static void checkRejected(String stamp, int offset) {
+		try {
+			TimeParser.parse(stamp);
+			fail("Accepted " + stamp);
+		} catch (ParseException e) {
+			assertEquals(stamp, offset, e.getErrorOffset());
+		}
+	}
+
+	/**
+	 * Checks that the given time, exact to the given accuracy, is parsed back
+	 * from each of its formats.
+	 */
+	private static void checkRoundTrip(long ms, Accuracy accuracy)
+			throws ParseException {
+		for (boolean signed : new boolean[] { false, true }) {
+			String stamp = TimeFormatter.get(accuracy, signed).format(ms);
+			long expected = (signed || ms >= 0L) ? ms : -ms;
+			assertEquals(stamp, expected, TimeParser.parse(stamp));
+			assertEquals(stamp, expected, new Time(stamp).getMilliseconds());
+		}
+	}
+}